@@ -0,0 +1,188 @@
+package com.elderbyte.kafka.processor;
+
+import com.elderbyte.kafka.processor.MessageBlueprintProcessor.FieldModel;
+import com.elderbyte.kafka.processor.MessageBlueprintProcessor.HeaderModel;
+
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.PrimitiveType;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Writes the source of a generated MessageBlueprintProvider.
+ */
+class BlueprintSourceWriter {
+
+    /***************************************************************************
+     *                                                                         *
+     * Fields                                                                  *
+     *                                                                         *
+     **************************************************************************/
+
+    static final String PROVIDER_SUFFIX = "_MessageBlueprint";
+
+    private final ProcessingEnvironment processingEnv;
+    private final TypeElement type;
+    private final String packageName;
+    private final String typeName;
+    private final String providerSimpleName;
+
+    private final StringBuilder methods = new StringBuilder();
+
+    /***************************************************************************
+     *                                                                         *
+     * Constructor                                                             *
+     *                                                                         *
+     **************************************************************************/
+
+    BlueprintSourceWriter(ProcessingEnvironment processingEnv, TypeElement type){
+        this.processingEnv = processingEnv;
+        this.type = type;
+
+        var elements = processingEnv.getElementUtils();
+        this.packageName = elements.getPackageOf(type).getQualifiedName().toString();
+        this.typeName = type.getQualifiedName().toString();
+
+        var binaryName = elements.getBinaryName(type).toString();
+        var flatName = packageName.isEmpty() ? binaryName : binaryName.substring(packageName.length() + 1);
+        this.providerSimpleName = flatName.replace('$', '_') + PROVIDER_SUFFIX;
+    }
+
+    /***************************************************************************
+     *                                                                         *
+     * Public API                                                              *
+     *                                                                         *
+     **************************************************************************/
+
+    void messageBlueprint(boolean tombstone, boolean factory, FieldModel keyField, boolean keyRead, List<HeaderModel> headers){
+        methods.append("    @Override\n")
+                .append("    public MessageBlueprint<?, ?> messageBlueprint() {\n")
+                .append("        return MessageBlueprint.builder(").append(typeName).append(".class)\n")
+                .append("                .tombstone(").append(tombstone).append(")\n");
+        if(factory){
+            methods.append("                .factory(").append(typeName).append("::new)\n");
+        }
+        methods.append("                .key(");
+        fieldArguments(keyField, keyRead);
+        methods.append(")\n");
+
+        for(var header : headers){
+            methods.append("                .header(")
+                    .append(literal(header.field.getName())).append(", ")
+                    .append(literal(header.metadataKey)).append(", ")
+                    .append(classLiteral(header.field)).append(", ")
+                    .append(header.write).append(", ")
+                    .append(header.read).append(", ");
+            accessors(header.field);
+            methods.append(")\n");
+        }
+
+        methods.append("                .build();\n")
+                .append("    }\n\n");
+    }
+
+    void keyBlueprint(List<FieldModel> keyFields, List<Boolean> reads){
+        methods.append("    @Override\n")
+                .append("    public MessageKeyBlueprint<?> keyBlueprint() {\n")
+                .append("        return MessageKeyBlueprint.builder(").append(typeName).append(".class, ").append(typeName).append("::new)\n");
+
+        for(int i = 0; i < keyFields.size(); i++){
+            methods.append("                .key(");
+            fieldArguments(keyFields.get(i), reads.get(i));
+            methods.append(")\n");
+        }
+
+        methods.append("                .build();\n")
+                .append("    }\n\n");
+    }
+
+    /**
+     * Writes the source file, and returns the qualified name of the generated provider.
+     */
+    String write() throws IOException {
+        var providerName = packageName.isEmpty() ? providerSimpleName : packageName + "." + providerSimpleName;
+
+        var source = new StringBuilder();
+        if(!packageName.isEmpty()){
+            source.append("package ").append(packageName).append(";\n\n");
+        }
+        source.append("import com.elderbyte.kafka.messages.MessageBlueprint;\n")
+                .append("import com.elderbyte.kafka.messages.MessageBlueprintProvider;\n")
+                .append("import com.elderbyte.kafka.messages.MessageKeyBlueprint;\n\n")
+                .append("@javax.annotation.processing.Generated(\"").append(MessageBlueprintProcessor.class.getName()).append("\")\n")
+                .append("@SuppressWarnings({\"unchecked\", \"rawtypes\"})\n")
+                .append("public final class ").append(providerSimpleName).append(" implements MessageBlueprintProvider {\n\n")
+                .append("    @Override\n")
+                .append("    public Class<?> getType() {\n")
+                .append("        return ").append(typeName).append(".class;\n")
+                .append("    }\n\n")
+                .append(methods)
+                .append("}\n");
+
+        var file = processingEnv.getFiler().createSourceFile(providerName, type);
+        try(var writer = file.openWriter()){
+            writer.write(source.toString());
+        }
+        return providerName;
+    }
+
+    /***************************************************************************
+     *                                                                         *
+     * Private methods                                                         *
+     *                                                                         *
+     **************************************************************************/
+
+    private void fieldArguments(FieldModel field, boolean read){
+        methods.append(literal(field.getName())).append(", ")
+                .append(classLiteral(field)).append(", ")
+                .append(read).append(", ");
+        accessors(field);
+    }
+
+    private void accessors(FieldModel field){
+        var name = field.getName();
+        methods.append("m -> m.").append(name).append(", ");
+        if(field.isFinal()){
+            methods.append("null");
+        }else{
+            methods.append("(m, v) -> m.").append(name).append(" = (").append(castType(field)).append(") v");
+        }
+    }
+
+    private String classLiteral(FieldModel field){
+        return erasure(field) + ".class";
+    }
+
+    private String castType(FieldModel field){
+        if(field.isPrimitive()){
+            // Unboxes the value, as Field.set does
+            return processingEnv.getTypeUtils().boxedClass((PrimitiveType) field.type).getQualifiedName().toString();
+        }
+        return erasure(field);
+    }
+
+    private String erasure(FieldModel field){
+        return processingEnv.getTypeUtils().erasure(field.type).toString();
+    }
+
+    private static String literal(String value){
+        var literal = new StringBuilder("\"");
+        for(char c : value.toCharArray()){
+            switch (c){
+                case '"': literal.append("\\\""); break;
+                case '\\': literal.append("\\\\"); break;
+                case '\n': literal.append("\\n"); break;
+                case '\r': literal.append("\\r"); break;
+                case '\t': literal.append("\\t"); break;
+                default:
+                    if(c < 0x20){
+                        literal.append(String.format("\\u%04x", (int) c));
+                    }else{
+                        literal.append(c);
+                    }
+            }
+        }
+        return literal.append('"').toString();
+    }
+}
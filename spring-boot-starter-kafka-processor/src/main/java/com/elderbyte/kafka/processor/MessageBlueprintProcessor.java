@@ -0,0 +1,370 @@
+package com.elderbyte.kafka.processor;
+
+import javax.annotation.processing.*;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.*;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * Generates the blueprints of message and message-key classes at compile time,
+ * so they don't have to be scanned reflectively at runtime.
+ *
+ * For each class with @MessageKey fields, a MessageBlueprintProvider is generated next to it, and
+ * registered in META-INF/services. Classes which can't be accessed from generated code
+ * (i.e. private or generic classes) are skipped, and keep using reflection.
+ */
+@SupportedAnnotationTypes({
+        MessageBlueprintProcessor.MESSAGE_KEY,
+        MessageBlueprintProcessor.MESSAGE_COMPOSITE_KEY,
+        MessageBlueprintProcessor.MESSAGE,
+        MessageBlueprintProcessor.TOMBSTONE
+})
+public class MessageBlueprintProcessor extends AbstractProcessor {
+
+    /***************************************************************************
+     *                                                                         *
+     * Fields                                                                  *
+     *                                                                         *
+     **************************************************************************/
+
+    static final String ANNOTATIONS = "com.elderbyte.messaging.annotations.";
+    static final String MESSAGE_KEY = ANNOTATIONS + "MessageKey";
+    static final String MESSAGE_COMPOSITE_KEY = ANNOTATIONS + "MessageCompositeKey";
+    static final String MESSAGE_HEADER = ANNOTATIONS + "MessageHeader";
+    static final String MESSAGE = ANNOTATIONS + "Message";
+    static final String TOMBSTONE = ANNOTATIONS + "Tombstone";
+
+    static final String PROVIDER_SERVICE = "META-INF/services/com.elderbyte.kafka.messages.MessageBlueprintProvider";
+
+    private final Set<String> processedTypes = new HashSet<>();
+    private final Set<String> generatedProviders = new TreeSet<>();
+
+    /***************************************************************************
+     *                                                                         *
+     * Public API                                                              *
+     *                                                                         *
+     **************************************************************************/
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+
+        if(roundEnv.processingOver()){
+            writeServiceFile();
+            return false;
+        }
+
+        for(var annotation : annotations){
+            for(var element : roundEnv.getElementsAnnotatedWith(annotation)){
+                var type = element instanceof TypeElement ? (TypeElement) element : (TypeElement) element.getEnclosingElement();
+                if(processedTypes.add(type.getQualifiedName().toString())){
+                    processType(type);
+                }
+            }
+        }
+        return false;
+    }
+
+    /***************************************************************************
+     *                                                                         *
+     * Private methods                                                         *
+     *                                                                         *
+     **************************************************************************/
+
+    private void processType(TypeElement type){
+
+        if(type.getKind() != ElementKind.CLASS || !isAccessible(type)){
+            return; // Falls back to reflection
+        }
+
+        var declaredType = (DeclaredType) type.asType();
+        var fields = new ArrayList<FieldModel>();
+        for(var field : ElementFilter.fieldsIn(processingEnv.getElementUtils().getAllMembers(type))){
+            var modifiers = field.getModifiers();
+            if(modifiers.contains(Modifier.PUBLIC) && !modifiers.contains(Modifier.STATIC)){
+                if(!isAccessibleFrom(field, type)){
+                    return; // Falls back to reflection
+                }
+                var fieldType = processingEnv.getTypeUtils().asMemberOf(declaredType, field);
+                fields.add(new FieldModel(field, fieldType));
+            }
+        }
+
+        var keyFields = new LinkedHashMap<String, FieldModel>();
+        for(var field : fields){
+            if(findAnnotation(field.element, MESSAGE_KEY) != null){
+                keyFields.put(field.getName(), field);
+            }
+        }
+
+        if(keyFields.isEmpty()){
+            return; // Not a message, i.e. a @Message without key
+        }
+
+        var compositeKey = findAnnotation(type, MESSAGE_COMPOSITE_KEY);
+        var compositeNames = compositeKey != null ? stringArrayValue(compositeKey, "value") : Collections.<String>emptyList();
+
+        List<FieldModel> keySequence;
+        if(!compositeNames.isEmpty()){
+            keySequence = new ArrayList<>();
+            for(var name : compositeNames){
+                var field = keyFields.get(name);
+                if(field == null){
+                    error(type, "Could not find composite-key field " + name);
+                    return;
+                }
+                keySequence.add(field);
+            }
+            if(keySequence.size() != keyFields.size()){
+                error(type, "Each composite-key must have a matching @MessageKey field," +
+                        " fields: " + String.join(", ", keyFields.keySet()) +
+                        "; composite-keys: " + String.join(", ", compositeNames));
+                return;
+            }
+        }else if(keyFields.size() > 1){
+            error(type, "@MessageKey can only be specified once on a message without a composite-key," +
+                    " but was on fields: " + String.join(", ", keyFields.keySet()));
+            return;
+        }else{
+            keySequence = new ArrayList<>(keyFields.values());
+        }
+
+        var tombstone = findAnnotation(type, TOMBSTONE) != null;
+        var headers = new ArrayList<HeaderModel>();
+        for(var field : fields){
+            var header = findAnnotation(field.element, MESSAGE_HEADER);
+            if(tombstone || header != null){
+                headers.add(headerOf(field, header));
+            }
+        }
+
+        var writer = new BlueprintSourceWriter(processingEnv, type);
+        var singleKey = keySequence.size() == 1 ? keySequence.get(0) : null;
+        var keyRead = singleKey != null && booleanValue(findAnnotation(singleKey.element, MESSAGE_KEY), "read");
+
+        if(singleKey != null){
+            // Tombstones are instantiated by the library, so they get a factory without reflection
+            writer.messageBlueprint(tombstone, tombstone && hasNoArgsConstructor(type), singleKey, keyRead, headers);
+        }
+        if(hasNoArgsConstructor(type)){
+            var reads = new ArrayList<Boolean>();
+            for(var field : keySequence){
+                reads.add(booleanValue(findAnnotation(field.element, MESSAGE_KEY), "read"));
+            }
+            writer.keyBlueprint(keySequence, reads);
+        }
+
+        try {
+            var providerName = writer.write();
+            generatedProviders.add(providerName);
+        }catch (IOException e){
+            error(type, "Failed to generate message blueprint: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Mirrors MetadataField.from
+     */
+    private HeaderModel headerOf(FieldModel field, AnnotationMirror header){
+        var metadataKey = field.getName();
+        var write = true;
+        var read = true;
+
+        if(header != null){
+            var key = stringValue(header, "key");
+            if(key.isBlank()){
+                key = stringValue(header, "value");
+            }
+            if(!key.isBlank()){
+                metadataKey = key;
+                write = booleanValue(header, "write");
+                read = booleanValue(header, "read");
+            }
+        }
+        return new HeaderModel(field, metadataKey, write, read);
+    }
+
+    private void writeServiceFile(){
+        if(generatedProviders.isEmpty()){
+            return;
+        }
+
+        var providers = new TreeSet<>(generatedProviders);
+        var filer = processingEnv.getFiler();
+
+        // Keep the providers of classes which have not been compiled in this run
+        try {
+            FileObject existing = filer.getResource(StandardLocation.CLASS_OUTPUT, "", PROVIDER_SERVICE);
+            try(var reader = new BufferedReader(new InputStreamReader(existing.openInputStream(), StandardCharsets.UTF_8))){
+                String line;
+                while ((line = reader.readLine()) != null){
+                    if(!line.isBlank()){
+                        providers.add(line.trim());
+                    }
+                }
+            }
+        }catch (IOException e){
+            // No previous service file
+        }
+
+        try {
+            FileObject file = filer.createResource(StandardLocation.CLASS_OUTPUT, "", PROVIDER_SERVICE);
+            try(Writer writer = file.openWriter()){
+                for(var provider : providers){
+                    writer.write(provider);
+                    writer.write('\n');
+                }
+            }
+        }catch (IOException e){
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "Failed to write " + PROVIDER_SERVICE + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Returns true if the generated provider in the same package can access the class.
+     */
+    private boolean isAccessible(TypeElement type){
+        if(!type.getTypeParameters().isEmpty()){
+            return false;
+        }
+        Element current = type;
+        while (current instanceof TypeElement){
+            var modifiers = current.getModifiers();
+            if(modifiers.contains(Modifier.PRIVATE)){
+                return false;
+            }
+            var enclosing = current.getEnclosingElement();
+            if(enclosing instanceof TypeElement && !modifiers.contains(Modifier.STATIC)){
+                return false; // Inner class
+            }
+            current = enclosing;
+        }
+        return true;
+    }
+
+    private boolean isAccessibleFrom(VariableElement field, TypeElement type){
+        var owner = (TypeElement) field.getEnclosingElement();
+        if(owner.getModifiers().contains(Modifier.PUBLIC)){
+            return true;
+        }
+        var elements = processingEnv.getElementUtils();
+        return elements.getPackageOf(owner).equals(elements.getPackageOf(type));
+    }
+
+    private boolean hasNoArgsConstructor(TypeElement type){
+        if(type.getModifiers().contains(Modifier.ABSTRACT)){
+            return false;
+        }
+        for(var constructor : ElementFilter.constructorsIn(type.getEnclosedElements())){
+            if(constructor.getParameters().isEmpty() && !constructor.getModifiers().contains(Modifier.PRIVATE)){
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private AnnotationMirror findAnnotation(Element element, String annotationName){
+        for(var mirror : element.getAnnotationMirrors()){
+            var annotationType = (TypeElement) mirror.getAnnotationType().asElement();
+            if(annotationType.getQualifiedName().contentEquals(annotationName)){
+                return mirror;
+            }
+        }
+        return null;
+    }
+
+    private AnnotationValue valueOf(AnnotationMirror mirror, String name){
+        var values = processingEnv.getElementUtils().getElementValuesWithDefaults(mirror);
+        for(var entry : values.entrySet()){
+            if(entry.getKey().getSimpleName().contentEquals(name)){
+                return entry.getValue();
+            }
+        }
+        return null;
+    }
+
+    private boolean booleanValue(AnnotationMirror mirror, String name){
+        var value = valueOf(mirror, name);
+        return value == null || (Boolean) value.getValue();
+    }
+
+    private String stringValue(AnnotationMirror mirror, String name){
+        var value = valueOf(mirror, name);
+        return value != null ? (String) value.getValue() : "";
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<String> stringArrayValue(AnnotationMirror mirror, String name){
+        var value = valueOf(mirror, name);
+        var strings = new ArrayList<String>();
+        if(value != null){
+            for(var item : (List<? extends AnnotationValue>) value.getValue()){
+                strings.add((String) item.getValue());
+            }
+        }
+        return strings;
+    }
+
+    private void error(Element element, String message){
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, message, element);
+    }
+
+    /***************************************************************************
+     *                                                                         *
+     * Inner classes                                                           *
+     *                                                                         *
+     **************************************************************************/
+
+    static final class FieldModel {
+
+        final VariableElement element;
+        final TypeMirror type;
+
+        FieldModel(VariableElement element, TypeMirror type){
+            this.element = element;
+            this.type = type;
+        }
+
+        String getName(){
+            return element.getSimpleName().toString();
+        }
+
+        boolean isFinal(){
+            return element.getModifiers().contains(Modifier.FINAL);
+        }
+
+        boolean isPrimitive(){
+            return type.getKind().isPrimitive();
+        }
+    }
+
+    static final class HeaderModel {
+
+        final FieldModel field;
+        final String metadataKey;
+        final boolean write;
+        final boolean read;
+
+        HeaderModel(FieldModel field, String metadataKey, boolean write, boolean read){
+            this.field = field;
+            this.metadataKey = metadataKey;
+            this.write = write;
+            this.read = read;
+        }
+    }
+}
@@ -0,0 +1,241 @@
+package com.elderbyte.kafka.processor;
+
+import org.junit.Test;
+
+import javax.tools.*;
+import java.io.*;
+import java.net.URI;
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+public class MessageBlueprintProcessorTest {
+
+    private static final String ANNOTATIONS = "package com.elderbyte.messaging.annotations;\n" +
+            "import java.lang.annotation.*;\n";
+
+    private static final List<JavaFileObject> SUPPORT_SOURCES = Arrays.asList(
+            source("com.elderbyte.messaging.annotations.MessageKey", ANNOTATIONS +
+                    "@Retention(RetentionPolicy.RUNTIME) @Target(ElementType.FIELD) public @interface MessageKey { boolean read() default true; }"),
+            source("com.elderbyte.messaging.annotations.MessageHeader", ANNOTATIONS +
+                    "@Retention(RetentionPolicy.RUNTIME) @Target(ElementType.FIELD) public @interface MessageHeader { String value() default \"\"; String key() default \"\"; boolean write() default true; boolean read() default true; }"),
+            source("com.elderbyte.messaging.annotations.MessageCompositeKey", ANNOTATIONS +
+                    "@Retention(RetentionPolicy.RUNTIME) @Target(ElementType.TYPE) public @interface MessageCompositeKey { String[] value(); }"),
+            source("com.elderbyte.messaging.annotations.Tombstone", ANNOTATIONS +
+                    "@Retention(RetentionPolicy.RUNTIME) @Target(ElementType.TYPE) public @interface Tombstone { }"),
+            source("com.elderbyte.messaging.annotations.Message", ANNOTATIONS +
+                    "@Retention(RetentionPolicy.RUNTIME) @Target(ElementType.TYPE) public @interface Message { }"),
+            // The generated sources are only entered, not compiled, so their imports just have to resolve
+            source("com.elderbyte.kafka.messages.MessageBlueprint",
+                    "package com.elderbyte.kafka.messages; public class MessageBlueprint<K, M> { }"),
+            source("com.elderbyte.kafka.messages.MessageKeyBlueprint",
+                    "package com.elderbyte.kafka.messages; public class MessageKeyBlueprint<K> { }"),
+            source("com.elderbyte.kafka.messages.MessageBlueprintProvider",
+                    "package com.elderbyte.kafka.messages; public interface MessageBlueprintProvider { }")
+    );
+
+    @Test
+    public void generates_message_blueprint_with_headers() {
+        var result = process(source("demo.Order",
+                "package demo;\n" +
+                "import com.elderbyte.messaging.annotations.*;\n" +
+                "public class Order {\n" +
+                "  @MessageKey public String id;\n" +
+                "  @MessageHeader(key = \"tenant-id\", write = false) public String tenant;\n" +
+                "  public final long version = 1;\n" +
+                "}"));
+
+        assertTrue(result.diagnostics(), result.success);
+        var generated = result.sources.get("demo.Order_MessageBlueprint");
+        assertNotNull(generated);
+        assertTrue(generated, generated.contains(".tombstone(false)"));
+        assertFalse(generated, generated.contains(".factory("));
+        assertTrue(generated, generated.contains(".key(\"id\", java.lang.String.class, true, m -> m.id, (m, v) -> m.id = (java.lang.String) v)"));
+        assertTrue(generated, generated.contains(".header(\"tenant\", \"tenant-id\", java.lang.String.class, false, true,"));
+        assertFalse(generated, generated.contains("version"));
+        assertEquals(Collections.singletonList("demo.Order_MessageBlueprint"), result.providers);
+    }
+
+    @Test
+    public void generates_composite_key_blueprint_in_key_order() {
+        var result = process(source("demo.Outer",
+                "package demo;\n" +
+                "import com.elderbyte.messaging.annotations.*;\n" +
+                "public class Outer {\n" +
+                "  @MessageCompositeKey({\"company\", \"number\"})\n" +
+                "  public static class OrderKey {\n" +
+                "    @MessageKey public long number;\n" +
+                "    @MessageKey public String company;\n" +
+                "  }\n" +
+                "}"));
+
+        assertTrue(result.diagnostics(), result.success);
+        var generated = result.sources.get("demo.Outer_OrderKey_MessageBlueprint");
+        assertNotNull(generated);
+        assertFalse(generated, generated.contains("messageBlueprint()"));
+        assertTrue(generated, generated.contains("MessageKeyBlueprint.builder(demo.Outer.OrderKey.class, demo.Outer.OrderKey::new)"));
+        assertTrue(generated, generated.indexOf("\"company\"") < generated.indexOf("\"number\""));
+        assertTrue(generated, generated.contains("(m, v) -> m.number = (java.lang.Long) v"));
+    }
+
+    @Test
+    public void tombstone_maps_all_fields_to_headers() {
+        var result = process(source("demo.Deleted",
+                "package demo;\n" +
+                "import com.elderbyte.messaging.annotations.*;\n" +
+                "@Tombstone public class Deleted {\n" +
+                "  @MessageKey public String id;\n" +
+                "  public String tenant;\n" +
+                "}"));
+
+        assertTrue(result.diagnostics(), result.success);
+        var generated = result.sources.get("demo.Deleted_MessageBlueprint");
+        assertTrue(generated, generated.contains(".tombstone(true)"));
+        assertTrue(generated, generated.contains(".factory(demo.Deleted::new)"));
+        assertTrue(generated, generated.contains(".header(\"id\", \"id\""));
+        assertTrue(generated, generated.contains(".header(\"tenant\", \"tenant\""));
+    }
+
+    @Test
+    public void skips_private_classes() {
+        var result = process(source("demo.Holder",
+                "package demo;\n" +
+                "import com.elderbyte.messaging.annotations.*;\n" +
+                "public class Holder {\n" +
+                "  private static class Hidden { @MessageKey public String id; }\n" +
+                "}"));
+
+        assertTrue(result.diagnostics(), result.success);
+        assertTrue(result.sources.isEmpty());
+    }
+
+    @Test
+    public void fails_on_invalid_composite_key() {
+        var result = process(source("demo.BadKey",
+                "package demo;\n" +
+                "import com.elderbyte.messaging.annotations.*;\n" +
+                "@MessageCompositeKey({\"a\", \"missing\"})\n" +
+                "public class BadKey {\n" +
+                "  @MessageKey public String a;\n" +
+                "  @MessageKey public String b;\n" +
+                "}"));
+
+        assertFalse(result.success);
+        assertTrue(result.diagnostics(), result.diagnostics().contains("Could not find composite-key field missing"));
+    }
+
+    /***************************************************************************
+     *                                                                         *
+     * Private methods                                                         *
+     *                                                                         *
+     **************************************************************************/
+
+    private static ProcessingResult process(JavaFileObject source){
+        var compiler = ToolProvider.getSystemJavaCompiler();
+        var diagnostics = new DiagnosticCollector<JavaFileObject>();
+        var fileManager = new InMemoryFileManager(compiler.getStandardFileManager(diagnostics, null, null));
+
+        var sources = new ArrayList<>(SUPPORT_SOURCES);
+        sources.add(source);
+
+        var task = compiler.getTask(null, fileManager, diagnostics, Collections.singletonList("-proc:only"), null, sources);
+        task.setProcessors(Collections.singletonList(new MessageBlueprintProcessor()));
+        var success = task.call();
+
+        return new ProcessingResult(success, diagnostics.getDiagnostics(), fileManager.generatedSources(), fileManager.providers());
+    }
+
+    private static JavaFileObject source(String className, String code){
+        return new SimpleJavaFileObject(URI.create("string:///" + className.replace('.', '/') + ".java"), JavaFileObject.Kind.SOURCE) {
+            @Override
+            public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+                return code;
+            }
+        };
+    }
+
+    /***************************************************************************
+     *                                                                         *
+     * Inner classes                                                           *
+     *                                                                         *
+     **************************************************************************/
+
+    private static class ProcessingResult {
+
+        final boolean success;
+        final List<Diagnostic<? extends JavaFileObject>> diagnosticList;
+        final Map<String, String> sources;
+        final List<String> providers;
+
+        ProcessingResult(boolean success, List<Diagnostic<? extends JavaFileObject>> diagnosticList, Map<String, String> sources, List<String> providers){
+            this.success = success;
+            this.diagnosticList = diagnosticList;
+            this.sources = sources;
+            this.providers = providers;
+        }
+
+        String diagnostics(){
+            var text = new StringBuilder();
+            diagnosticList.forEach(d -> text.append(d.getMessage(Locale.ROOT)).append('\n'));
+            return text.toString();
+        }
+    }
+
+    /**
+     * Keeps the generated files in memory.
+     */
+    private static class InMemoryFileManager extends ForwardingJavaFileManager<StandardJavaFileManager> {
+
+        private final Map<String, ByteArrayOutputStream> sources = new TreeMap<>();
+        private final Map<String, ByteArrayOutputStream> resources = new TreeMap<>();
+
+        InMemoryFileManager(StandardJavaFileManager fileManager){
+            super(fileManager);
+        }
+
+        @Override
+        public JavaFileObject getJavaFileForOutput(Location location, String className, JavaFileObject.Kind kind, FileObject sibling) {
+            var content = new ByteArrayOutputStream();
+            sources.put(className, content);
+            return new SimpleJavaFileObject(URI.create("mem:///" + className.replace('.', '/') + kind.extension), kind) {
+                @Override
+                public OutputStream openOutputStream() {
+                    return content;
+                }
+
+                @Override
+                public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+                    return content.toString();
+                }
+            };
+        }
+
+        @Override
+        public FileObject getFileForOutput(Location location, String packageName, String relativeName, FileObject sibling) {
+            var content = new ByteArrayOutputStream();
+            resources.put(relativeName, content);
+            return new SimpleJavaFileObject(URI.create("mem:///" + relativeName), JavaFileObject.Kind.OTHER) {
+                @Override
+                public InputStream openInputStream() throws IOException {
+                    throw new FileNotFoundException(relativeName);
+                }
+
+                @Override
+                public OutputStream openOutputStream() {
+                    return content;
+                }
+            };
+        }
+
+        Map<String, String> generatedSources(){
+            var generated = new TreeMap<String, String>();
+            sources.forEach((name, content) -> generated.put(name, content.toString()));
+            return generated;
+        }
+
+        List<String> providers(){
+            var service = resources.get(MessageBlueprintProcessor.PROVIDER_SERVICE);
+            return service != null ? Arrays.asList(service.toString().trim().split("\n")) : Collections.emptyList();
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.elderbyte.kafka.config;
 
+import com.elderbyte.kafka.streams.serdes.StreamsValueFormat;
 import com.elderbyte.kafka.topics.TopicProperties;
 import org.apache.kafka.streams.StreamsConfig;
 import org.springframework.boot.context.properties.ConfigurationProperties;
@@ -93,6 +94,7 @@ public class KafkaClientProperties {
         private String producerAcks = "1"; // all for HA
         private String stateDir = null;
         private String optimizeTopology = StreamsConfig.OPTIMIZE; // default none
+        private StreamsValueFormat valueFormat = StreamsValueFormat.JSON; // Stores, changelogs and repartition topics
 
         public Duration getCommitInterval() {
             return commitInterval;
@@ -141,6 +143,14 @@ public class KafkaClientProperties {
         public void setOptimizeTopology(String optimizeTopology) {
             this.optimizeTopology = optimizeTopology;
         }
+
+        public StreamsValueFormat getValueFormat() {
+            return valueFormat;
+        }
+
+        public void setValueFormat(StreamsValueFormat valueFormat) {
+            this.valueFormat = valueFormat;
+        }
     }
 
     public static class ProducerProperties {
@@ -0,0 +1,89 @@
+package com.elderbyte.kafka.consumer;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+
+import java.util.function.Supplier;
+
+/**
+ * A consumer record whose value is decoded on the first call to {@link #value()}.
+ *
+ * The decoded value is memoized. Records whose value is never accessed are never decoded.
+ * If decoding fails, every call to value() throws.
+ */
+public class LazyConsumerRecord<K,V> extends ConsumerRecord<K,V> {
+
+    /***************************************************************************
+     *                                                                         *
+     * Fields                                                                  *
+     *                                                                         *
+     **************************************************************************/
+
+    private Supplier<V> valueDecoder;
+    private volatile V value;
+    private volatile boolean decoded = false;
+
+    /***************************************************************************
+     *                                                                         *
+     * Constructor                                                             *
+     *                                                                         *
+     **************************************************************************/
+
+    /**
+     * Creates a new LazyConsumerRecord
+     *
+     * @param record The raw record, providing the metadata.
+     * @param key The decoded key.
+     * @param valueDecoder Decodes the value of the raw record.
+     */
+    public LazyConsumerRecord(ConsumerRecord<?, ?> record, K key, Supplier<V> valueDecoder){
+        super(
+                record.topic(),
+                record.partition(),
+                record.offset(),
+                record.timestamp(),
+                record.timestampType(),
+                null,
+                record.serializedKeySize(),
+                record.serializedValueSize(),
+                key,
+                null,
+                record.headers()
+        );
+        if(valueDecoder == null) throw new IllegalArgumentException("valueDecoder must not be null");
+        this.valueDecoder = valueDecoder;
+    }
+
+    /***************************************************************************
+     *                                                                         *
+     * Properties                                                              *
+     *                                                                         *
+     **************************************************************************/
+
+    @Override
+    public V value() {
+        if(!decoded){
+            synchronized (this){
+                if(!decoded){
+                    value = valueDecoder.get();
+                    valueDecoder = null; // Release the raw record
+                    decoded = true;
+                }
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Returns true if the value has already been decoded.
+     */
+    public boolean isDecoded() {
+        return decoded;
+    }
+
+    @Override
+    public String toString() {
+        return "LazyConsumerRecord(topic = " + topic() + ", partition = " + partition()
+                + ", offset = " + offset() + ", key = " + key()
+                + ", value = " + (decoded ? value : "<not decoded>") + ")";
+    }
+}
@@ -0,0 +1,20 @@
+package com.elderbyte.kafka.consumer.configuration;
+
+/**
+ * Defines how the records of a batch are split into shards for parallel processing.
+ * Records within the same shard are always processed in order.
+ */
+public enum ShardingStrategy {
+
+    /**
+     * Records of the same topic-partition end up in the same shard.
+     * Preserves the full partition order.
+     */
+    PARTITION,
+
+    /**
+     * Records with the same key end up in the same shard.
+     * Preserves the order per key.
+     */
+    KEY
+}
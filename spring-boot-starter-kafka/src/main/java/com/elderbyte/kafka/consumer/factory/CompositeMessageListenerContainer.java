@@ -0,0 +1,173 @@
+package com.elderbyte.kafka.consumer.factory;
+
+import org.apache.kafka.common.Metric;
+import org.apache.kafka.common.MetricName;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.listener.MessageListenerContainer;
+
+import java.util.*;
+
+/**
+ * Runs a primary listener container together with its dependent containers,
+ * i.e. the listener of the retry topics. All lifecycle operations apply to all containers,
+ * while the configuration is taken from the primary container.
+ */
+public class CompositeMessageListenerContainer implements MessageListenerContainer {
+
+    /***************************************************************************
+     *                                                                         *
+     * Fields                                                                  *
+     *                                                                         *
+     **************************************************************************/
+
+    private final MessageListenerContainer primary;
+    private final List<MessageListenerContainer> containers;
+
+    /***************************************************************************
+     *                                                                         *
+     * Constructor                                                             *
+     *                                                                         *
+     **************************************************************************/
+
+    /**
+     * Creates a new CompositeMessageListenerContainer
+     *
+     * @param primary The primary container
+     * @param dependents The containers which run along the primary container
+     */
+    public CompositeMessageListenerContainer(MessageListenerContainer primary, MessageListenerContainer... dependents){
+        if(primary == null) throw new IllegalArgumentException("primary must not be null");
+
+        this.primary = primary;
+        this.containers = new ArrayList<>();
+        this.containers.add(primary);
+        this.containers.addAll(Arrays.asList(dependents));
+    }
+
+    /***************************************************************************
+     *                                                                         *
+     * Public API                                                              *
+     *                                                                         *
+     **************************************************************************/
+
+    @Override
+    public void setupMessageListener(Object messageListener) {
+        primary.setupMessageListener(messageListener);
+    }
+
+    @Override
+    public Map<String, Map<MetricName, ? extends Metric>> metrics() {
+        var metrics = new HashMap<String, Map<MetricName, ? extends Metric>>();
+        containers.forEach(c -> metrics.putAll(c.metrics()));
+        return metrics;
+    }
+
+    @Override
+    public ContainerProperties getContainerProperties() {
+        return primary.getContainerProperties();
+    }
+
+    @Override
+    public Collection<TopicPartition> getAssignedPartitions() {
+        var partitions = new ArrayList<TopicPartition>();
+        for(var container : containers){
+            var assigned = container.getAssignedPartitions();
+            if(assigned != null){
+                partitions.addAll(assigned);
+            }
+        }
+        return partitions;
+    }
+
+    @Override
+    public void pause() {
+        containers.forEach(MessageListenerContainer::pause);
+    }
+
+    @Override
+    public void resume() {
+        containers.forEach(MessageListenerContainer::resume);
+    }
+
+    @Override
+    public boolean isPauseRequested() {
+        return primary.isPauseRequested();
+    }
+
+    @Override
+    public boolean isContainerPaused() {
+        return containers.stream().allMatch(MessageListenerContainer::isContainerPaused);
+    }
+
+    @Override
+    public void setAutoStartup(boolean autoStartup) {
+        containers.forEach(c -> c.setAutoStartup(autoStartup));
+    }
+
+    @Override
+    public boolean isAutoStartup() {
+        return primary.isAutoStartup();
+    }
+
+    @Override
+    public String getGroupId() {
+        return primary.getGroupId();
+    }
+
+    @Override
+    public String getListenerId() {
+        return primary.getListenerId();
+    }
+
+    /**
+     * Starts all containers which are not running, i.e. also restarts a dependent container which has stopped.
+     */
+    @Override
+    public void start() {
+        for(var container : containers){
+            if(!container.isRunning()){
+                container.start();
+            }
+        }
+    }
+
+    @Override
+    public void stop() {
+        containers.forEach(MessageListenerContainer::stop);
+    }
+
+    @Override
+    public void stop(Runnable callback) {
+        stop();
+        callback.run();
+    }
+
+    /**
+     * The composite is only running while all of its containers are running, since the primary
+     * container can't skip failed records without the dependent retry container.
+     */
+    @Override
+    public boolean isRunning() {
+        return containers.stream().allMatch(MessageListenerContainer::isRunning);
+    }
+
+    /**
+     * @return The primary container.
+     */
+    public MessageListenerContainer getPrimary() {
+        return primary;
+    }
+
+    /**
+     * @return The containers which run along the primary container.
+     */
+    public List<MessageListenerContainer> getDependents() {
+        return Collections.unmodifiableList(containers.subList(1, containers.size()));
+    }
+
+    @Override
+    public int getPhase() {
+        return primary.getPhase();
+    }
+}
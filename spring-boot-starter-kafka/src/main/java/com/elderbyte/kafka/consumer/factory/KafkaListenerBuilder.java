@@ -1,7 +1,11 @@
 package com.elderbyte.kafka.consumer.factory;
 
 import com.elderbyte.kafka.consumer.configuration.AutoOffsetReset;
+import com.elderbyte.kafka.consumer.configuration.ShardingStrategy;
+import com.elderbyte.kafka.consumer.processing.ProcessingErrorHandler;
 import com.elderbyte.kafka.consumer.processing.Processor;
+import com.elderbyte.kafka.consumer.processing.SinkHealthIndicator;
+import com.elderbyte.kafka.consumer.processing.retry.RetryPolicy;
 import com.elderbyte.kafka.messages.MessageBatch;
 import com.elderbyte.kafka.metrics.MetricsContext;
 import com.elderbyte.kafka.records.RecordBatch;
@@ -12,7 +16,9 @@ import org.apache.kafka.common.serialization.Deserializer;
 import org.springframework.kafka.listener.ConsumerAwareRebalanceListener;
 import org.springframework.kafka.listener.MessageListenerContainer;
 
+import java.time.Duration;
 import java.util.List;
+import java.util.function.Predicate;
 
 /**
  * Provides the ability to build a kafka listener configuration
@@ -62,9 +68,138 @@ public interface KafkaListenerBuilder<K,V> {
     /**
      * On error, retry the given number of times.
      * After that, a errorhandler is invoked and the records are skipped.
+     *
+     * Retries don't block the consumer thread. The partitions of the failed batch are rewound and paused
+     * for the retry backoff, while the consumer keeps polling the other partitions. Requires manual ack.
      */
     KafkaListenerBuilder<K,V> blockingRetries(int retries);
 
+    /**
+     * Set the delay between retries of a failed batch. The delay doubles with every attempt,
+     * up to the max delay, and is jittered. Defaults to 1 second up to 1 minute.
+     *
+     * @param initialDelay The delay before the first retry.
+     * @param maxDelay The upper bound of the delay.
+     */
+    KafkaListenerBuilder<K,V> retryBackoff(Duration initialDelay, Duration maxDelay);
+
+    /**
+     * Set the handler which is invoked with the records which could not be processed,
+     * before they are skipped. If the handler throws or returns false, the records are not skipped,
+     * but delivered again after a backoff delay. Requires manual ack.
+     */
+    KafkaListenerBuilder<K,V> errorHandler(ProcessingErrorHandler<K,V> errorHandler);
+
+    /**
+     * When a batch fails, split it up recursively until the failing records are isolated.
+     * All other records of the batch are processed and committed, and only the failing
+     * records are passed to the error handler.
+     *
+     * Note that a processor may see parts of a batch more than once.
+     */
+    KafkaListenerBuilder<K,V> bisectOnError();
+
+    /**
+     * Retry failed records without blocking the main topic.
+     *
+     * Failed records are skipped in the main topic and published to the retry topic of their next attempt,
+     * along with headers about their origin and attempt. A second listener consumes the retry topics with the
+     * same processor, but only processes each record once its tier delay has passed. Until then, the retry
+     * partition is paused. Records which fail in the last tier are published to the dead letter topic.
+     *
+     * The retry and dead letter topics must exist (see {@link RetryPolicy} for their names).
+     * The records are republished with their original key and value bytes, so any serialisation works.
+     * This replaces a configured error handler and blocking retries.
+     *
+     * @param policy The retry tiers.
+     */
+    KafkaListenerBuilder<K,V> retryTopics(RetryPolicy policy);
+
+    /**
+     * Gate consumption on the health of the sink, where the processor writes its records to.
+     *
+     * While the indicator reports unhealthy, the partitions are paused and rewound, so no real batches
+     * are wasted and no retries are used up. The indicator is probed every 5 seconds, and once it reports
+     * healthy, consumption resumes automatically. The paused time is reported to the metrics reporter.
+     * Requires manual ack.
+     *
+     * @param indicator A cheap health check of the sink.
+     */
+    KafkaListenerBuilder<K,V> sinkHealth(SinkHealthIndicator indicator);
+
+    /**
+     * Gate consumption on the health of the sink, see {@link #sinkHealth(SinkHealthIndicator)}.
+     *
+     * @param indicator A cheap health check of the sink.
+     * @param probeInterval How often the indicator is probed.
+     */
+    KafkaListenerBuilder<K,V> sinkHealth(SinkHealthIndicator indicator, Duration probeInterval);
+
+    /**
+     * Adapt the batch size to the speed of the sink.
+     *
+     * The processing time of each batch is measured, and the polled records are fed to the processor
+     * in slices which are sized to take about the target latency. When the sink slows down, the slices shrink,
+     * when it is fast, they grow up to the whole poll (max.poll.records). This keeps the latency of a single
+     * processor call bounded while keeping the throughput high.
+     * Only the offsets of successfully processed slices are committed.
+     *
+     * Once the slices of a poll have taken longer than the poll budget (2 minutes by default),
+     * the remaining records are left for the next poll, so the consumer doesn't exceed max.poll.interval.ms.
+     *
+     * @param targetLatency The processing time per batch to aim for.
+     */
+    KafkaListenerBuilder<K,V> adaptiveBatchSize(Duration targetLatency);
+
+    /**
+     * Adapt the batch size to the speed of the sink, see {@link #adaptiveBatchSize(Duration)}.
+     *
+     * @param targetLatency The processing time per batch to aim for.
+     * @param minSize The min batch size.
+     * @param maxSize The max batch size.
+     */
+    KafkaListenerBuilder<K,V> adaptiveBatchSize(Duration targetLatency, int minSize, int maxSize);
+
+    /**
+     * Adapt the batch size to the speed of the sink, see {@link #adaptiveBatchSize(Duration)}.
+     *
+     * @param targetLatency The processing time per batch to aim for.
+     * @param minSize The min batch size.
+     * @param maxSize The max batch size.
+     * @param pollBudget The max time to spend on the slices of a single poll. Must be well below max.poll.interval.ms.
+     */
+    KafkaListenerBuilder<K,V> adaptiveBatchSize(Duration targetLatency, int minSize, int maxSize, Duration pollBudget);
+
+    /**
+     * Accumulate records across polls into larger batches, for bulk sinks which prefer fewer but larger writes.
+     *
+     * The polled records are held back until the batch holds maxRecords records, maxBytes serialized bytes,
+     * or its first record has been waiting for maxWait, whatever comes first. Then the processor is invoked once
+     * with the whole batch and the covering offsets are committed. When partitions are revoked, the pending batch
+     * is processed and committed before the rebalance completes.
+     * Requires manual ack.
+     *
+     * @param maxRecords The max number of records in a batch.
+     * @param maxBytes The max number of serialized key and value bytes in a batch.
+     * @param maxWait The max time a record is held back.
+     */
+    KafkaListenerBuilder<K,V> microBatch(int maxRecords, long maxBytes, Duration maxWait);
+
+    /**
+     * Accumulate records across polls like {@link #microBatch(int, long, Duration)}, but keep only the latest record
+     * of each key, for change-data-capture sinks where only the last state of a key matters.
+     *
+     * Keys are compared by their serialized bytes, per partition. A superseded record takes no space in the window,
+     * and the latest record of a key keeps the position of its last update. Records without key are never compacted.
+     * The offsets are committed after the processor has handled the compacted batch, i.e. after the compacted write
+     * succeeded. Typically combined with {@link com.elderbyte.kafka.records.RecordBatch#compactedUpdateOrDelete}.
+     * Requires manual ack.
+     *
+     * @param maxKeys The max number of distinct keys in a batch.
+     * @param maxWait The max time a record is held back.
+     */
+    KafkaListenerBuilder<K,V> compactionWindow(int maxKeys, Duration maxWait);
+
     /**
      * Enable / Disable auto-commit. Default is false to support error handling.
      */
@@ -103,6 +238,73 @@ public interface KafkaListenerBuilder<K,V> {
      */
     KafkaListenerBuilder<K, V> pollTimeout(long pollTimeout);
 
+    /**
+     * Set the number of consumer threads of this listener. Each consumer thread
+     * gets its own managed processor and is assigned a subset of the topic partitions.
+     * Concurrency beyond the number of partitions has no effect.
+     *
+     * Defaults to kafka.client.consumer.concurrency, or a single consumer if not set.
+     */
+    KafkaListenerBuilder<K, V> concurrency(int concurrency);
+
+    /**
+     * Process each polled batch in parallel on a bounded pool of worker threads.
+     *
+     * The batch is split into shards by the given strategy and each shard is passed to the processor
+     * on its own worker. Records within a shard keep their order. The batch is only acknowledged
+     * once all shards have completed, and fails as a whole if any shard fails.
+     *
+     * Useful for I/O bound sinks, since it multiplies throughput without adding partitions.
+     * Note that the processor must be thread safe.
+     *
+     * @param workers The number of worker threads per consumer.
+     * @param strategy How the batch is split into shards.
+     */
+    KafkaListenerBuilder<K, V> parallelProcessing(int workers, ShardingStrategy strategy);
+
+    /**
+     * Run single record processors on virtual threads.
+     *
+     * The records of a polled batch are grouped by key, and each key group is processed
+     * on its own virtual thread. Records of the same key keep their order. The batch is only
+     * acknowledged once all records have been processed.
+     *
+     * Useful if the processor mostly blocks on I/O such as REST calls.
+     * Only affects listeners built with {@link #build(Processor)}. On java runtimes
+     * without virtual threads, the key groups are spread over a bounded pool of platform threads instead.
+     */
+    KafkaListenerBuilder<K, V> virtualThreads();
+
+    /**
+     * Decode the keys and values of large batches in parallel on the common fork-join pool.
+     * Useful when deserialization (i.e. JSON parsing) of large batches dominates the processing time.
+     *
+     * The order of the records and the skipping of malformed records are not affected.
+     * Note that the deserializers must be thread safe.
+     *
+     * @param minBatchSize Batches with at least this number of records are decoded in parallel.
+     */
+    KafkaListenerBuilder<K, V> parallelDecoding(int minBatchSize);
+
+    /**
+     * Decode the record values lazily, on the first call to value(), instead of up front.
+     * Useful when the processor filters most records by key or header, since values which are never
+     * accessed are never parsed.
+     *
+     * Keys are still decoded up front. Malformed values can't be skipped anymore, since they are
+     * only detected during processing. Instead, value() throws and the usual error handling applies.
+     */
+    KafkaListenerBuilder<K, V> lazyValues();
+
+    /**
+     * Drop records before they are decoded, i.e. by key prefix or by header, without paying for deserialization.
+     * Only records matching the filter are decoded and processed. The offsets of the dropped records are still committed,
+     * and their count is reported to the metrics reporter. Multiple filters are combined, all must match.
+     *
+     * @param filter Returns true for the raw records which should be processed.
+     */
+    KafkaListenerBuilder<K, V> filterRaw(Predicate<ConsumerRecord<byte[], byte[]>> filter);
+
 
     /***************************************************************************
      *                                                                         *
@@ -1,7 +1,14 @@
 package com.elderbyte.kafka.consumer.factory;
 
 import com.elderbyte.kafka.consumer.configuration.AutoOffsetReset;
+import com.elderbyte.kafka.consumer.configuration.ShardingStrategy;
+import com.elderbyte.kafka.consumer.processing.ExponentialBackoff;
+import com.elderbyte.kafka.consumer.processing.MicroBatchWindow;
+import com.elderbyte.kafka.consumer.processing.ProcessingErrorHandler;
 import com.elderbyte.kafka.consumer.processing.Processor;
+import com.elderbyte.kafka.consumer.processing.SinkHealthIndicator;
+import com.elderbyte.kafka.consumer.processing.parallel.ParallelBatchProcessor;
+import com.elderbyte.kafka.consumer.processing.retry.RetryPolicy;
 import com.elderbyte.kafka.metrics.MetricsContext;
 import com.elderbyte.kafka.serialisation.json.ElderKafkaJsonDeserializer;
 import com.elderbyte.kafka.serialisation.key.ElderCompositeKeyDeserializer;
@@ -16,8 +23,10 @@ import org.springframework.kafka.listener.ConsumerAwareRebalanceListener;
 import org.springframework.kafka.listener.ContainerProperties;
 import org.springframework.kafka.listener.MessageListenerContainer;
 
+import java.time.Duration;
 import java.util.Collection;
 import java.util.List;
+import java.util.function.Predicate;
 
 
 /**
@@ -44,7 +53,26 @@ public class KafkaListenerBuilderImpl<K,V> implements KafkaListenerBuilder<K,V>,
     private MetricsContext metricsContext = MetricsContext.from("", "");
     private boolean skipOnError = false;
     private int blockingRetries = 1;
+    private ExponentialBackoff retryBackoff = ExponentialBackoff.defaults();
     private boolean failIfTopicsAreMissing = false;
+    private Integer concurrency = null;
+    private int parallelism = 1;
+    private ShardingStrategy shardingStrategy = ShardingStrategy.PARTITION;
+    private boolean virtualThreads = false;
+    private int parallelDecodingThreshold = 0;
+    private boolean lazyValues = false;
+    private Predicate<ConsumerRecord<byte[], byte[]>> rawFilter = null;
+    private ProcessingErrorHandler<K,V> errorHandler = null;
+    private boolean bisectOnError = false;
+    private RetryPolicy retryPolicy = null;
+    private boolean retryListener = false;
+    private SinkHealthIndicator sinkHealthIndicator = null;
+    private Duration sinkHealthProbeInterval = Duration.ofSeconds(5);
+    private Duration targetBatchLatency = null;
+    private int minBatchSize = 1;
+    private int maxBatchSize = Integer.MAX_VALUE;
+    private Duration pollBudget = Duration.ofMinutes(2);
+    private MicroBatchWindow microBatchWindow = null;
 
     private Processor<List<ConsumerRecord<K, V>>> processor;
     private boolean batch = false;
@@ -176,6 +204,79 @@ public class KafkaListenerBuilderImpl<K,V> implements KafkaListenerBuilder<K,V>,
         return this;
     }
 
+    @Override
+    public KafkaListenerBuilder<K, V> retryBackoff(Duration initialDelay, Duration maxDelay) {
+        this.retryBackoff = new ExponentialBackoff(initialDelay, maxDelay);
+        return this;
+    }
+
+    @Override
+    public KafkaListenerBuilder<K, V> errorHandler(ProcessingErrorHandler<K, V> errorHandler) {
+        this.errorHandler = errorHandler;
+        return this;
+    }
+
+    @Override
+    public KafkaListenerBuilder<K, V> bisectOnError() {
+        this.bisectOnError = true;
+        return this;
+    }
+
+    @Override
+    public KafkaListenerBuilder<K, V> retryTopics(RetryPolicy policy) {
+        if(policy == null) throw new IllegalArgumentException("policy must not be null");
+        this.retryPolicy = policy;
+        return this;
+    }
+
+    @Override
+    public KafkaListenerBuilder<K, V> sinkHealth(SinkHealthIndicator indicator) {
+        return sinkHealth(indicator, sinkHealthProbeInterval);
+    }
+
+    @Override
+    public KafkaListenerBuilder<K, V> sinkHealth(SinkHealthIndicator indicator, Duration probeInterval) {
+        if(indicator == null) throw new IllegalArgumentException("indicator must not be null");
+        if(probeInterval == null || probeInterval.isNegative()) throw new IllegalArgumentException("probeInterval must not be null or negative, but was " + probeInterval);
+        this.sinkHealthIndicator = indicator;
+        this.sinkHealthProbeInterval = probeInterval;
+        return this;
+    }
+
+    @Override
+    public KafkaListenerBuilder<K, V> adaptiveBatchSize(Duration targetLatency) {
+        return adaptiveBatchSize(targetLatency, 1, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public KafkaListenerBuilder<K, V> adaptiveBatchSize(Duration targetLatency, int minSize, int maxSize) {
+        return adaptiveBatchSize(targetLatency, minSize, maxSize, pollBudget);
+    }
+
+    @Override
+    public KafkaListenerBuilder<K, V> adaptiveBatchSize(Duration targetLatency, int minSize, int maxSize, Duration pollBudget) {
+        if(pollBudget == null || pollBudget.isZero() || pollBudget.isNegative()) throw new IllegalArgumentException("pollBudget must be positive, but was " + pollBudget);
+        if(targetLatency == null || targetLatency.isZero() || targetLatency.isNegative()) throw new IllegalArgumentException("targetLatency must be positive, but was " + targetLatency);
+        if(minSize < 1 || maxSize < minSize) throw new IllegalArgumentException("Expected 1 <= minSize <= maxSize, but was " + minSize + " / " + maxSize);
+        this.targetBatchLatency = targetLatency;
+        this.minBatchSize = minSize;
+        this.maxBatchSize = maxSize;
+        this.pollBudget = pollBudget;
+        return this;
+    }
+
+    @Override
+    public KafkaListenerBuilder<K, V> microBatch(int maxRecords, long maxBytes, Duration maxWait) {
+        this.microBatchWindow = new MicroBatchWindow(maxRecords, maxBytes, maxWait);
+        return this;
+    }
+
+    @Override
+    public KafkaListenerBuilder<K, V> compactionWindow(int maxKeys, Duration maxWait) {
+        this.microBatchWindow = new MicroBatchWindow(maxKeys, Long.MAX_VALUE, maxWait, true);
+        return this;
+    }
+
     @Override
     public KafkaListenerBuilder<K, V> autoCommit(boolean autoCommit) {
         this.containerProperties.setAckMode(autoCommit ? ContainerProperties.AckMode.BATCH : ContainerProperties.AckMode.MANUAL);
@@ -223,11 +324,87 @@ public class KafkaListenerBuilderImpl<K,V> implements KafkaListenerBuilder<K,V>,
         return this;
     }
 
+    @Override
+    public KafkaListenerBuilder<K, V> concurrency(int concurrency){
+        if(concurrency < 1) throw new IllegalArgumentException("concurrency must be at least 1, but was " + concurrency);
+        this.concurrency = concurrency;
+        return this;
+    }
+
+    @Override
+    public KafkaListenerBuilder<K, V> parallelProcessing(int workers, ShardingStrategy strategy){
+        if(workers < 1) throw new IllegalArgumentException("workers must be at least 1, but was " + workers);
+        if(strategy == null) throw new IllegalArgumentException("strategy must not be null");
+        this.parallelism = workers;
+        this.shardingStrategy = strategy;
+        return this;
+    }
+
+    @Override
+    public KafkaListenerBuilder<K, V> virtualThreads(){
+        this.virtualThreads = true;
+        return this;
+    }
+
+    @Override
+    public KafkaListenerBuilder<K, V> parallelDecoding(int minBatchSize){
+        if(minBatchSize < 1) throw new IllegalArgumentException("minBatchSize must be at least 1, but was " + minBatchSize);
+        this.parallelDecodingThreshold = minBatchSize;
+        return this;
+    }
+
+    @Override
+    public KafkaListenerBuilder<K, V> lazyValues(){
+        this.lazyValues = true;
+        return this;
+    }
+
+    @Override
+    public KafkaListenerBuilder<K, V> filterRaw(Predicate<ConsumerRecord<byte[], byte[]>> filter){
+        if(filter == null) throw new IllegalArgumentException("filter must not be null");
+        this.rawFilter = rawFilter != null ? rawFilter.and(filter) : filter;
+        return this;
+    }
+
+    @SuppressWarnings("unchecked")
     public KafkaListenerBuilder<K,V> apply(KafkaListenerConfiguration<?,?> prototype){
         this.autoOffsetReset = prototype.getAutoOffsetReset();
         this.metricsContext = prototype.getMetricsContext();
         this.blockingRetries = prototype.getBlockingRetries();
         this.skipOnError = prototype.isIgnoreErrors();
+        this.concurrency = prototype.getConcurrency();
+        this.parallelism = prototype.getParallelism();
+        this.shardingStrategy = prototype.getShardingStrategy();
+        this.virtualThreads = prototype.isVirtualThreads();
+        this.parallelDecodingThreshold = prototype.getParallelDecodingThreshold();
+        this.lazyValues = prototype.isLazyValues();
+        this.rawFilter = prototype.getRawFilter();
+        this.errorHandler = (ProcessingErrorHandler<K,V>)prototype.getErrorHandler();
+        this.bisectOnError = prototype.isBisectOnError();
+        this.retryBackoff = prototype.getRetryBackoff();
+        this.retryPolicy = prototype.getRetryPolicy();
+        this.sinkHealthIndicator = prototype.getSinkHealthIndicator();
+        this.sinkHealthProbeInterval = prototype.getSinkHealthProbeInterval();
+        this.targetBatchLatency = prototype.getTargetBatchLatency();
+        this.minBatchSize = prototype.getMinBatchSize();
+        this.maxBatchSize = prototype.getMaxBatchSize();
+        this.pollBudget = prototype.getPollBudget();
+        this.microBatchWindow = prototype.getMicroBatchWindow();
+        return this;
+    }
+
+    /**
+     * Turns this builder into the listener of the retry topics of the given main listener.
+     * The retry listener has its own container properties, but shares the processing configuration.
+     */
+    KafkaListenerBuilderImpl<K,V> retryListenerOf(KafkaListenerConfiguration<K,V> mainListener){
+        apply(mainListener);
+        this.processor = mainListener.getProcessor();
+        this.batch = true; // Due records are admitted per poll
+        this.retryListener = true;
+        this.concurrency = 1;
+        this.autoOffsetReset = AutoOffsetReset.earliest; // Don't miss retries scheduled before the first start
+        autoCommit(false);
         return this;
     }
 
@@ -241,11 +418,16 @@ public class KafkaListenerBuilderImpl<K,V> implements KafkaListenerBuilder<K,V>,
      * Build a single record listener from this builder configuration.
      */
     public MessageListenerContainer build(Processor<ConsumerRecord<K, V>> processor){
-        return buildListenerContainer(batch -> {
+        Processor<List<ConsumerRecord<K, V>>> recordLoop = batch -> {
             for(var e : batch){
                 processor.proccess(e);
             }
-        });
+        };
+
+        if(virtualThreads){
+            return buildListenerContainer(ParallelBatchProcessor.withVirtualThreads(recordLoop, ShardingStrategy.KEY));
+        }
+        return buildListenerContainer(recordLoop);
     }
 
     /**
@@ -318,6 +500,101 @@ public class KafkaListenerBuilderImpl<K,V> implements KafkaListenerBuilder<K,V>,
         return blockingRetries;
     }
 
+    @Override
+    public ExponentialBackoff getRetryBackoff() {
+        return retryBackoff;
+    }
+
+    @Override
+    public Integer getConcurrency() {
+        return concurrency;
+    }
+
+    @Override
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    @Override
+    public ShardingStrategy getShardingStrategy() {
+        return shardingStrategy;
+    }
+
+    @Override
+    public boolean isVirtualThreads() {
+        return virtualThreads;
+    }
+
+    @Override
+    public int getParallelDecodingThreshold() {
+        return parallelDecodingThreshold;
+    }
+
+    @Override
+    public boolean isLazyValues() {
+        return lazyValues;
+    }
+
+    @Override
+    public Predicate<ConsumerRecord<byte[], byte[]>> getRawFilter() {
+        return rawFilter;
+    }
+
+    @Override
+    public ProcessingErrorHandler<K, V> getErrorHandler() {
+        return errorHandler;
+    }
+
+    @Override
+    public boolean isBisectOnError() {
+        return bisectOnError;
+    }
+
+    @Override
+    public boolean isRetryListener() {
+        return retryListener;
+    }
+
+    @Override
+    public RetryPolicy getRetryPolicy() {
+        return retryPolicy;
+    }
+
+    @Override
+    public SinkHealthIndicator getSinkHealthIndicator() {
+        return sinkHealthIndicator;
+    }
+
+    @Override
+    public Duration getSinkHealthProbeInterval() {
+        return sinkHealthProbeInterval;
+    }
+
+    @Override
+    public Duration getTargetBatchLatency() {
+        return targetBatchLatency;
+    }
+
+    @Override
+    public int getMinBatchSize() {
+        return minBatchSize;
+    }
+
+    @Override
+    public int getMaxBatchSize() {
+        return maxBatchSize;
+    }
+
+    @Override
+    public Duration getPollBudget() {
+        return pollBudget;
+    }
+
+    @Override
+    public MicroBatchWindow getMicroBatchWindow() {
+        return microBatchWindow;
+    }
+
     /***************************************************************************
      *                                                                         *
      * Private methods                                                         *
@@ -325,6 +602,10 @@ public class KafkaListenerBuilderImpl<K,V> implements KafkaListenerBuilder<K,V>,
      **************************************************************************/
 
     private MessageListenerContainer buildListenerContainer(Processor<List<ConsumerRecord<K, V>>> processor){
+        if(microBatchWindow != null && !isManualAck()){
+            // Auto commit would commit the held back records before they are processed
+            throw new IllegalStateException("Micro batches and compaction windows require manual ack, but autoCommit is enabled!");
+        }
         this.processor = processor;
         return managedListenerBuilder.buildListenerContainer(this);
     }
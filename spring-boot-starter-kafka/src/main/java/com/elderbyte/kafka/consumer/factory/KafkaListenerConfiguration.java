@@ -30,5 +30,15 @@ public interface KafkaListenerConfiguration<K,V> extends KafkaProcessorConfigura
      * If enabled, will fail if configured topics are missing.
      */
     boolean failIfTopicsAreMissing();
+
+    /**
+     * The number of consumer threads, or null to use the global default.
+     */
+    Integer getConcurrency();
+
+    /**
+     * If enabled, single record processors run on virtual threads.
+     */
+    boolean isVirtualThreads();
 }
 
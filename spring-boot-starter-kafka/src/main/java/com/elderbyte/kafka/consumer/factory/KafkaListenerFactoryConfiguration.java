@@ -3,7 +3,10 @@ package com.elderbyte.kafka.consumer.factory;
 import com.elderbyte.kafka.config.KafkaClientProperties;
 import com.elderbyte.kafka.metrics.MetricsReporter;
 import com.elderbyte.kafka.metrics.MetricsReporterLocal;
+import com.elderbyte.kafka.producer.KafkaProducer;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -15,8 +18,12 @@ import org.springframework.context.annotation.Configuration;
 public class KafkaListenerFactoryConfiguration {
 
     @Bean
-    public ManagedListenerBuilder managedListenerBuilder(KafkaClientProperties globalConfig, MetricsReporter reporter){
-        return new ManagedListenerBuilderImpl(globalConfig, reporter);
+    public ManagedListenerBuilder managedListenerBuilder(
+            KafkaClientProperties globalConfig,
+            MetricsReporter reporter,
+            @Qualifier("kafkaRawProducer") ObjectProvider<KafkaProducer<byte[], byte[]>> retryProducer
+    ){
+        return new ManagedListenerBuilderImpl(globalConfig, reporter, retryProducer);
     }
 
     @Bean
@@ -2,20 +2,26 @@ package com.elderbyte.kafka.consumer.factory;
 
 import com.elderbyte.kafka.config.KafkaClientProperties;
 import com.elderbyte.kafka.consumer.factory.listeners.SpringListenerAdapter;
+import com.elderbyte.kafka.consumer.processing.ConcurrentManagedProcessor;
+import com.elderbyte.kafka.consumer.processing.ManagedProcessor;
 import com.elderbyte.kafka.consumer.processing.ManagedProcessorImpl;
+import com.elderbyte.kafka.consumer.processing.ProcessingErrorHandler;
+import com.elderbyte.kafka.consumer.processing.retry.ScheduleRetryErrorHandler;
 import com.elderbyte.kafka.metrics.MetricsReporter;
+import com.elderbyte.kafka.producer.KafkaProducer;
 import org.apache.kafka.clients.CommonClientConfigs;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
 import org.apache.kafka.common.serialization.ByteArrayDeserializer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.kafka.core.ConsumerFactory;
 import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
-import org.springframework.kafka.listener.GenericMessageListener;
-import org.springframework.kafka.listener.KafkaMessageListenerContainer;
-import org.springframework.kafka.listener.MessageListenerContainer;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.kafka.listener.*;
 
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -28,8 +34,14 @@ public class ManagedListenerBuilderImpl implements ManagedListenerBuilder {
      *                                                                         *
      **************************************************************************/
 
+    /**
+     * How often an idle consumer gives its processor the chance to resume paused partitions.
+     */
+    private static final long IDLE_EVENT_INTERVAL_MS = 1000;
+
     private final KafkaClientProperties globalConfig;
     private final MetricsReporter reporter;
+    private final ObjectProvider<KafkaProducer<byte[], byte[]>> retryProducer;
 
     private final Logger logger = LoggerFactory.getLogger(this.getClass());
 
@@ -39,10 +51,25 @@ public class ManagedListenerBuilderImpl implements ManagedListenerBuilder {
      *                                                                         *
      **************************************************************************/
 
-    @Autowired
     public ManagedListenerBuilderImpl(KafkaClientProperties globalConfig, MetricsReporter reporter){
+        this(globalConfig, reporter, null);
+    }
+
+    /**
+     * Creates a new ManagedListenerBuilderImpl
+     * @param globalConfig The global kafka client configuration
+     * @param reporter The metrics reporter
+     * @param retryProducer Provides the byte array producer which publishes to retry topics. Might be null if retry topics are not used.
+     */
+    @Autowired
+    public ManagedListenerBuilderImpl(
+            KafkaClientProperties globalConfig,
+            MetricsReporter reporter,
+            ObjectProvider<KafkaProducer<byte[], byte[]>> retryProducer
+    ){
         this.globalConfig = globalConfig;
         this.reporter = reporter;
+        this.retryProducer = retryProducer;
     }
 
     /***************************************************************************
@@ -55,9 +82,12 @@ public class ManagedListenerBuilderImpl implements ManagedListenerBuilder {
     public <K,V> MessageListenerContainer buildListenerContainer(KafkaListenerConfiguration<K,V> configuration){
 
         if(globalConfig.isEnabled()){
-            var managedProcessor = new ManagedProcessorImpl<>(configuration, reporter);
-            var listener = SpringListenerAdapter.buildListenerAdapter(configuration, managedProcessor);
-            return buildListenerInternal(configuration, listener);
+            var container = buildManagedContainer(configuration);
+            if(configuration.getRetryPolicy() != null){
+                var retryContainer = buildManagedContainer(retryListenerOf(configuration));
+                return new CompositeMessageListenerContainer(container, retryContainer);
+            }
+            return container;
         }else{
             logger.warn("Deploying mock message-listener-container since kafka is disabled.");
             return new MockMessageListenerContainer();
@@ -70,22 +100,115 @@ public class ManagedListenerBuilderImpl implements ManagedListenerBuilder {
      *                                                                         *
      **************************************************************************/
 
-    private <K,V> MessageListenerContainer buildListenerInternal(
+    private <K,V> MessageListenerContainer buildManagedContainer(KafkaListenerConfiguration<K,V> configuration){
+        var concurrency = resolveConcurrency(configuration);
+        var managedProcessor = buildManagedProcessor(configuration, concurrency);
+        var listener = SpringListenerAdapter.buildListenerAdapter(configuration, managedProcessor);
+
+        // Records held back by the processor must be processed before the partitions are handed over
+        var containerProps = configuration.getContainerProperties();
+        containerProps.setConsumerRebalanceListener(
+                new ManagedRebalanceListener(managedProcessor, containerProps.getConsumerRebalanceListener())
+        );
+
+        return buildListenerInternal(configuration, listener, concurrency, managedProcessor);
+    }
+
+    private <K,V> ManagedProcessor<K,V> buildManagedProcessor(KafkaListenerConfiguration<K,V> configuration, int concurrency){
+        var rawErrorHandler = resolveRawErrorHandler(configuration);
+        // Retry topics replace the configured error handler
+        var errorHandler = rawErrorHandler == null ? configuration.getErrorHandler() : null;
+        if(concurrency > 1){
+            return new ConcurrentManagedProcessor<>(() -> new ManagedProcessorImpl<>(configuration, reporter, errorHandler, rawErrorHandler));
+        }else{
+            return new ManagedProcessorImpl<>(configuration, reporter, errorHandler, rawErrorHandler);
+        }
+    }
+
+    /**
+     * Failed records are forwarded to the retry topics as raw bytes, so the retry listener can decode them
+     * with the same deserializers, whatever the serialisation format of the listener is.
+     */
+    private ProcessingErrorHandler<byte[], byte[]> resolveRawErrorHandler(KafkaListenerConfiguration<?,?> configuration){
+        var policy = configuration.getRetryPolicy();
+        if(policy != null){
+            var producer = retryProducer != null ? retryProducer.getIfAvailable() : null;
+            if(producer == null) throw new IllegalStateException("Retry topics require a KafkaProducer<byte[], byte[]> bean!");
+            return new ScheduleRetryErrorHandler(producer, policy);
+        }
+        return null;
+    }
+
+    /**
+     * Derives the listener which consumes the retry topics of the given main listener.
+     */
+    private <K,V> KafkaListenerConfiguration<K,V> retryListenerOf(KafkaListenerConfiguration<K,V> configuration){
+        var mainProps = configuration.getContainerProperties();
+        if(mainProps.getTopics() == null){
+            throw new IllegalStateException("Retry topics are only supported for listeners which subscribe to topics by name!");
+        }
+
+        var retryTopics = configuration.getRetryPolicy().retryTopics(Arrays.asList(mainProps.getTopics()));
+        var retryProps = new ContainerProperties(retryTopics.toArray(new String[0]));
+        retryProps.setGroupId(mainProps.getGroupId());
+        if(mainProps.getClientId() != null && !mainProps.getClientId().isEmpty()){
+            retryProps.setClientId(mainProps.getClientId() + "-retry");
+        }
+        retryProps.setSyncCommits(mainProps.isSyncCommits());
+        retryProps.setPollTimeout(mainProps.getPollTimeout());
+
+        return new KafkaListenerBuilderImpl<>(
+                this,
+                retryProps,
+                null,
+                configuration.getKeyDeserializer(),
+                configuration.getValueDeserializer()
+        ).retryListenerOf(configuration);
+    }
+
+    private <K,V> AbstractMessageListenerContainer<byte[], byte[]> buildListenerInternal(
             KafkaListenerConfiguration<K,V> config,
-            GenericMessageListener<?> listener)
+            GenericMessageListener<?> listener,
+            int concurrency,
+            ManagedProcessor<K,V> managedProcessor)
     {
         var containerProps = config.getContainerProperties();
         containerProps.setMessageListener(listener);
         containerProps.setMissingTopicsFatal(config.failIfTopicsAreMissing());
+        if(containerProps.getIdleEventInterval() == null){
+            var window = config.getMicroBatchWindow();
+            containerProps.setIdleEventInterval(
+                    window != null ? Math.max(1, Math.min(IDLE_EVENT_INTERVAL_MS, window.getMaxWaitMs())) : IDLE_EVENT_INTERVAL_MS
+            );
+        }
         var kafkaConfig = defaultConfig();
 
         kafkaConfig.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, !config.isManualAck());
         kafkaConfig.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, config.getAutoOffsetReset().toString());
 
-        return new KafkaMessageListenerContainer<>(
-                consumerFactoryByteByte(kafkaConfig),
-                containerProps
-        );
+        if(concurrency > 1){
+            var container = new ManagedConcurrentMessageListenerContainer(
+                    consumerFactoryByteByte(kafkaConfig),
+                    containerProps,
+                    managedProcessor
+            );
+            container.setConcurrency(concurrency);
+            return container;
+        }else{
+            return new ManagedKafkaMessageListenerContainer(
+                    consumerFactoryByteByte(kafkaConfig),
+                    containerProps,
+                    managedProcessor
+            );
+        }
+    }
+
+    private int resolveConcurrency(KafkaListenerConfiguration<?,?> config){
+        var concurrency = config.getConcurrency();
+        if(concurrency == null){
+            concurrency = globalConfig.getConsumer().getConcurrency();
+        }
+        return concurrency != null ? concurrency : 1;
     }
 
     private ConsumerFactory<byte[], byte[]> consumerFactoryByteByte(Map<String, Object> config) {
@@ -105,4 +228,49 @@ public class ManagedListenerBuilderImpl implements ManagedListenerBuilder {
         }
         return props;
     }
+
+    /***************************************************************************
+     *                                                                         *
+     * Inner classes                                                           *
+     *                                                                         *
+     **************************************************************************/
+
+    /**
+     * Keeps passing the container events to the managed processor, even when the publisher is replaced
+     * (i.e. by the application context, if the container is a bean). The given publisher still receives all events.
+     */
+    private static final class ManagedKafkaMessageListenerContainer extends KafkaMessageListenerContainer<byte[], byte[]> {
+
+        private final ManagedProcessor<?, ?> managedProcessor;
+
+        ManagedKafkaMessageListenerContainer(ConsumerFactory<byte[], byte[]> consumerFactory, ContainerProperties containerProperties, ManagedProcessor<?, ?> managedProcessor){
+            super(consumerFactory, containerProperties);
+            this.managedProcessor = managedProcessor;
+            super.setApplicationEventPublisher(ManagedProcessorEventPublisher.wrap(managedProcessor, null));
+        }
+
+        @Override
+        public void setApplicationEventPublisher(ApplicationEventPublisher publisher) {
+            super.setApplicationEventPublisher(ManagedProcessorEventPublisher.wrap(managedProcessor, publisher));
+        }
+    }
+
+    /**
+     * Like {@link ManagedKafkaMessageListenerContainer}. The child containers inherit the wrapped publisher when started.
+     */
+    private static final class ManagedConcurrentMessageListenerContainer extends ConcurrentMessageListenerContainer<byte[], byte[]> {
+
+        private final ManagedProcessor<?, ?> managedProcessor;
+
+        ManagedConcurrentMessageListenerContainer(ConsumerFactory<byte[], byte[]> consumerFactory, ContainerProperties containerProperties, ManagedProcessor<?, ?> managedProcessor){
+            super(consumerFactory, containerProperties);
+            this.managedProcessor = managedProcessor;
+            super.setApplicationEventPublisher(ManagedProcessorEventPublisher.wrap(managedProcessor, null));
+        }
+
+        @Override
+        public void setApplicationEventPublisher(ApplicationEventPublisher publisher) {
+            super.setApplicationEventPublisher(ManagedProcessorEventPublisher.wrap(managedProcessor, publisher));
+        }
+    }
 }
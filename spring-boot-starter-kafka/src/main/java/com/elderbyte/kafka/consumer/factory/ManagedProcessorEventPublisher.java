@@ -0,0 +1,82 @@
+package com.elderbyte.kafka.consumer.factory;
+
+import com.elderbyte.kafka.consumer.processing.ManagedProcessor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.kafka.event.ConsumerStoppedEvent;
+import org.springframework.kafka.event.ListenerContainerIdleEvent;
+
+/**
+ * Passes the container events a managed processor depends on to the processor,
+ * and forwards all events to the publisher of the container, if any.
+ *
+ * Idle consumers don't invoke the listener, so paused partitions are resumed through idle events.
+ * Stopped consumers release the resources of their processor.
+ */
+final class ManagedProcessorEventPublisher implements ApplicationEventPublisher {
+
+    /***************************************************************************
+     *                                                                         *
+     * Static Builder                                                          *
+     *                                                                         *
+     **************************************************************************/
+
+    /**
+     * Wraps the given publisher, unless it already is the publisher of the given processor.
+     *
+     * @param managedProcessor The processor which receives the container events.
+     * @param delegate The publisher which receives all events. Might be null.
+     */
+    static ManagedProcessorEventPublisher wrap(ManagedProcessor<?, ?> managedProcessor, ApplicationEventPublisher delegate){
+        if(delegate instanceof ManagedProcessorEventPublisher){
+            var wrapped = (ManagedProcessorEventPublisher) delegate;
+            if(wrapped.managedProcessor == managedProcessor){
+                return wrapped;
+            }
+        }
+        return new ManagedProcessorEventPublisher(managedProcessor, delegate);
+    }
+
+    /***************************************************************************
+     *                                                                         *
+     * Fields                                                                  *
+     *                                                                         *
+     **************************************************************************/
+
+    private final ManagedProcessor<?, ?> managedProcessor;
+    private final ApplicationEventPublisher delegate;
+
+    /***************************************************************************
+     *                                                                         *
+     * Constructor                                                             *
+     *                                                                         *
+     **************************************************************************/
+
+    private ManagedProcessorEventPublisher(ManagedProcessor<?, ?> managedProcessor, ApplicationEventPublisher delegate){
+        if(managedProcessor == null) throw new IllegalArgumentException("managedProcessor must not be null");
+
+        this.managedProcessor = managedProcessor;
+        this.delegate = delegate;
+    }
+
+    /***************************************************************************
+     *                                                                         *
+     * Public API                                                              *
+     *                                                                         *
+     **************************************************************************/
+
+    @Override
+    public void publishEvent(Object event) {
+        if(event instanceof ListenerContainerIdleEvent){
+            var consumer = ((ListenerContainerIdleEvent) event).getConsumer();
+            if(consumer != null){
+                managedProcessor.onIdle(consumer);
+            }
+        }else if(event instanceof ConsumerStoppedEvent){
+            managedProcessor.onStopped(); // Published on the consumer thread, once it has stopped
+        }
+
+        if(delegate != null){
+            delegate.publishEvent(event);
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.elderbyte.kafka.consumer.factory;
+
+import com.elderbyte.kafka.consumer.processing.ManagedProcessor;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRebalanceListener;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.kafka.listener.ConsumerAwareRebalanceListener;
+
+import java.util.Collection;
+
+/**
+ * Notifies the managed processor about revoked partitions, before their offsets are committed,
+ * and then delegates to the rebalance listener configured by the user (if any).
+ */
+class ManagedRebalanceListener implements ConsumerAwareRebalanceListener {
+
+    /***************************************************************************
+     *                                                                         *
+     * Fields                                                                  *
+     *                                                                         *
+     **************************************************************************/
+
+    private final ManagedProcessor<?,?> managedProcessor;
+    private final ConsumerRebalanceListener delegate;
+
+    /***************************************************************************
+     *                                                                         *
+     * Constructor                                                             *
+     *                                                                         *
+     **************************************************************************/
+
+    /**
+     * Creates a new ManagedRebalanceListener
+     * @param managedProcessor The processor to notify.
+     * @param delegate The user rebalance listener. Might be null.
+     */
+    public ManagedRebalanceListener(ManagedProcessor<?,?> managedProcessor, ConsumerRebalanceListener delegate){
+        if(managedProcessor == null) throw new IllegalArgumentException("managedProcessor must not be null");
+        this.managedProcessor = managedProcessor;
+        this.delegate = delegate;
+    }
+
+    /***************************************************************************
+     *                                                                         *
+     * Public API                                                              *
+     *                                                                         *
+     **************************************************************************/
+
+    @Override
+    public void onPartitionsRevokedBeforeCommit(Consumer<?, ?> consumer, Collection<TopicPartition> partitions) {
+        managedProcessor.onPartitionsRevoked(consumer, partitions);
+
+        if(delegate instanceof ConsumerAwareRebalanceListener){
+            ((ConsumerAwareRebalanceListener) delegate).onPartitionsRevokedBeforeCommit(consumer, partitions);
+        }else if(delegate != null){
+            delegate.onPartitionsRevoked(partitions);
+        }
+    }
+
+    @Override
+    public void onPartitionsRevokedAfterCommit(Consumer<?, ?> consumer, Collection<TopicPartition> partitions) {
+        if(delegate instanceof ConsumerAwareRebalanceListener){
+            ((ConsumerAwareRebalanceListener) delegate).onPartitionsRevokedAfterCommit(consumer, partitions);
+        }
+    }
+
+    @Override
+    public void onPartitionsAssigned(Consumer<?, ?> consumer, Collection<TopicPartition> partitions) {
+        if(delegate instanceof ConsumerAwareRebalanceListener){
+            ((ConsumerAwareRebalanceListener) delegate).onPartitionsAssigned(consumer, partitions);
+        }else if(delegate != null){
+            delegate.onPartitionsAssigned(partitions);
+        }
+    }
+}
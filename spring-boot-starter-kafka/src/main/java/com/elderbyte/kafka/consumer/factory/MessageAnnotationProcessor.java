@@ -1,10 +1,11 @@
 package com.elderbyte.kafka.consumer.factory;
 
 import com.elderbyte.kafka.messages.MessageBlueprint;
-import com.elderbyte.kafka.messages.MessageBlueprintFactory;
-import com.elderbyte.kafka.messages.ReflectionSupport;
 import org.apache.kafka.clients.consumer.ConsumerRecord;
 
+import java.util.ArrayList;
+import java.util.List;
+
 
 public class MessageAnnotationProcessor {
 
@@ -17,15 +18,32 @@ public class MessageAnnotationProcessor {
     }
 
     public static <K, M, V> M buildMessageTombstone(ConsumerRecord<K, V> record, Class<M> messageClazz){
+        MessageBlueprint<K, M> blueprint = MessageBlueprint.from(messageClazz);
+        return buildMessageTombstoneInt(blueprint, record);
+    }
+
+    /**
+     * Builds the tombstone messages of the given records, looking up the blueprint of the tombstone class only once.
+     */
+    public static <K, M, V> List<M> buildMessageTombstones(List<ConsumerRecord<K, V>> records, Class<M> messageClazz){
+        MessageBlueprint<K, M> blueprint = MessageBlueprint.from(messageClazz);
+        var tombstones = new ArrayList<M>(records.size());
+        for(var record : records){
+            tombstones.add(buildMessageTombstoneInt(blueprint, record));
+        }
+        return tombstones;
+    }
+
+    private static <K, M, V> M buildMessageTombstoneInt(MessageBlueprint<K, M> blueprint, ConsumerRecord<K, V> record){
         if(record.value() != null) throw new IllegalArgumentException("record must BE a tombstone!");
 
         M instance;
         try {
-            instance = ReflectionSupport.createInstance(messageClazz);
+            instance = blueprint.newMessage();
         } catch (Exception e) {
             throw new IllegalStateException("The given tomb-stone message class could not be instantiated!", e);
         }
-        return buildMessageInt(instance, record, messageClazz);
+        return blueprint.updateFromRecord(instance, record);
     }
 
     private static <K, M, V> M buildMessageInt(M message, ConsumerRecord<K, V> record, Class<M> messageClazz){
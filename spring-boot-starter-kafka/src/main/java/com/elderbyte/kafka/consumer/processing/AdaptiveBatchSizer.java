@@ -0,0 +1,97 @@
+package com.elderbyte.kafka.consumer.processing;
+
+import java.time.Duration;
+
+/**
+ * Sizes batches so that processing a batch takes about the target latency.
+ *
+ * The processing time per record is tracked as an exponential moving average.
+ * When the sink slows down, the batch size shrinks immediately. When it speeds up,
+ * the batch size grows by at most a factor of two per batch, so a single fast batch
+ * doesn't cause an overshoot.
+ *
+ * Not thread safe, each consumer needs its own sizer.
+ */
+public class AdaptiveBatchSizer {
+
+    /***************************************************************************
+     *                                                                         *
+     * Fields                                                                  *
+     *                                                                         *
+     **************************************************************************/
+
+    private static final double SMOOTHING = 0.3;
+    private static final int INITIAL_SIZE = 100;
+
+    private final long targetNanos;
+    private final int minSize;
+    private final int maxSize;
+
+    private double nanosPerRecord = -1;
+    private int size;
+
+    /***************************************************************************
+     *                                                                         *
+     * Constructor                                                             *
+     *                                                                         *
+     **************************************************************************/
+
+    /**
+     * Creates a new AdaptiveBatchSizer
+     *
+     * @param targetLatency The processing time per batch to aim for.
+     * @param minSize The min batch size.
+     * @param maxSize The max batch size.
+     */
+    public AdaptiveBatchSizer(Duration targetLatency, int minSize, int maxSize){
+        if(targetLatency == null || targetLatency.isZero() || targetLatency.isNegative()) throw new IllegalArgumentException("targetLatency must be positive, but was " + targetLatency);
+        if(minSize < 1 || maxSize < minSize) throw new IllegalArgumentException("Expected 1 <= minSize <= maxSize, but was " + minSize + " / " + maxSize);
+
+        this.targetNanos = targetLatency.toNanos();
+        this.minSize = minSize;
+        this.maxSize = maxSize;
+        this.size = clamp(INITIAL_SIZE);
+    }
+
+    /***************************************************************************
+     *                                                                         *
+     * Public API                                                              *
+     *                                                                         *
+     **************************************************************************/
+
+    /**
+     * The size of the next batch.
+     */
+    public int nextSize(){
+        return size;
+    }
+
+    /**
+     * Record the processing time of a batch, and adapt the size of the next batch.
+     *
+     * @param recordCount The number of records in the batch.
+     * @param durationNano The time it took to process the batch.
+     */
+    public void record(int recordCount, long durationNano){
+        if(recordCount < 1){
+            return;
+        }
+
+        var observed = Math.max(1.0, (double) durationNano / recordCount);
+        nanosPerRecord = nanosPerRecord < 0 ? observed : nanosPerRecord + SMOOTHING * (observed - nanosPerRecord);
+
+        var ideal = targetNanos / nanosPerRecord;
+        var growthLimit = Math.max(size, recordCount) * 2.0;
+        size = clamp((int) Math.min(ideal, growthLimit));
+    }
+
+    /***************************************************************************
+     *                                                                         *
+     * Private methods                                                         *
+     *                                                                         *
+     **************************************************************************/
+
+    private int clamp(int value){
+        return Math.max(minSize, Math.min(maxSize, value));
+    }
+}
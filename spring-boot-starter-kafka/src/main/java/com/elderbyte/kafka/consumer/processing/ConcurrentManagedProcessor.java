@@ -0,0 +1,71 @@
+package com.elderbyte.kafka.consumer.processing;
+
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.kafka.support.Acknowledgment;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Dispatches to one managed processor per consumer thread.
+ *
+ * A concurrent listener container runs one kafka consumer per child container,
+ * each on its own thread. Since a managed processor may hold per-consumer state,
+ * every consumer thread gets its own processor instance.
+ */
+public class ConcurrentManagedProcessor<K,V> implements ManagedProcessor<K,V> {
+
+    /***************************************************************************
+     *                                                                         *
+     * Fields                                                                  *
+     *                                                                         *
+     **************************************************************************/
+
+    private final ThreadLocal<ManagedProcessor<K,V>> processors;
+
+    /***************************************************************************
+     *                                                                         *
+     * Constructor                                                             *
+     *                                                                         *
+     **************************************************************************/
+
+    /**
+     * Creates a new ConcurrentManagedProcessor
+     * @param processorFactory Creates a new processor for each consumer thread.
+     */
+    public ConcurrentManagedProcessor(Supplier<ManagedProcessor<K,V>> processorFactory){
+        if(processorFactory == null) throw new IllegalArgumentException("processorFactory must not be null");
+        this.processors = ThreadLocal.withInitial(processorFactory);
+    }
+
+    /***************************************************************************
+     *                                                                         *
+     * Public Api                                                              *
+     *                                                                         *
+     **************************************************************************/
+
+    @Override
+    public void processMessages(List<ConsumerRecord<byte[], byte[]>> rawRecords, Acknowledgment acknowledgment, Consumer<?, ?> consumer) {
+        processors.get().processMessages(rawRecords, acknowledgment, consumer);
+    }
+
+    @Override
+    public void onIdle(Consumer<?, ?> consumer) {
+        processors.get().onIdle(consumer);
+    }
+
+    @Override
+    public void onPartitionsRevoked(Consumer<?, ?> consumer, Collection<TopicPartition> partitions) {
+        processors.get().onPartitionsRevoked(consumer, partitions);
+    }
+
+    @Override
+    public void onStopped() {
+        processors.get().onStopped();
+        processors.remove(); // A restarted container runs on new consumer threads
+    }
+
+}
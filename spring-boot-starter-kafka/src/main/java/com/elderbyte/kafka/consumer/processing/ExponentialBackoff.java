@@ -0,0 +1,90 @@
+package com.elderbyte.kafka.consumer.processing;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Computes the delay before the next retry attempt.
+ *
+ * The delay doubles with every attempt, up to the max delay. A random jitter of up to
+ * half the delay is subtracted, so consumers which fail at the same time don't all retry at once.
+ */
+public class ExponentialBackoff {
+
+    /***************************************************************************
+     *                                                                         *
+     * Static Builder                                                          *
+     *                                                                         *
+     **************************************************************************/
+
+    /**
+     * Starts with one second and grows up to one minute.
+     */
+    public static ExponentialBackoff defaults(){
+        return new ExponentialBackoff(Duration.ofSeconds(1), Duration.ofMinutes(1));
+    }
+
+    /***************************************************************************
+     *                                                                         *
+     * Fields                                                                  *
+     *                                                                         *
+     **************************************************************************/
+
+    private final long initialDelayMs;
+    private final long maxDelayMs;
+
+    /***************************************************************************
+     *                                                                         *
+     * Constructor                                                             *
+     *                                                                         *
+     **************************************************************************/
+
+    /**
+     * Creates a new ExponentialBackoff
+     * @param initialDelay The delay before the first retry.
+     * @param maxDelay The upper bound of the delay.
+     */
+    public ExponentialBackoff(Duration initialDelay, Duration maxDelay){
+        if(initialDelay == null) throw new IllegalArgumentException("initialDelay must not be null");
+        if(maxDelay == null) throw new IllegalArgumentException("maxDelay must not be null");
+        if(initialDelay.isNegative() || maxDelay.compareTo(initialDelay) < 0) throw new IllegalArgumentException("Expected 0 <= initialDelay <= maxDelay, but was " + initialDelay + " / " + maxDelay);
+
+        this.initialDelayMs = initialDelay.toMillis();
+        this.maxDelayMs = maxDelay.toMillis();
+    }
+
+    /***************************************************************************
+     *                                                                         *
+     * Public API                                                              *
+     *                                                                         *
+     **************************************************************************/
+
+    /**
+     * Gets the delay in milliseconds before the given retry attempt.
+     * @param attempt The retry attempt, starting at 1.
+     */
+    public long delayMs(int attempt){
+        if(attempt < 1) throw new IllegalArgumentException("attempt must be at least 1, but was " + attempt);
+
+        var shift = Math.min(attempt - 1, 62);
+        var delay = initialDelayMs > (maxDelayMs >> shift) ? maxDelayMs : initialDelayMs << shift;
+        var jitter = delay / 2;
+        return delay - (jitter > 0 ? ThreadLocalRandom.current().nextLong(jitter + 1) : 0);
+    }
+
+    public long getInitialDelayMs() {
+        return initialDelayMs;
+    }
+
+    public long getMaxDelayMs() {
+        return maxDelayMs;
+    }
+
+    @Override
+    public String toString() {
+        return "ExponentialBackoff{" +
+                "initialDelayMs=" + initialDelayMs +
+                ", maxDelayMs=" + maxDelayMs +
+                '}';
+    }
+}
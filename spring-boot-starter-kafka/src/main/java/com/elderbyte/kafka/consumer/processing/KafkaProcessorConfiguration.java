@@ -1,10 +1,14 @@
 package com.elderbyte.kafka.consumer.processing;
 
+import com.elderbyte.kafka.consumer.configuration.ShardingStrategy;
+import com.elderbyte.kafka.consumer.processing.retry.RetryPolicy;
 import com.elderbyte.kafka.metrics.MetricsContext;
 import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.apache.kafka.common.serialization.Deserializer;
 
+import java.time.Duration;
 import java.util.List;
+import java.util.function.Predicate;
 
 public interface KafkaProcessorConfiguration<K,V> {
 
@@ -18,6 +22,95 @@ public interface KafkaProcessorConfiguration<K,V> {
 
     boolean isIgnoreErrors();
 
+    /**
+     * The max number of attempts to process a batch, before it is passed to the error handler and skipped.
+     */
     int getBlockingRetries();
 
+    /**
+     * The delay between the processing attempts of a failed batch.
+     */
+    ExponentialBackoff getRetryBackoff();
+
+    /**
+     * The number of worker threads which process a batch in parallel. 1 means no parallel processing.
+     */
+    int getParallelism();
+
+    /**
+     * How a batch is split up for parallel processing.
+     */
+    ShardingStrategy getShardingStrategy();
+
+    /**
+     * Batches with at least this number of records are decoded in parallel. 0 means never.
+     */
+    int getParallelDecodingThreshold();
+
+    /**
+     * If enabled, record values are decoded on first access instead of up front.
+     */
+    boolean isLazyValues();
+
+    /**
+     * Only raw records matching this filter are decoded and processed. Null if all records are processed.
+     */
+    Predicate<ConsumerRecord<byte[], byte[]>> getRawFilter();
+
+    /**
+     * Handles records which could not be processed. Might be null.
+     */
+    ProcessingErrorHandler<K,V> getErrorHandler();
+
+    /**
+     * If enabled, a failed batch is split up recursively until the failing records are isolated.
+     */
+    boolean isBisectOnError();
+
+    /**
+     * If enabled, this processor consumes retry topics. Records are only processed once their retry is due,
+     * until then their partition is paused.
+     */
+    boolean isRetryListener();
+
+    /**
+     * The tiers of the non-blocking retry topics, or null if retry topics are disabled.
+     */
+    RetryPolicy getRetryPolicy();
+
+    /**
+     * Indicates whether the sink of the processor is healthy. Might be null.
+     */
+    SinkHealthIndicator getSinkHealthIndicator();
+
+    /**
+     * How often the sink health is probed.
+     */
+    Duration getSinkHealthProbeInterval();
+
+    /**
+     * The processing time per batch to aim for, or null if the batch size is not adapted.
+     */
+    Duration getTargetBatchLatency();
+
+    /**
+     * The min size of an adapted batch.
+     */
+    int getMinBatchSize();
+
+    /**
+     * The max size of an adapted batch.
+     */
+    int getMaxBatchSize();
+
+    /**
+     * The max time to spend on the slices of a single poll, before the rest is polled again.
+     */
+    Duration getPollBudget();
+
+    /**
+     * The window in which records are accumulated across polls, or null if each poll is processed on its own.
+     */
+    MicroBatchWindow getMicroBatchWindow();
+
 }
@@ -2,8 +2,10 @@ package com.elderbyte.kafka.consumer.processing;
 
 import org.apache.kafka.clients.consumer.Consumer;
 import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
 import org.springframework.kafka.support.Acknowledgment;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface ManagedProcessor<K,V> {
@@ -17,4 +19,27 @@ public interface ManagedProcessor<K,V> {
      */
     void processMessages(List<ConsumerRecord<byte[], byte[]>> rawRecords, Acknowledgment acknowledgment, Consumer<?, ?> consumer);
 
+    /**
+     * Invoked on the consumer thread when no records have been received for a while.
+     * Allows to resume partitions which have been paused by this processor.
+     *
+     * @param consumer The kafka consumer instance
+     */
+    default void onIdle(Consumer<?, ?> consumer) { }
+
+    /**
+     * Invoked on the consumer thread when partitions are revoked, before their offsets are committed.
+     * Allows to process and commit records which have been held back by this processor.
+     *
+     * @param consumer The kafka consumer instance
+     * @param partitions The revoked partitions
+     */
+    default void onPartitionsRevoked(Consumer<?, ?> consumer, Collection<TopicPartition> partitions) { }
+
+    /**
+     * Invoked on the consumer thread when its consumer has stopped.
+     * Allows to release resources such as worker threads, which are created again if the container is restarted.
+     */
+    default void onStopped() { }
+
 }
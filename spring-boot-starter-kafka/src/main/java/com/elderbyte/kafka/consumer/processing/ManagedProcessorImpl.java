@@ -1,14 +1,23 @@
 package com.elderbyte.kafka.consumer.processing;
 
+import com.elderbyte.kafka.consumer.processing.parallel.ParallelBatchProcessor;
+import com.elderbyte.kafka.consumer.processing.retry.RetryHeaders;
 import com.elderbyte.kafka.metrics.MetricsContext;
 import com.elderbyte.kafka.metrics.MetricsReporter;
 import org.apache.kafka.clients.consumer.Consumer;
 import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.TopicPartition;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.kafka.support.Acknowledgment;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
 
 
 @SuppressWarnings("Duplicates")
@@ -25,6 +34,20 @@ public class ManagedProcessorImpl<K,V> implements ManagedProcessor<K,V> {
     private final KafkaProcessorConfiguration<K,V> configuration;
     private final MetricsReporter reporter;
     private final MetricsContext metricsCtx;
+    private final Processor<List<ConsumerRecord<K, V>>> processor;
+    private final ProcessingErrorHandler<K,V> errorHandler;
+    private final ProcessingErrorHandler<byte[], byte[]> rawErrorHandler;
+    private final PartitionPauseControl pauseControl = new PartitionPauseControl();
+
+    private final Map<TopicPartition, FailedPosition> failedPositions = new HashMap<>();
+
+    private final SinkHealthIndicator sinkHealth;
+    private boolean sinkUnhealthy = false;
+    private long sinkUnhealthySince;
+    private long nextSinkHealthProbeAt = 0;
+
+    private final AdaptiveBatchSizer batchSizer;
+    private final MicroBatchAccumulator accumulator;
 
     private RecordBatchDecoder<K,V> recordBatchDecoder;
 
@@ -38,16 +61,59 @@ public class ManagedProcessorImpl<K,V> implements ManagedProcessor<K,V> {
     public ManagedProcessorImpl(
             KafkaProcessorConfiguration<K,V> configuration,
             MetricsReporter reporter
+    ){
+      this(configuration, reporter, configuration.getErrorHandler());
+    }
+
+    /**
+     * Creates a new ManagedProcessorImpl
+     * @param configuration The processor configuration
+     * @param reporter The metrics reporter
+     * @param errorHandler Handles the records which could not be processed. Overrides the configured error handler.
+     */
+    public ManagedProcessorImpl(
+            KafkaProcessorConfiguration<K,V> configuration,
+            MetricsReporter reporter,
+            ProcessingErrorHandler<K,V> errorHandler
+    ){
+      this(configuration, reporter, errorHandler, null);
+    }
+
+    /**
+     * Creates a new ManagedProcessorImpl
+     * @param configuration The processor configuration
+     * @param reporter The metrics reporter
+     * @param errorHandler Handles the decoded records which could not be processed. Overrides the configured error handler.
+     * @param rawErrorHandler Handles the raw records which could not be processed, as they have been polled.
+     */
+    public ManagedProcessorImpl(
+            KafkaProcessorConfiguration<K,V> configuration,
+            MetricsReporter reporter,
+            ProcessingErrorHandler<K,V> errorHandler,
+            ProcessingErrorHandler<byte[], byte[]> rawErrorHandler
     ){
       this.configuration = configuration;
       this.reporter = reporter;
       this.metricsCtx = configuration.getMetricsContext();
+      this.processor = buildProcessor(configuration);
+      this.errorHandler = errorHandler;
+      this.rawErrorHandler = rawErrorHandler;
+      this.sinkHealth = configuration.getSinkHealthIndicator();
+      this.batchSizer = configuration.getTargetBatchLatency() != null
+              ? new AdaptiveBatchSizer(configuration.getTargetBatchLatency(), configuration.getMinBatchSize(), configuration.getMaxBatchSize())
+              : null;
+      this.accumulator = configuration.getMicroBatchWindow() != null
+              ? new MicroBatchAccumulator(configuration.getMicroBatchWindow())
+              : null;
 
       this.recordBatchDecoder = new RecordBatchDecoder<>(
               reporter,
               metricsCtx,
               configuration.getKeyDeserializer(),
-              configuration.getValueDeserializer()
+              configuration.getValueDeserializer(),
+              configuration.getParallelDecodingThreshold(),
+              null,
+              configuration.isLazyValues()
       );
     }
 
@@ -59,8 +125,160 @@ public class ManagedProcessorImpl<K,V> implements ManagedProcessor<K,V> {
 
     @Override
     public void processMessages(List<ConsumerRecord<byte[], byte[]>> rawRecords, Acknowledgment ack, Consumer<?, ?> consumer) {
+        if(accumulator != null && ack != null && consumer != null){
+            // Nothing is acked, so the records are not committed until the accumulated batch is processed
+            var now = System.currentTimeMillis();
+            accumulator.addAll(dropStale(rawRecords, consumer), now);
+            if(accumulator.isComplete(now)){
+                processAccumulated(consumer);
+            }
+        }else{
+            process(rawRecords, ack, consumer);
+        }
+    }
+
+    @Override
+    public void onIdle(Consumer<?, ?> consumer) {
+        if(accumulator != null && accumulator.isComplete(System.currentTimeMillis())){
+            processAccumulated(consumer);
+        }
+        if(probeSinkHealth(false)){
+            pauseControl.resumeDue(consumer, System.currentTimeMillis());
+        }
+    }
+
+    @Override
+    public void onPartitionsRevoked(Consumer<?, ?> consumer, Collection<TopicPartition> partitions) {
+        if(accumulator != null && !accumulator.isEmpty()){
+            // Process and commit what we hold back, otherwise the new owner processes it again
+            processAccumulated(consumer);
+        }
+    }
+
+    @Override
+    public void onStopped() {
+        if(processor instanceof ParallelBatchProcessor){
+            // Release the worker threads, they are created again once the container is restarted
+            ((ParallelBatchProcessor<?,?>) processor).shutdown();
+        }
+    }
+
+    /***************************************************************************
+     *                                                                         *
+     * Properties                                                              *
+     *                                                                         *
+     **************************************************************************/
+
+    public boolean skipOnAllErrors(){
+        // Failed records are retried in the retry topics instead
+        return configuration.isIgnoreErrors() || configuration.getRetryPolicy() != null;
+    }
+
+    /***************************************************************************
+     *                                                                         *
+     * Private methods                                                         *
+     *                                                                         *
+     **************************************************************************/
+
+    private void processAccumulated(Consumer<?, ?> consumer){
+        var batch = accumulator.drain();
+        process(batch, commitOffsetsOf(batch, consumer), consumer);
+    }
+
+    private void process(List<ConsumerRecord<byte[], byte[]>> rawRecords, Acknowledgment ack, Consumer<?, ?> consumer){
+        if(batchSizer != null && rawRecords.size() > 1){
+            processInSlices(rawRecords, ack, consumer);
+        }else{
+            processBatch(rawRecords, ack, consumer);
+        }
+    }
+
+    /**
+     * Feeds the polled records to the processor in slices, sized to meet the target batch latency.
+     *
+     * The poll size itself (max.poll.records) can't be changed on a live consumer, so a poll is split up instead.
+     * A failed slice rewinds its partitions, hence the following records of these partitions are stale and skipped.
+     * Once the poll budget is used up, the remaining records are rewound and polled again, to keep the consumer
+     * within max.poll.interval.ms. Finally, only the offsets of the acknowledged slices are committed.
+     */
+    private void processInSlices(List<ConsumerRecord<byte[], byte[]>> rawRecords, Acknowledgment ack, Consumer<?, ?> consumer){
+
+        var acknowledged = new ArrayList<ConsumerRecord<byte[], byte[]>>(rawRecords.size());
+        var deadline = System.nanoTime() + configuration.getPollBudget().toNanos();
+        int from = 0;
+
+        while (from < rawRecords.size()){
+            if(from > 0 && consumer != null && System.nanoTime() >= deadline){
+                var remaining = rawRecords.subList(from, rawRecords.size());
+                log.warn("Poll budget is used up, polling the remaining " + remaining.size() + " records again.");
+                rewindRemaining(remaining, consumer);
+                break;
+            }
+
+            var slice = rawRecords.subList(from, Math.min(rawRecords.size(), from + batchSizer.nextSize()));
+            from += slice.size();
+
+            long start = System.nanoTime();
+            processBatch(slice, ack != null ? new SliceAcknowledgment(acknowledged, slice) : null, consumer);
+            batchSizer.record(slice.size(), System.nanoTime() - start);
+        }
+
+        if(ack != null){
+            if(acknowledged.size() == rawRecords.size()){
+                ack.acknowledge();
+            }else if(!acknowledged.isEmpty()){
+                commitOffsetsOf(acknowledged, consumer).acknowledge();
+            }
+        }
+    }
+
+    /**
+     * Rewinds each partition of the given records to its first record, unless it has already been rewound to an earlier offset.
+     */
+    private void rewindRemaining(List<ConsumerRecord<byte[], byte[]>> remaining, Consumer<?, ?> consumer){
+        startOffsets(remaining).forEach((partition, offset) -> {
+            if(!pauseControl.isStale(consumer, partition, offset)){
+                pauseControl.rewind(consumer, partition, offset);
+            }
+        });
+    }
+
+    private void processBatch(List<ConsumerRecord<byte[], byte[]>> rawRecords, Acknowledgment ack, Consumer<?, ?> consumer) {
 
         long start = System.nanoTime();
+        boolean sinkHealthy = true;
+
+        if(consumer != null){
+            sinkHealthy = probeSinkHealth(false);
+            if(sinkHealthy){
+                pauseControl.resumeDue(consumer, System.currentTimeMillis());
+            }
+
+            var admitted = admitRecords(rawRecords, consumer);
+            if(admitted.size() < rawRecords.size()){
+                // Some records are delivered again later, so only commit the records which are actually processed now
+                ack = partialAck(ack, admitted, consumer);
+                rawRecords = admitted;
+            }
+            if(rawRecords.isEmpty()){
+                return;
+            }
+        }
+
+        var rawFilter = configuration.getRawFilter();
+        if(rawFilter != null){
+            rawRecords = filterRaw(rawRecords, rawFilter);
+            if(rawRecords.isEmpty()){
+                if(ack != null) { ack.acknowledge(); } // Commit the dropped records
+                return;
+            }
+        }
+
+        if(!sinkHealthy && ack != null){
+            // Don't waste a real batch on an unhealthy sink, it is delivered again after the next probe
+            rewindAndPause(startOffsets(rawRecords), consumer, nextSinkHealthProbeAt);
+            return;
+        }
 
         // decode records
         var records = recordBatchDecoder.decodeAllRecords(rawRecords);
@@ -69,98 +287,454 @@ public class ManagedProcessorImpl<K,V> implements ManagedProcessor<K,V> {
 
         boolean success;
 
-        if(skipOnAllErrors()){
-            success = processAllSkipOnError(records, configuration.getProcessor(), ack);
+        if(skipOnAllErrors() || ack == null){
+            // Without manual ack, the container commits the batch anyway, so it can't be retried later
+            success = processAllSkipOnError(records, rawRecords, processor, ack, consumer);
         }else{
-            processAllErrorHandler(records, configuration.getProcessor(), ack, configuration.getBlockingRetries(), null);
-            success = true;
+            success = processAllErrorHandler(records, rawRecords, processor, ack, consumer, configuration.getBlockingRetries());
         }
 
         if(success){
             reporter.reportStreamingMetrics(metricsCtx, records.size(), System.nanoTime() - start);
         }
+    }
+
+    private static <K,V> Processor<List<ConsumerRecord<K, V>>> buildProcessor(KafkaProcessorConfiguration<K,V> configuration){
+        var processor = configuration.getProcessor();
+        if(configuration.getParallelism() > 1){
+            return ParallelBatchProcessor.withWorkers(
+                    processor,
+                    configuration.getParallelism(),
+                    configuration.getShardingStrategy()
+            );
+        }
+        return processor;
+    }
 
-        // retry logic
+    /**
+     * Admits the records which should be processed now. Records of rewound partitions,
+     * which will be delivered again once resumed, are skipped.
+     *
+     * In a retry listener, only records whose retry is due are admitted. For each partition,
+     * the records from the first record which is not yet due onwards are deferred, and the partition
+     * is paused until then. Since all records of a retry topic have the same delay, they become due in offset order.
+     */
+    private List<ConsumerRecord<byte[], byte[]>> admitRecords(List<ConsumerRecord<byte[], byte[]>> rawRecords, Consumer<?, ?> consumer){
+        if(!pauseControl.hasRewound() && !configuration.isRetryListener()){
+            return rawRecords;
+        }
 
-        // health check ??
+        var now = System.currentTimeMillis();
+        var admitted = new ArrayList<ConsumerRecord<byte[], byte[]>>(rawRecords.size());
+
+        for(var record : rawRecords){
+            var partition = new TopicPartition(record.topic(), record.partition());
+            if(pauseControl.isStale(consumer, partition, record.offset())){
+                continue;
+            }
+            var dueAt = configuration.isRetryListener() ? RetryHeaders.dueAt(record) : null;
+            if(dueAt != null && dueAt > now){
+                pauseControl.pause(consumer, partition, record.offset(), dueAt);
+            }else{
+                admitted.add(record);
+            }
+        }
+        return admitted;
     }
 
-    /***************************************************************************
-     *                                                                         *
-     * Properties                                                              *
-     *                                                                         *
-     **************************************************************************/
+    /**
+     * Drops the records which were fetched before their partition has been rewound, since they are polled again.
+     */
+    private List<ConsumerRecord<byte[], byte[]>> dropStale(List<ConsumerRecord<byte[], byte[]>> rawRecords, Consumer<?, ?> consumer){
+        if(!pauseControl.hasRewound()){
+            return rawRecords;
+        }
 
-    public boolean skipOnAllErrors(){
-        return true;
+        var fresh = new ArrayList<ConsumerRecord<byte[], byte[]>>(rawRecords.size());
+        for(var record : rawRecords){
+            if(!pauseControl.isStale(consumer, new TopicPartition(record.topic(), record.partition()), record.offset())){
+                fresh.add(record);
+            }
+        }
+        return fresh;
     }
 
-    /***************************************************************************
-     *                                                                         *
-     * Private methods                                                         *
-     *                                                                         *
-     **************************************************************************/
+    /**
+     * Drops the raw records which don't match the filter. The dropped records are still covered by the ack.
+     */
+    private List<ConsumerRecord<byte[], byte[]>> filterRaw(List<ConsumerRecord<byte[], byte[]>> rawRecords, Predicate<ConsumerRecord<byte[], byte[]>> rawFilter){
+        var matching = new ArrayList<ConsumerRecord<byte[], byte[]>>(rawRecords.size());
+        for(var record : rawRecords){
+            if(rawFilter.test(record)){
+                matching.add(record);
+            }
+        }
+        if(matching.size() < rawRecords.size()){
+            reporter.reportFilteredRecords(metricsCtx, rawRecords.size() - matching.size());
+        }
+        return matching;
+    }
+
+    /**
+     * Acknowledges only the given part of the acknowledged batch. A slice collects its records
+     * to be committed along with the other slices of the poll, otherwise their offsets are committed directly.
+     */
+    private Acknowledgment partialAck(Acknowledgment ack, List<ConsumerRecord<byte[], byte[]>> records, Consumer<?, ?> consumer){
+        if(ack == null){
+            return null;
+        }
+        if(ack instanceof SliceAcknowledgment){
+            return ((SliceAcknowledgment) ack).of(records);
+        }
+        return commitOffsetsOf(records, consumer);
+    }
+
+    private Acknowledgment commitOffsetsOf(List<ConsumerRecord<byte[], byte[]>> records, Consumer<?, ?> consumer){
+        var offsets = new HashMap<TopicPartition, OffsetAndMetadata>();
+        for(var record : records){
+            offsets.merge(
+                    new TopicPartition(record.topic(), record.partition()),
+                    new OffsetAndMetadata(record.offset() + 1),
+                    (a, b) -> a.offset() >= b.offset() ? a : b
+            );
+        }
+        return () -> {
+            if(!offsets.isEmpty()) { consumer.commitSync(offsets); }
+        };
+    }
 
     private boolean processAllSkipOnError(
             List<ConsumerRecord<K, V>> records,
+            List<ConsumerRecord<byte[], byte[]>> rawRecords,
             Processor<List<ConsumerRecord<K, V>>> processor,
-            Acknowledgment ack){
+            Acknowledgment ack,
+            Consumer<?, ?> consumer){
 
         boolean success;
+        boolean skip = true;
         try {
             processor.proccess(records);
             success = true;
         }catch (Exception e){
-            reporter.reportProcessingError(metricsCtx, records, e);
+            if(ack != null && consumer != null && !probeSinkHealth(true)){
+                // The sink is down, so don't skip the records but deliver them again once it has recovered
+                reporter.reportProcessingError(metricsCtx, records, e);
+                rewindAndPause(startOffsets(records), consumer, nextSinkHealthProbeAt);
+                skip = false;
+            }else if(configuration.isBisectOnError()){
+                var failed = isolateFailures(records, processor);
+                skip = delegateError(failed, rawRecords, consumer);
+            }else{
+                reporter.reportProcessingError(metricsCtx, records, e);
+                skip = delegateError(records, rawRecords, consumer);
+            }
             success = false;
         }finally {
-            if(ack != null) { ack.acknowledge(); }
+            if(ack != null && skip) { ack.acknowledge(); }
         }
         return success;
     }
 
-    private void processAllErrorHandler(
+    /**
+     * Processes the records and retries them on error, without blocking the consumer.
+     * The partitions of a failed batch are rewound and paused for a backoff delay, so the batch is
+     * delivered again once resumed. Meanwhile the consumer keeps polling, and all other partitions keep flowing.
+     * Once all attempts have failed, the records are passed to the error handler and skipped,
+     * unless the error handler fails too.
+     *
+     * @return Returns true if the records have been processed successfully.
+     */
+    private boolean processAllErrorHandler(
             List<ConsumerRecord<K, V>> records,
+            List<ConsumerRecord<byte[], byte[]>> rawRecords,
             Processor<List<ConsumerRecord<K, V>>> processor,
             Acknowledgment ack,
-            int blockingRetryAttempts,
-            ProcessingErrorHandler<K,V> errorHandler){
+            Consumer<?, ?> consumer,
+            int attempts){
 
         if(records == null) throw new IllegalArgumentException("records must not be null");
         if(processor == null) throw new IllegalArgumentException("processor must not be null");
         if(ack == null) throw new IllegalArgumentException("ack must not be null");
 
-        int errorLoopIteration = 0;
-        int retryRemaining = blockingRetryAttempts;
+        try{
+            processor.proccess(records);
+            failedPositions.keySet().removeAll(startOffsets(records).keySet());
+            ack.acknowledge();
+            return true;
+        }catch (Exception e){
+            var startOffsets = startOffsets(records);
 
-        boolean success = false;
-        do{
-            try{
-                processor.proccess(records);
-                ack.acknowledge();
-                retryRemaining = 0;
-                success = true;
-            }catch (Exception e){
-                retryRemaining--; // Maybe check for bad health of sink system and block until healthy
-                ++errorLoopIteration;
-                log.warn("Error while processing records! Retries remaining: " + retryRemaining + " of " + blockingRetryAttempts, e);
-                reporter.reportProcessingError(metricsCtx, records, e, errorLoopIteration);
-                try {
-                    // Error Backoff
-                    Thread.sleep(Math.min(errorLoopIteration * 1000, 1000*60));
-                } catch (InterruptedException e1) { }
-            }
-        } while (!success && retryRemaining > 0);
-
-        if(!success){
-            // Unsucessful, and all retries have been used
-            if(errorHandler != null) { errorHandler.handleError(records); }
-            ack.acknowledge(); // Skip after delegating error
+            if(consumer != null && !probeSinkHealth(true)){
+                // The sink is down, so this attempt doesn't count. Deliver the records again once it has recovered.
+                reporter.reportProcessingError(metricsCtx, records, e);
+                rewindAndPause(startOffsets, consumer, nextSinkHealthProbeAt);
+                return false;
+            }
+
+            var attempt = nextAttempt(startOffsets);
+            reporter.reportProcessingError(metricsCtx, records, e, attempt);
+
+            if(attempt < attempts && consumer != null){
+                var delay = configuration.getRetryBackoff().delayMs(attempt);
+                log.warn("Error while processing records! Retrying attempt " + (attempt + 1) + " of " + attempts + " in " + delay + "ms.", e);
+
+                rewindAndPause(startOffsets, consumer, System.currentTimeMillis() + delay);
+                startOffsets.forEach((partition, offset) -> failedPositions.put(partition, new FailedPosition(offset, attempt)));
+                return false; // Not acknowledged, the records are delivered again once resumed
+            }
+        }
+
+        // Unsucessful, and all retries have been used
+        if(configuration.isBisectOnError()){
+            // Only skip the records which actually cause the failure
+            var failed = isolateFailures(records, processor);
+            if(!delegateError(failed, rawRecords, consumer)){
+                return false;
+            }
+            log.warn("Failed to process batch and all retries failed too. Skipping " + failed.size() + " of " + records.size() + " records now!");
+        }else{
+            if(!delegateError(records, rawRecords, consumer)){
+                return false;
+            }
             log.warn("Failed to process message and all retries failed too. Skipping now!");
+        }
+        failedPositions.keySet().removeAll(startOffsets(records).keySet());
+        ack.acknowledge(); // Skip after delegating error
+        return false;
+    }
+
+    /**
+     * Rewinds the given partitions to the given offsets and pauses them until the given time.
+     * The records from there on are delivered again once resumed.
+     */
+    private void rewindAndPause(Map<TopicPartition, Long> startOffsets, Consumer<?, ?> consumer, long resumeAt){
+        startOffsets.forEach((partition, offset) -> pauseControl.pause(consumer, partition, offset, resumeAt));
+    }
+
+    /**
+     * Probes the sink health, at most once per probe interval unless forced.
+     * While the sink is unhealthy, no paused partitions are resumed.
+     *
+     * @param force Probe now, regardless of the probe interval.
+     * @return Returns true if the sink is healthy.
+     */
+    private boolean probeSinkHealth(boolean force){
+        if(sinkHealth == null){
+            return true;
+        }
+
+        var now = System.currentTimeMillis();
+        if(!force && now < nextSinkHealthProbeAt){
+            return !sinkUnhealthy;
+        }
+        nextSinkHealthProbeAt = now + configuration.getSinkHealthProbeInterval().toMillis();
+
+        if(isSinkHealthy()){
+            if(sinkUnhealthy){
+                sinkUnhealthy = false;
+                reporter.reportPausedTime(metricsCtx, System.nanoTime() - sinkUnhealthySince);
+            }
+            return true;
+        }else{
+            if(!sinkUnhealthy){
+                sinkUnhealthy = true;
+                sinkUnhealthySince = System.nanoTime();
+                log.warn("The sink is unhealthy! Pausing consumption until it has recovered.");
+            }
+            return false;
+        }
+    }
+
+    private boolean isSinkHealthy(){
+        try {
+            return sinkHealth.isHealthy();
+        }catch (Exception e){
+            log.debug("Sink health probe has failed.", e);
+            return false;
+        }
+    }
+
+    /**
+     * The attempt number of the failure which has just occurred. If the batch starts
+     * where a previous attempt has failed, this is a retry of that attempt.
+     */
+    private int nextAttempt(Map<TopicPartition, Long> startOffsets){
+        int previous = 0;
+        for(var start : startOffsets.entrySet()){
+            var failed = failedPositions.get(start.getKey());
+            if(failed != null && failed.offset == start.getValue()){
+                previous = Math.max(previous, failed.attempt);
+            }
+        }
+        return previous + 1;
+    }
+
+    /**
+     * The offset of the first record of each partition in the given batch.
+     */
+    private static Map<TopicPartition, Long> startOffsets(List<? extends ConsumerRecord<?, ?>> records){
+        var offsets = new HashMap<TopicPartition, Long>();
+        for(var record : records){
+            offsets.merge(new TopicPartition(record.topic(), record.partition()), record.offset(), Math::min);
+        }
+        return offsets;
+    }
+
+    /**
+     * Isolates the failing records of a failed batch by splitting it recursively.
+     * Sub-batches which succeed are processed in their original order, so only the
+     * offending records remain.
+     *
+     * @param records A batch which has failed as a whole.
+     * @return Returns the records which have failed on their own.
+     */
+    private List<ConsumerRecord<K, V>> isolateFailures(
+            List<ConsumerRecord<K, V>> records,
+            Processor<List<ConsumerRecord<K, V>>> processor){
+
+        var failed = new ArrayList<ConsumerRecord<K, V>>();
+        if(records.size() == 1){
+            failed.addAll(records);
+        }else{
+            bisect(records, processor, failed);
+        }
+        return failed;
+    }
+
+    private void bisect(
+            List<ConsumerRecord<K, V>> failedBatch,
+            Processor<List<ConsumerRecord<K, V>>> processor,
+            List<ConsumerRecord<K, V>> failed){
+
+        int mid = failedBatch.size() / 2;
+        processOrBisect(new ArrayList<>(failedBatch.subList(0, mid)), processor, failed);
+        processOrBisect(new ArrayList<>(failedBatch.subList(mid, failedBatch.size())), processor, failed);
+    }
+
+    private void processOrBisect(
+            List<ConsumerRecord<K, V>> records,
+            Processor<List<ConsumerRecord<K, V>>> processor,
+            List<ConsumerRecord<K, V>> failed){
+        try {
+            processor.proccess(records);
+        }catch (Exception e){
+            if(records.size() == 1){
+                reporter.reportProcessingError(metricsCtx, records, e);
+                failed.addAll(records);
+            }else{
+                bisect(records, processor, failed);
+            }
+        }
+    }
+
+    /**
+     * Passes the failed records to the error handler, before they are skipped.
+     *
+     * If the handler fails or refuses the records, they must not be skipped. Instead, their partitions are
+     * rewound to the first failed record and paused for a backoff delay, so the records are delivered again.
+     *
+     * @param failed The decoded records which have failed.
+     * @param rawRecords The raw records of the batch, the failed records have been decoded from.
+     * @return Returns true if the failed records may be skipped.
+     */
+    private boolean delegateError(List<ConsumerRecord<K, V>> failed, List<ConsumerRecord<byte[], byte[]>> rawRecords, Consumer<?, ?> consumer){
+        if((errorHandler == null && rawErrorHandler == null) || failed.isEmpty()){
+            return true;
+        }
+
+        try {
+            boolean handled = true;
+            if(errorHandler != null){
+                handled = errorHandler.handleError(failed);
+            }
+            if(handled && rawErrorHandler != null){
+                handled = rawErrorHandler.handleError(rawRecordsOf(failed, rawRecords));
+            }
+            if(handled){
+                return true;
+            }
+            log.error("The error handler has refused to handle " + failed.size() + " records!");
+        }catch (Exception e){
+            log.error("The error handler has failed to handle " + failed.size() + " records!", e);
+        }
+
+        if(consumer != null){
+            var startOffsets = startOffsets(failed);
+            var attempt = nextAttempt(startOffsets);
+            var delay = configuration.getRetryBackoff().delayMs(attempt);
+            log.warn("Delivering " + failed.size() + " unhandled records again in " + delay + "ms.");
+
+            rewindAndPause(startOffsets, consumer, System.currentTimeMillis() + delay);
+            startOffsets.forEach((partition, offset) -> failedPositions.put(partition, new FailedPosition(offset, attempt)));
+        }else{
+            log.error("Can not deliver " + failed.size() + " unhandled records again without access to the consumer!");
+        }
+        return false;
+    }
+
+    /**
+     * The raw records from which the given failed records have been decoded.
+     * Decoding preserves the order and only drops records, so the failed records are a subsequence of the raw ones.
+     */
+    private static List<ConsumerRecord<byte[], byte[]>> rawRecordsOf(List<? extends ConsumerRecord<?, ?>> failed, List<ConsumerRecord<byte[], byte[]>> rawRecords){
+        var raw = new ArrayList<ConsumerRecord<byte[], byte[]>>(failed.size());
+        int r = 0;
+        for(var record : failed){
+            while (r < rawRecords.size() && !isSameRecord(rawRecords.get(r), record)){
+                r++;
+            }
+            if(r == rawRecords.size()){
+                throw new IllegalStateException("Failed record " + record.topic() + "-" + record.partition() + "@" + record.offset() + " is not part of the raw batch!");
+            }
+            raw.add(rawRecords.get(r++));
+        }
+        return raw;
+    }
+
+    private static boolean isSameRecord(ConsumerRecord<?, ?> a, ConsumerRecord<?, ?> b){
+        return a.offset() == b.offset() && a.partition() == b.partition() && a.topic().equals(b.topic());
+    }
+
+    /***************************************************************************
+     *                                                                         *
+     * Inner classes                                                           *
+     *                                                                         *
+     **************************************************************************/
+
+    /**
+     * Acknowledges a slice of a poll, by collecting its records to be committed once all slices are done.
+     */
+    private static final class SliceAcknowledgment implements Acknowledgment {
+
+        private final List<ConsumerRecord<byte[], byte[]>> acknowledged;
+        private final List<ConsumerRecord<byte[], byte[]>> slice;
+
+        SliceAcknowledgment(List<ConsumerRecord<byte[], byte[]>> acknowledged, List<ConsumerRecord<byte[], byte[]>> slice){
+            this.acknowledged = acknowledged;
+            this.slice = slice;
+        }
+
+        SliceAcknowledgment of(List<ConsumerRecord<byte[], byte[]>> records){
+            return new SliceAcknowledgment(acknowledged, records);
+        }
+
+        @Override
+        public void acknowledge() {
+            acknowledged.addAll(slice);
+        }
+    }
+
+    /**
+     * The start offset of a batch in a partition, and how many attempts have failed there.
+     */
+    private static final class FailedPosition {
+
+        private final long offset;
+        private final int attempt;
 
-            // TODO we probably skip a whole batch here even if only one record causes an issue
-            // maybe we can unwrap the batch and try them one after each other
-            // or the sink actually handles partial updates
+        private FailedPosition(long offset, int attempt){
+            this.offset = offset;
+            this.attempt = attempt;
         }
     }
 }
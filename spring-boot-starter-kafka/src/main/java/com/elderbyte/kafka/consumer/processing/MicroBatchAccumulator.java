@@ -0,0 +1,172 @@
+package com.elderbyte.kafka.consumer.processing;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+
+/**
+ * Buffers raw records across polls, until the micro batch window is complete.
+ *
+ * If the window compacts keys, only the latest record of each key (per partition) is kept,
+ * keyed on the serialized key bytes. Records without key are never compacted.
+ * Since the latest record of a partition always survives, the offsets covered by a compacted batch
+ * are the same as the ones of the full batch.
+ *
+ * Not thread safe, must only be used from the consumer thread.
+ */
+public class MicroBatchAccumulator {
+
+    /***************************************************************************
+     *                                                                         *
+     * Fields                                                                  *
+     *                                                                         *
+     **************************************************************************/
+
+    private final MicroBatchWindow window;
+
+    private List<ConsumerRecord<byte[], byte[]>> records = new ArrayList<>();
+    private LinkedHashMap<Object, ConsumerRecord<byte[], byte[]>> latestByKey = new LinkedHashMap<>();
+    private long bytes = 0;
+    private long openedAt = 0;
+
+    /***************************************************************************
+     *                                                                         *
+     * Constructor                                                             *
+     *                                                                         *
+     **************************************************************************/
+
+    /**
+     * Creates a new MicroBatchAccumulator
+     * @param window Defines when a batch is complete.
+     */
+    public MicroBatchAccumulator(MicroBatchWindow window){
+        if(window == null) throw new IllegalArgumentException("window must not be null");
+        this.window = window;
+    }
+
+    /***************************************************************************
+     *                                                                         *
+     * Public API                                                              *
+     *                                                                         *
+     **************************************************************************/
+
+    /**
+     * Add the given records to the pending batch.
+     *
+     * @param rawRecords The records to add.
+     * @param now The current epoch millis.
+     */
+    public void addAll(List<ConsumerRecord<byte[], byte[]>> rawRecords, long now){
+        if(rawRecords.isEmpty()){
+            return;
+        }
+        if(isEmpty()){
+            openedAt = now;
+        }
+        for(var record : rawRecords){
+            if(window.isCompactKeys()){
+                // Remove first, so the record moves to the position of its latest update
+                var key = compactionKeyOf(record);
+                var previous = latestByKey.remove(key);
+                if(previous != null){
+                    bytes -= sizeOf(previous);
+                }
+                latestByKey.put(key, record);
+            }else{
+                records.add(record);
+            }
+            bytes += sizeOf(record);
+        }
+    }
+
+    /**
+     * Returns true if the pending batch is complete and should be processed.
+     */
+    public boolean isComplete(long now){
+        return window.isComplete(size(), bytes, openedAt, now);
+    }
+
+    /**
+     * Returns true if there is no pending batch.
+     */
+    public boolean isEmpty(){
+        return size() == 0;
+    }
+
+    /**
+     * Removes and returns the pending batch.
+     */
+    public List<ConsumerRecord<byte[], byte[]>> drain(){
+        List<ConsumerRecord<byte[], byte[]>> batch;
+        if(window.isCompactKeys()){
+            batch = new ArrayList<>(latestByKey.values());
+            latestByKey = new LinkedHashMap<>(Math.max(16, batch.size() * 2));
+        }else{
+            batch = records;
+            records = new ArrayList<>(batch.size());
+        }
+        bytes = 0;
+        return batch;
+    }
+
+    /***************************************************************************
+     *                                                                         *
+     * Private methods                                                         *
+     *                                                                         *
+     **************************************************************************/
+
+    private int size(){
+        return window.isCompactKeys() ? latestByKey.size() : records.size();
+    }
+
+    private static long sizeOf(ConsumerRecord<byte[], byte[]> record){
+        return Math.max(0, record.serializedKeySize()) + Math.max(0, record.serializedValueSize());
+    }
+
+    private static Object compactionKeyOf(ConsumerRecord<byte[], byte[]> record){
+        if(record.key() == null){
+            return record; // Unique, never compacted
+        }
+        return new CompactionKey(record.topic(), record.partition(), record.key());
+    }
+
+    /***************************************************************************
+     *                                                                         *
+     * Inner classes                                                           *
+     *                                                                         *
+     **************************************************************************/
+
+    private static final class CompactionKey {
+
+        private final String topic;
+        private final int partition;
+        private final byte[] key;
+        private final int hash;
+
+        CompactionKey(String topic, int partition, byte[] key){
+            this.topic = topic;
+            this.partition = partition;
+            this.key = key;
+            this.hash = 31 * (31 * topic.hashCode() + partition) + Arrays.hashCode(key);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof CompactionKey)) return false;
+            var other = (CompactionKey) o;
+            return hash == other.hash
+                    && partition == other.partition
+                    && Arrays.equals(key, other.key)
+                    && topic.equals(other.topic);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.elderbyte.kafka.consumer.processing;
+
+import java.time.Duration;
+
+/**
+ * Defines when an accumulated micro batch is complete:
+ * Once it holds the max number of records, the max number of bytes or has been open for the max wait time,
+ * whatever comes first.
+ *
+ * A compacting window only keeps the latest record of each key, hence maxRecords limits the number of distinct keys.
+ */
+public class MicroBatchWindow {
+
+    /***************************************************************************
+     *                                                                         *
+     * Fields                                                                  *
+     *                                                                         *
+     **************************************************************************/
+
+    private final int maxRecords;
+    private final long maxBytes;
+    private final long maxWaitMs;
+    private final boolean compactKeys;
+
+    /***************************************************************************
+     *                                                                         *
+     * Constructor                                                             *
+     *                                                                         *
+     **************************************************************************/
+
+    /**
+     * Creates a new MicroBatchWindow
+     *
+     * @param maxRecords The max number of records in a batch.
+     * @param maxBytes The max number of serialized key and value bytes in a batch.
+     * @param maxWait The max time a batch is held back, measured from its first record.
+     */
+    public MicroBatchWindow(int maxRecords, long maxBytes, Duration maxWait){
+        this(maxRecords, maxBytes, maxWait, false);
+    }
+
+    /**
+     * Creates a new MicroBatchWindow
+     * @param maxRecords The max number of records (or distinct keys, if compacting) in a batch.
+     * @param maxBytes The max number of serialized key and value bytes in a batch.
+     * @param maxWait The max time a batch is held back, measured from its first record.
+     * @param compactKeys If true, only the latest record of each key is kept.
+     */
+    public MicroBatchWindow(int maxRecords, long maxBytes, Duration maxWait, boolean compactKeys){
+        if(maxRecords < 1) throw new IllegalArgumentException("maxRecords must be at least 1, but was " + maxRecords);
+        if(maxBytes < 1) throw new IllegalArgumentException("maxBytes must be at least 1, but was " + maxBytes);
+        if(maxWait == null || maxWait.isNegative()) throw new IllegalArgumentException("maxWait must not be null or negative, but was " + maxWait);
+
+        this.maxRecords = maxRecords;
+        this.maxBytes = maxBytes;
+        this.maxWaitMs = maxWait.toMillis();
+        this.compactKeys = compactKeys;
+    }
+
+    /***************************************************************************
+     *                                                                         *
+     * Public API                                                              *
+     *                                                                         *
+     **************************************************************************/
+
+    /**
+     * Returns true if a batch with the given size is complete.
+     *
+     * @param records The number of records in the batch.
+     * @param bytes The number of bytes in the batch.
+     * @param openedAt The epoch millis when the first record was added to the batch.
+     * @param now The current epoch millis.
+     */
+    public boolean isComplete(int records, long bytes, long openedAt, long now){
+        return records > 0 && (records >= maxRecords || bytes >= maxBytes || now - openedAt >= maxWaitMs);
+    }
+
+    public int getMaxRecords() {
+        return maxRecords;
+    }
+
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+
+    public long getMaxWaitMs() {
+        return maxWaitMs;
+    }
+
+    public boolean isCompactKeys() {
+        return compactKeys;
+    }
+
+    @Override
+    public String toString() {
+        return "MicroBatchWindow{" +
+                "maxRecords=" + maxRecords +
+                ", maxBytes=" + maxBytes +
+                ", maxWaitMs=" + maxWaitMs +
+                ", compactKeys=" + compactKeys +
+                '}';
+    }
+}
@@ -0,0 +1,142 @@
+package com.elderbyte.kafka.consumer.processing;
+
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.common.TopicPartition;
+
+import java.util.*;
+
+/**
+ * Pauses single partitions of a consumer until a deadline, without blocking the poll loop.
+ *
+ * A paused partition is rewound to the given offset, so its records are delivered again once resumed.
+ * Meanwhile the consumer keeps polling, hence it keeps its group membership and
+ * the other partitions keep flowing.
+ *
+ * Not thread safe, must only be used from the consumer thread.
+ */
+public class PartitionPauseControl {
+
+    /***************************************************************************
+     *                                                                         *
+     * Fields                                                                  *
+     *                                                                         *
+     **************************************************************************/
+
+    private final Map<TopicPartition, Long> resumeAt = new HashMap<>();
+    private final Set<TopicPartition> rewound = new HashSet<>();
+
+    /***************************************************************************
+     *                                                                         *
+     * Public API                                                              *
+     *                                                                         *
+     **************************************************************************/
+
+    /**
+     * Pause the given partition until the given deadline.
+     * If the partition is already paused, the later deadline wins.
+     *
+     * @param consumer The consumer which owns the partition.
+     * @param partition The partition to pause.
+     * @param seekOffset The offset to continue from once resumed.
+     * @param resumeAtMs The epoch millis when the partition should be resumed.
+     */
+    public void pause(Consumer<?,?> consumer, TopicPartition partition, long seekOffset, long resumeAtMs){
+        if(consumer == null) throw new IllegalArgumentException("consumer must not be null");
+        if(partition == null) throw new IllegalArgumentException("partition must not be null");
+
+        consumer.seek(partition, seekOffset);
+        consumer.pause(Collections.singleton(partition));
+        resumeAt.merge(partition, resumeAtMs, Math::max);
+        rewound.add(partition);
+    }
+
+    /**
+     * Rewind the given partition without pausing it, so its records from the given offset on are polled again.
+     *
+     * @param consumer The consumer which owns the partition.
+     * @param partition The partition to rewind.
+     * @param seekOffset The offset to continue from.
+     */
+    public void rewind(Consumer<?,?> consumer, TopicPartition partition, long seekOffset){
+        if(consumer == null) throw new IllegalArgumentException("consumer must not be null");
+        if(partition == null) throw new IllegalArgumentException("partition must not be null");
+
+        consumer.seek(partition, seekOffset);
+        rewound.add(partition);
+    }
+
+    /**
+     * Returns true if the given record has been fetched before its partition was rewound.
+     * Such records are still delivered by the container after the pause (i.e. the rest of a poll
+     * in record mode), but must be skipped since they are delivered again once resumed.
+     *
+     * @param consumer The consumer which owns the partition.
+     * @param partition The partition of the record.
+     * @param offset The offset of the record.
+     */
+    public boolean isStale(Consumer<?,?> consumer, TopicPartition partition, long offset){
+        if(!rewound.contains(partition)){
+            return false;
+        }
+        if(consumer.assignment().contains(partition) && offset >= consumer.position(partition)){
+            return true; // Not yet fetched again since rewinding
+        }
+        rewound.remove(partition);
+        return false;
+    }
+
+    /**
+     * Resume all partitions whose deadline has passed.
+     * Partitions which are no longer assigned to the consumer are forgotten.
+     *
+     * @param consumer The consumer which owns the partitions.
+     * @param now The current epoch millis.
+     * @return Returns the partitions which have been resumed.
+     */
+    public Collection<TopicPartition> resumeDue(Consumer<?,?> consumer, long now){
+        if(resumeAt.isEmpty()){
+            return Collections.emptyList();
+        }
+
+        var assignment = consumer.assignment();
+        var due = new ArrayList<TopicPartition>();
+
+        var it = resumeAt.entrySet().iterator();
+        while (it.hasNext()){
+            var entry = it.next();
+            if(!assignment.contains(entry.getKey())){
+                it.remove(); // Revoked, a new owner starts unpaused from the committed offset
+                rewound.remove(entry.getKey());
+            }else if(entry.getValue() <= now){
+                due.add(entry.getKey());
+                it.remove();
+            }
+        }
+
+        if(!due.isEmpty()){
+            consumer.resume(due);
+        }
+        return due;
+    }
+
+    /**
+     * Returns true if the given partition is currently paused by this control.
+     */
+    public boolean isPaused(TopicPartition partition){
+        return resumeAt.containsKey(partition);
+    }
+
+    /**
+     * Returns true if any partition has been rewound and not yet delivered again.
+     */
+    public boolean hasRewound(){
+        return !rewound.isEmpty();
+    }
+
+    /**
+     * Returns true if any partition is currently paused by this control.
+     */
+    public boolean hasPaused(){
+        return !resumeAt.isEmpty();
+    }
+}
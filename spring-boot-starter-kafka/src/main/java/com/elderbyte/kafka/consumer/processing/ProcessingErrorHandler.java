@@ -6,6 +6,11 @@ import java.util.List;
 
 public interface ProcessingErrorHandler<K,V> {
 
+    /**
+     * Handles the records which could not be processed. They are only skipped if this returns true.
+     * @param records The failed records.
+     * @return Returns true if the records have been handled, and may be skipped.
+     */
     boolean handleError(List<ConsumerRecord<K, V>> records);
 
 }
@@ -1,13 +1,18 @@
 package com.elderbyte.kafka.consumer.processing;
 
 import com.elderbyte.kafka.consumer.ConsumerRecordBuilder;
+import com.elderbyte.kafka.consumer.LazyConsumerRecord;
 import com.elderbyte.kafka.metrics.MetricsContext;
 import com.elderbyte.kafka.metrics.MetricsReporter;
 import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.apache.kafka.common.serialization.Deserializer;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 
 import static java.util.stream.Collectors.toList;
 
@@ -19,11 +24,20 @@ public class RecordBatchDecoder<K,V> {
      *                                                                         *
      **************************************************************************/
 
+    /**
+     * Smallest number of records decoded by a single parallel task
+     */
+    private static final int MIN_PARALLEL_CHUNK = 32;
+
     private final MetricsReporter reporter;
     private final MetricsContext metricsCtx;
     private final Deserializer<K> keyDeserializer;
     private final Deserializer<V> valueDeserializer;
 
+    private final int parallelThreshold;
+    private final ForkJoinPool decodingPool;
+    private final boolean lazyValues;
+
     /***************************************************************************
      *                                                                         *
      * Fields                                                                  *
@@ -36,16 +50,56 @@ public class RecordBatchDecoder<K,V> {
             MetricsContext metricsCtx,
             Deserializer<K> keyDeserializer,
             Deserializer<V> valueDeserializer
+    ){
+        this(reporter, metricsCtx, keyDeserializer, valueDeserializer, 0, null);
+    }
+
+    /**
+     * Creates a new RecordBatchDecoder which decodes large batches in parallel.
+     *
+     * @param parallelThreshold Batches with at least this number of records are decoded in parallel. 0 disables parallel decoding.
+     * @param decodingPool The pool used for parallel decoding. If null, the common pool is used.
+     */
+    public RecordBatchDecoder(
+            MetricsReporter reporter,
+            MetricsContext metricsCtx,
+            Deserializer<K> keyDeserializer,
+            Deserializer<V> valueDeserializer,
+            int parallelThreshold,
+            ForkJoinPool decodingPool
+    ){
+        this(reporter, metricsCtx, keyDeserializer, valueDeserializer, parallelThreshold, decodingPool, false);
+    }
+
+    /**
+     * Creates a new RecordBatchDecoder
+     *
+     * @param parallelThreshold Batches with at least this number of records are decoded in parallel. 0 disables parallel decoding.
+     * @param decodingPool The pool used for parallel decoding. If null, the common pool is used.
+     * @param lazyValues If true, only the keys are decoded up front, and each value is decoded on first access.
+     */
+    public RecordBatchDecoder(
+            MetricsReporter reporter,
+            MetricsContext metricsCtx,
+            Deserializer<K> keyDeserializer,
+            Deserializer<V> valueDeserializer,
+            int parallelThreshold,
+            ForkJoinPool decodingPool,
+            boolean lazyValues
     ){
         if(reporter == null) throw new IllegalArgumentException("reporter");
         if(metricsCtx == null) throw new IllegalArgumentException("metricsCtx");
         if(keyDeserializer == null) throw new IllegalArgumentException("keyDeserializer");
         if(valueDeserializer == null) throw new IllegalArgumentException("valueDeserializer");
+        if(parallelThreshold < 0) throw new IllegalArgumentException("parallelThreshold must not be negative");
 
         this.reporter = reporter;
         this.metricsCtx = metricsCtx;
         this.keyDeserializer = keyDeserializer;
         this.valueDeserializer = valueDeserializer;
+        this.parallelThreshold = parallelThreshold;
+        this.decodingPool = decodingPool != null ? decodingPool : ForkJoinPool.commonPool();
+        this.lazyValues = lazyValues;
     }
 
     /***************************************************************************
@@ -61,10 +115,14 @@ public class RecordBatchDecoder<K,V> {
         List<ConsumerRecord<K, V>> records;
 
         try {
-            records = rawRecords.stream()
-                    .map(this::decodeRecord)
-                    .filter(Objects::nonNull) // Skipped records will be null
-                    .collect(toList());
+            if(isParallel(rawRecords)){
+                records = decodeAllParallel(rawRecords);
+            }else{
+                records = rawRecords.stream()
+                        .map(this::decodeRecord)
+                        .filter(Objects::nonNull) // Skipped records will be null
+                        .collect(toList());
+            }
         }catch (Exception e){
 
             reporter.reportUnrecoverableCrash(metricsCtx, rawRecords, e);
@@ -79,6 +137,34 @@ public class RecordBatchDecoder<K,V> {
      *                                                                         *
      **************************************************************************/
 
+    private boolean isParallel(List<ConsumerRecord<byte[], byte[]>> rawRecords){
+        return parallelThreshold > 0
+                && rawRecords.size() >= parallelThreshold
+                && decodingPool.getParallelism() > 1;
+    }
+
+    /**
+     * Decodes the records in parallel chunks. Each decoded record is written to the
+     * index of its raw record, which preserves the original order.
+     */
+    @SuppressWarnings("unchecked")
+    private List<ConsumerRecord<K, V>> decodeAllParallel(List<ConsumerRecord<byte[], byte[]>> rawRecords){
+
+        var source = rawRecords instanceof RandomAccess ? rawRecords : new ArrayList<>(rawRecords);
+        var decoded = (ConsumerRecord<K, V>[]) new ConsumerRecord<?, ?>[source.size()];
+        var chunkSize = Math.max(MIN_PARALLEL_CHUNK, source.size() / (decodingPool.getParallelism() * 4));
+
+        decodingPool.invoke(new DecodeChunkTask<>(this, source, decoded, 0, source.size(), chunkSize));
+
+        var records = new ArrayList<ConsumerRecord<K, V>>(decoded.length);
+        for(var record : decoded){
+            if(record != null){ // Skipped records will be null
+                records.add(record);
+            }
+        }
+        return records;
+    }
+
     private K deserializeKey(ConsumerRecord<byte[], byte[]> record){
         try {
             return keyDeserializer.deserialize(record.topic(), record.key());
@@ -117,7 +203,9 @@ public class RecordBatchDecoder<K,V> {
 
         V decodedValue;
         // Decode Value
-        if(record.value() != null){
+        if(lazyValues && record.value() != null){
+            return new LazyConsumerRecord<>(record, decodedKey, () -> decodeLazyValue(record));
+        }else if(record.value() != null){
             try{
                 decodedValue = deserializeValue(record);
                 return ConsumerRecordBuilder.fromRecordWithKeyValue(record, decodedKey, decodedValue);
@@ -131,4 +219,63 @@ public class RecordBatchDecoder<K,V> {
             return ConsumerRecordBuilder.fromRecordWithKeyValue(record, decodedKey,null);
         }
     }
+
+    /**
+     * Decodes the value of a lazy record. A malformed value is reported, and fails the processing of the record,
+     * since it is too late to skip it.
+     */
+    private V decodeLazyValue(ConsumerRecord<byte[], byte[]> record){
+        try {
+            return deserializeValue(record);
+        }catch (ProcessingException e){
+            reporter.reportMalformedRecord(metricsCtx, record, e);
+            throw e;
+        }
+    }
+
+    /***************************************************************************
+     *                                                                         *
+     * Inner classes                                                           *
+     *                                                                         *
+     **************************************************************************/
+
+    /**
+     * Decodes a range of records, split in halves until it fits the chunk size.
+     * Tasks are never serialized, hence the transient fields.
+     */
+    private static final class DecodeChunkTask<K,V> extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final transient RecordBatchDecoder<K, V> decoder;
+        private final transient List<ConsumerRecord<byte[], byte[]>> source;
+        private final transient ConsumerRecord<K, V>[] target;
+        private final int from;
+        private final int to;
+        private final int chunkSize;
+
+        DecodeChunkTask(RecordBatchDecoder<K, V> decoder, List<ConsumerRecord<byte[], byte[]>> source, ConsumerRecord<K, V>[] target, int from, int to, int chunkSize){
+            this.decoder = decoder;
+            this.source = source;
+            this.target = target;
+            this.from = from;
+            this.to = to;
+            this.chunkSize = chunkSize;
+        }
+
+        @Override
+        protected void compute() {
+            if(to - from <= chunkSize){
+                for(int i = from; i < to; i++){
+                    target[i] = decoder.decodeRecord(source.get(i));
+                }
+            }else{
+                int mid = (from + to) >>> 1;
+                invokeAll(
+                        new DecodeChunkTask<>(decoder, source, target, from, mid, chunkSize),
+                        new DecodeChunkTask<>(decoder, source, target, mid, to, chunkSize)
+                );
+            }
+        }
+    }
 }
@@ -0,0 +1,19 @@
+package com.elderbyte.kafka.consumer.processing;
+
+/**
+ * Indicates whether the downstream system, where a processor writes its records to, is healthy.
+ *
+ * While the sink is unhealthy, a managed listener pauses its partitions instead of
+ * processing (and failing) real batches. The indicator is probed periodically and consumption
+ * resumes automatically once the sink is healthy again.
+ */
+@FunctionalInterface
+public interface SinkHealthIndicator {
+
+    /**
+     * Checks if the sink is healthy. Should be cheap, i.e. a connection check or a simple query.
+     * Throwing an exception is treated as unhealthy.
+     */
+    boolean isHealthy() throws Exception;
+
+}
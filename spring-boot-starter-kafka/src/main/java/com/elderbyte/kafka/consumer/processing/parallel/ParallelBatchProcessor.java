@@ -0,0 +1,234 @@
+package com.elderbyte.kafka.consumer.processing.parallel;
+
+import com.elderbyte.kafka.consumer.configuration.ShardingStrategy;
+import com.elderbyte.kafka.consumer.processing.Processor;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.nio.ByteBuffer;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Splits a record batch into shards and processes the shards in parallel.
+ *
+ * Records of the same shard are handed to the delegate processor in their original order,
+ * so ordering is guaranteed per partition or per key, depending on the sharding strategy.
+ * This processor only returns once all shards have completed. If any shard fails,
+ * the whole batch fails. The calling thread processes shards too, see {@link ParallelTasks}.
+ *
+ * The threads of a processor created by its static builders are owned by the processor and released
+ * by {@link #shutdown()}. An executor passed to the constructor is managed by the caller.
+ */
+public class ParallelBatchProcessor<K,V> implements Processor<List<ConsumerRecord<K, V>>> {
+
+    /***************************************************************************
+     *                                                                         *
+     * Static Builder                                                          *
+     *                                                                         *
+     **************************************************************************/
+
+    /**
+     * Creates a parallel processor backed by a bounded pool of daemon worker threads.
+     * The batch is split into at most as many shards as there are workers.
+     * The pool is created on first use, and shut down by {@link #shutdown()}.
+     *
+     * @param processor The delegate processor, invoked once per shard.
+     * @param workers The number of worker threads.
+     * @param strategy The sharding strategy.
+     */
+    public static <K,V> ParallelBatchProcessor<K,V> withWorkers(
+            Processor<List<ConsumerRecord<K, V>>> processor,
+            int workers,
+            ShardingStrategy strategy
+    ){
+        if(workers < 1) throw new IllegalArgumentException("workers must be at least 1, but was " + workers);
+
+        return new ParallelBatchProcessor<>(processor, null, () -> newWorkerPool(workers), workers, strategy);
+    }
+
+    /**
+     * Creates a parallel processor which processes each shard on its own virtual thread, see {@link VirtualThreadExecutors}.
+     * The executor is created on first use, and shut down by {@link #shutdown()}.
+     *
+     * @param processor The delegate processor, invoked once per shard.
+     * @param strategy The sharding strategy.
+     */
+    public static <K,V> ParallelBatchProcessor<K,V> withVirtualThreads(
+            Processor<List<ConsumerRecord<K, V>>> processor,
+            ShardingStrategy strategy
+    ){
+        // One shard per partition / key, unless falling back to a bounded pool of platform threads
+        return new ParallelBatchProcessor<>(processor, null, VirtualThreadExecutors::newThreadPerTaskExecutor, VirtualThreadExecutors.maxConcurrency(), strategy);
+    }
+
+    /***************************************************************************
+     *                                                                         *
+     * Fields                                                                  *
+     *                                                                         *
+     **************************************************************************/
+
+    private final Processor<List<ConsumerRecord<K, V>>> processor;
+    private final Supplier<ExecutorService> executorFactory;
+    private final int maxShards;
+    private final ShardingStrategy strategy;
+
+    private ExecutorService executor;
+
+    /***************************************************************************
+     *                                                                         *
+     * Constructor                                                             *
+     *                                                                         *
+     **************************************************************************/
+
+    /**
+     * Creates a new ParallelBatchProcessor
+     *
+     * @param processor The delegate processor, invoked once per shard.
+     * @param executor The executor which runs the shards. Managed by the caller, it is not shut down by this processor.
+     * @param maxShards The max number of shards. Use Integer.MAX_VALUE to create a shard for each distinct partition / key.
+     * @param strategy The sharding strategy.
+     */
+    public ParallelBatchProcessor(
+            Processor<List<ConsumerRecord<K, V>>> processor,
+            ExecutorService executor,
+            int maxShards,
+            ShardingStrategy strategy
+    ){
+        this(processor, executor, null, maxShards, strategy);
+    }
+
+    private ParallelBatchProcessor(
+            Processor<List<ConsumerRecord<K, V>>> processor,
+            ExecutorService executor,
+            Supplier<ExecutorService> executorFactory,
+            int maxShards,
+            ShardingStrategy strategy
+    ){
+        if(processor == null) throw new IllegalArgumentException("processor must not be null");
+        if(executor == null && executorFactory == null) throw new IllegalArgumentException("executor must not be null");
+        if(maxShards < 1) throw new IllegalArgumentException("maxShards must be at least 1, but was " + maxShards);
+        if(strategy == null) throw new IllegalArgumentException("strategy must not be null");
+
+        this.processor = processor;
+        this.executor = executor;
+        this.executorFactory = executorFactory;
+        this.maxShards = maxShards;
+        this.strategy = strategy;
+    }
+
+    /***************************************************************************
+     *                                                                         *
+     * Public Api                                                              *
+     *                                                                         *
+     **************************************************************************/
+
+    @Override
+    public void proccess(List<ConsumerRecord<K, V>> records) throws Exception {
+
+        var shards = shard(records);
+
+        if(shards.size() <= 1){
+            // Nothing to parallelize, stay on the calling thread
+            if(!records.isEmpty()){
+                processor.proccess(records);
+            }
+            return;
+        }
+
+        var tasks = new ArrayList<ParallelTasks.Task>(shards.size());
+        for(var shard : shards){
+            tasks.add(() -> processor.proccess(shard));
+        }
+        ParallelTasks.runAll(tasks, executor());
+    }
+
+    /**
+     * Shuts down the threads owned by this processor, once their running shards have completed.
+     * If the processor is used again afterwards (i.e. its listener container is restarted), new threads are created.
+     * Has no effect on an executor managed by the caller.
+     */
+    public synchronized void shutdown(){
+        if(executorFactory != null && executor != null){
+            executor.shutdown();
+            executor = null;
+        }
+    }
+
+    /***************************************************************************
+     *                                                                         *
+     * Private methods                                                         *
+     *                                                                         *
+     **************************************************************************/
+
+    private synchronized ExecutorService executor(){
+        if(executor == null){
+            executor = executorFactory.get();
+        }
+        return executor;
+    }
+
+    private static ExecutorService newWorkerPool(int workers){
+        var threadFactory = new CustomizableThreadFactory("kafka-parallel-processor-");
+        threadFactory.setDaemon(true);
+
+        var executor = new ThreadPoolExecutor(
+                workers, workers,
+                60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(),
+                threadFactory
+        );
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    private Collection<List<ConsumerRecord<K, V>>> shard(List<ConsumerRecord<K, V>> records){
+        if(maxShards == Integer.MAX_VALUE){
+            return shardByDistinctKey(records);
+        }else{
+            return shardByHash(records);
+        }
+    }
+
+    private Collection<List<ConsumerRecord<K, V>>> shardByDistinctKey(List<ConsumerRecord<K, V>> records){
+        var shards = new LinkedHashMap<Object, List<ConsumerRecord<K, V>>>();
+        for(var record : records){
+            shards.computeIfAbsent(shardKey(record), k -> new ArrayList<>())
+                    .add(record);
+        }
+        return shards.values();
+    }
+
+    private Collection<List<ConsumerRecord<K, V>>> shardByHash(List<ConsumerRecord<K, V>> records){
+        var shardCount = Math.min(maxShards, records.size());
+        var shards = new ArrayList<List<ConsumerRecord<K, V>>>(shardCount);
+        for(int i = 0; i < shardCount; i++){
+            shards.add(new ArrayList<>());
+        }
+
+        for(var record : records){
+            var index = Math.floorMod(shardKey(record).hashCode(), shardCount);
+            shards.get(index).add(record);
+        }
+
+        shards.removeIf(List::isEmpty);
+        return shards;
+    }
+
+    private Object shardKey(ConsumerRecord<K, V> record){
+        if(strategy == ShardingStrategy.KEY && record.key() != null){
+            var key = record.key();
+            if(key instanceof byte[]){
+                return ByteBuffer.wrap((byte[])key); // Content based equals / hashCode
+            }
+            return key;
+        }
+        // Records without key are kept in partition order
+        return new TopicPartition(record.topic(), record.partition());
+    }
+}
@@ -0,0 +1,124 @@
+package com.elderbyte.kafka.consumer.processing.parallel;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Runs a group of tasks in parallel and waits until all of them have completed.
+ *
+ * The calling thread takes part: It runs the first task itself, and afterwards every task which
+ * the executor has not started yet. Hence the tasks always complete, even if the executor is busy
+ * or shared with the callers (i.e. nested parallel batches), and can't deadlock by starvation.
+ */
+public final class ParallelTasks {
+
+    /***************************************************************************
+     *                                                                         *
+     * Constructor                                                             *
+     *                                                                         *
+     **************************************************************************/
+
+    private ParallelTasks() { }
+
+    /***************************************************************************
+     *                                                                         *
+     * Public API                                                              *
+     *                                                                         *
+     **************************************************************************/
+
+    /**
+     * Runs the given tasks in parallel and returns once all of them have completed.
+     *
+     * Even if a task fails, the others are awaited. Otherwise a retry could run concurrently
+     * with the remaining tasks. The first failure is thrown, with the others added as suppressed exceptions.
+     *
+     * @param tasks The tasks to run.
+     * @param executor The executor which runs the tasks along the calling thread.
+     */
+    public static void runAll(List<? extends Task> tasks, Executor executor) throws Exception {
+        if(tasks == null) throw new IllegalArgumentException("tasks must not be null");
+        if(executor == null) throw new IllegalArgumentException("executor must not be null");
+
+        if(tasks.size() == 1){
+            tasks.get(0).run();
+            return;
+        }
+
+        var futures = new ArrayList<FutureTask<Void>>(tasks.size());
+        for(var task : tasks){
+            futures.add(new FutureTask<>(() -> {
+                task.run();
+                return null;
+            }));
+        }
+
+        for(int i = 1; i < futures.size(); i++){
+            try {
+                executor.execute(futures.get(i));
+            }catch (RejectedExecutionException e){
+                // Left for the calling thread
+            }
+        }
+
+        // A task which has already been started (or completed) is not run again
+        futures.forEach(FutureTask::run);
+
+        awaitAll(futures);
+    }
+
+    /***************************************************************************
+     *                                                                         *
+     * Private methods                                                         *
+     *                                                                         *
+     **************************************************************************/
+
+    private static void awaitAll(List<FutureTask<Void>> futures) throws Exception {
+        Exception failure = null;
+        boolean interrupted = false;
+
+        for(var future : futures){
+            while (true){
+                try {
+                    future.get();
+                    break;
+                } catch (InterruptedException e) {
+                    interrupted = true; // Keep waiting, but restore the flag afterwards
+                } catch (ExecutionException e) {
+                    var cause = e.getCause() instanceof Exception ? (Exception)e.getCause() : e;
+                    if(failure == null){
+                        failure = cause;
+                    }else{
+                        failure.addSuppressed(cause);
+                    }
+                    break;
+                }
+            }
+        }
+
+        if(interrupted){
+            Thread.currentThread().interrupt();
+        }
+
+        if(failure != null){
+            throw failure;
+        }
+    }
+
+    /***************************************************************************
+     *                                                                         *
+     * Inner classes                                                           *
+     *                                                                         *
+     **************************************************************************/
+
+    /**
+     * A task which may fail.
+     */
+    @FunctionalInterface
+    public interface Task {
+        void run() throws Exception;
+    }
+}
@@ -0,0 +1,110 @@
+package com.elderbyte.kafka.consumer.processing.parallel;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Provides executors which run each task on a virtual thread.
+ *
+ * This library is compiled against Java 11, so virtual threads are resolved at runtime.
+ * On runtimes without virtual threads (before Java 21), a bounded pool of daemon platform
+ * threads is used instead, so a batch with many keys doesn't start a thread per key.
+ */
+public final class VirtualThreadExecutors {
+
+    /***************************************************************************
+     *                                                                         *
+     * Fields                                                                  *
+     *                                                                         *
+     **************************************************************************/
+
+    private static final Logger log = LoggerFactory.getLogger(VirtualThreadExecutors.class);
+
+    private static final MethodHandle newVirtualThreadPerTaskExecutor = lookupVirtualThreadPerTaskExecutor();
+
+    private static final int FALLBACK_THREADS = Math.max(2, Runtime.getRuntime().availableProcessors() * 2);
+
+    /***************************************************************************
+     *                                                                         *
+     * Constructor                                                             *
+     *                                                                         *
+     **************************************************************************/
+
+    private VirtualThreadExecutors() { }
+
+    /***************************************************************************
+     *                                                                         *
+     * Public API                                                              *
+     *                                                                         *
+     **************************************************************************/
+
+    /**
+     * Returns true if the current runtime supports virtual threads.
+     */
+    public static boolean isSupported(){
+        return newVirtualThreadPerTaskExecutor != null;
+    }
+
+    /**
+     * The number of tasks the executors run concurrently. Unbounded for virtual threads,
+     * otherwise the size of the platform thread pool.
+     */
+    public static int maxConcurrency(){
+        return isSupported() ? Integer.MAX_VALUE : FALLBACK_THREADS;
+    }
+
+    /**
+     * Creates a new executor which starts a new virtual thread for each task.
+     * Falls back to a bounded pool of platform threads if virtual threads are not supported,
+     * where further tasks are queued until a thread is available.
+     */
+    public static ExecutorService newThreadPerTaskExecutor(){
+        if(newVirtualThreadPerTaskExecutor != null){
+            try {
+                return (ExecutorService) newVirtualThreadPerTaskExecutor.invokeExact();
+            } catch (Throwable e) {
+                log.warn("Failed to create virtual thread executor, falling back to platform threads.", e);
+            }
+        }
+        var threadFactory = new CustomizableThreadFactory("kafka-record-processor-");
+        threadFactory.setDaemon(true);
+
+        var executor = new ThreadPoolExecutor(
+                FALLBACK_THREADS, FALLBACK_THREADS,
+                60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(),
+                threadFactory
+        );
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    /***************************************************************************
+     *                                                                         *
+     * Private methods                                                         *
+     *                                                                         *
+     **************************************************************************/
+
+    private static MethodHandle lookupVirtualThreadPerTaskExecutor(){
+        try {
+            return MethodHandles.publicLookup().findStatic(
+                    Executors.class,
+                    "newVirtualThreadPerTaskExecutor",
+                    MethodType.methodType(ExecutorService.class)
+            );
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            log.info("Virtual threads are not supported by this java runtime, platform threads will be used instead.");
+            return null;
+        }
+    }
+}
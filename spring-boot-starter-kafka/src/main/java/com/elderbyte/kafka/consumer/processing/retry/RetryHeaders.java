@@ -0,0 +1,106 @@
+package com.elderbyte.kafka.consumer.processing.retry;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * The headers which are attached to records published to retry or dead letter topics.
+ */
+public final class RetryHeaders {
+
+    /***************************************************************************
+     *                                                                         *
+     * Fields                                                                  *
+     *                                                                         *
+     **************************************************************************/
+
+    public static final String ORIGINAL_TOPIC = "kafka_retry_original_topic";
+    public static final String ORIGINAL_PARTITION = "kafka_retry_original_partition";
+    public static final String ORIGINAL_OFFSET = "kafka_retry_original_offset";
+
+    /**
+     * The number of retry attempts of this record. Starts at 1 in the first retry topic.
+     */
+    public static final String ATTEMPT = "kafka_retry_attempt";
+
+    /**
+     * The epoch millis when the record is due for its retry.
+     */
+    public static final String DUE_AT = "kafka_retry_due_at";
+
+    /***************************************************************************
+     *                                                                         *
+     * Constructor                                                             *
+     *                                                                         *
+     **************************************************************************/
+
+    private RetryHeaders() { }
+
+    /***************************************************************************
+     *                                                                         *
+     * Public API                                                              *
+     *                                                                         *
+     **************************************************************************/
+
+    /**
+     * Returns true if the given header is managed by the retry topics.
+     */
+    public static boolean isRetryHeader(String key){
+        return key.startsWith("kafka_retry_");
+    }
+
+    /**
+     * The topic where the given record originated.
+     */
+    public static String originalTopic(ConsumerRecord<?,?> record){
+        var topic = header(record, ORIGINAL_TOPIC);
+        return topic != null ? topic : record.topic();
+    }
+
+    /**
+     * The partition where the given record originated.
+     */
+    public static int originalPartition(ConsumerRecord<?,?> record){
+        var partition = header(record, ORIGINAL_PARTITION);
+        return partition != null ? Integer.parseInt(partition) : record.partition();
+    }
+
+    /**
+     * The offset where the given record originated.
+     */
+    public static long originalOffset(ConsumerRecord<?,?> record){
+        var offset = header(record, ORIGINAL_OFFSET);
+        return offset != null ? Long.parseLong(offset) : record.offset();
+    }
+
+    /**
+     * The retry attempts the given record has been through. 0 if it comes from a main topic.
+     */
+    public static int attempt(ConsumerRecord<?,?> record){
+        var attempt = header(record, ATTEMPT);
+        return attempt != null ? Integer.parseInt(attempt) : 0;
+    }
+
+    /**
+     * The epoch millis when the given record is due, or null if it is due immediately.
+     */
+    public static Long dueAt(ConsumerRecord<?,?> record){
+        var dueAt = header(record, DUE_AT);
+        return dueAt != null ? Long.parseLong(dueAt) : null;
+    }
+
+    /***************************************************************************
+     *                                                                         *
+     * Private methods                                                         *
+     *                                                                         *
+     **************************************************************************/
+
+    private static String header(ConsumerRecord<?,?> record, String key){
+        var header = record.headers().lastHeader(key);
+        if(header == null || header.value() == null){
+            return null;
+        }
+        return new String(header.value(), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,157 @@
+package com.elderbyte.kafka.consumer.processing.retry;
+
+import java.time.Duration;
+import java.util.*;
+
+/**
+ * Defines the delay tiers of non-blocking retry topics.
+ *
+ * A record which fails in the main topic is published to the first retry tier,
+ * and is processed again once the delay of that tier has passed. If it fails again,
+ * it moves on to the next tier. After the last tier, it is published to the dead letter topic.
+ *
+ * For a main topic "orders" with two tiers, the following topics are used:
+ * "orders-retry-1", "orders-retry-2" and "orders-dlt".
+ */
+public class RetryPolicy {
+
+    /***************************************************************************
+     *                                                                         *
+     * Static Builder                                                          *
+     *                                                                         *
+     **************************************************************************/
+
+    /**
+     * Creates a retry policy with one retry tier for each of the given delays.
+     * @param delays The delay of each retry tier, usually ascending.
+     */
+    public static RetryPolicy tiered(Duration... delays){
+        if(delays == null) throw new IllegalArgumentException("delays must not be null");
+        return new RetryPolicy(Arrays.asList(delays));
+    }
+
+    /**
+     * Creates a retry policy whose delays double from tier to tier.
+     * @param initialDelay The delay of the first retry tier.
+     * @param tiers The number of retry tiers.
+     */
+    public static RetryPolicy exponential(Duration initialDelay, int tiers){
+        if(initialDelay == null) throw new IllegalArgumentException("initialDelay must not be null");
+        if(tiers < 1) throw new IllegalArgumentException("tiers must be at least 1, but was " + tiers);
+
+        var delays = new ArrayList<Duration>(tiers);
+        var delay = initialDelay;
+        for(int i = 0; i < tiers; i++){
+            delays.add(delay);
+            delay = delay.multipliedBy(2);
+        }
+        return new RetryPolicy(delays);
+    }
+
+    /***************************************************************************
+     *                                                                         *
+     * Fields                                                                  *
+     *                                                                         *
+     **************************************************************************/
+
+    public static final String RETRY_TOPIC_SUFFIX = "-retry-";
+    public static final String DEAD_LETTER_TOPIC_SUFFIX = "-dlt";
+
+    private final List<Duration> delays;
+
+    /***************************************************************************
+     *                                                                         *
+     * Constructor                                                             *
+     *                                                                         *
+     **************************************************************************/
+
+    private RetryPolicy(List<Duration> delays){
+        if(delays.isEmpty()) throw new IllegalArgumentException("At least one retry tier is required!");
+        for(var delay : delays){
+            if(delay == null || delay.isNegative()) throw new IllegalArgumentException("Retry delays must not be null or negative, but was " + delay);
+        }
+        this.delays = Collections.unmodifiableList(new ArrayList<>(delays));
+    }
+
+    /***************************************************************************
+     *                                                                         *
+     * Properties                                                              *
+     *                                                                         *
+     **************************************************************************/
+
+    /**
+     * The delays of the retry tiers.
+     */
+    public List<Duration> getDelays() {
+        return delays;
+    }
+
+    /**
+     * The number of retry tiers, which equals the max number of retry attempts.
+     */
+    public int getTiers(){
+        return delays.size();
+    }
+
+    /***************************************************************************
+     *                                                                         *
+     * Public API                                                              *
+     *                                                                         *
+     **************************************************************************/
+
+    /**
+     * Gets the delay of the given retry attempt.
+     * @param attempt The retry attempt, starting at 1.
+     */
+    public Duration delayOf(int attempt){
+        return delays.get(tierIndex(attempt));
+    }
+
+    /**
+     * Gets the retry topic of the given attempt.
+     * @param originalTopic The main topic where the record originated.
+     * @param attempt The retry attempt, starting at 1.
+     */
+    public String retryTopic(String originalTopic, int attempt){
+        return originalTopic + RETRY_TOPIC_SUFFIX + (tierIndex(attempt) + 1);
+    }
+
+    /**
+     * Gets all retry topics of the given main topics.
+     */
+    public List<String> retryTopics(Collection<String> originalTopics){
+        var topics = new ArrayList<String>(originalTopics.size() * getTiers());
+        for(var topic : originalTopics){
+            for(int attempt = 1; attempt <= getTiers(); attempt++){
+                topics.add(retryTopic(topic, attempt));
+            }
+        }
+        return topics;
+    }
+
+    /**
+     * Gets the dead letter topic, where records end up once all retries have failed.
+     * @param originalTopic The main topic where the record originated.
+     */
+    public String deadLetterTopic(String originalTopic){
+        return originalTopic + DEAD_LETTER_TOPIC_SUFFIX;
+    }
+
+    @Override
+    public String toString() {
+        return "RetryPolicy{" +
+                "delays=" + delays +
+                '}';
+    }
+
+    /***************************************************************************
+     *                                                                         *
+     * Private methods                                                         *
+     *                                                                         *
+     **************************************************************************/
+
+    private int tierIndex(int attempt){
+        if(attempt < 1 || attempt > getTiers()) throw new IllegalArgumentException("attempt must be between 1 and " + getTiers() + ", but was " + attempt);
+        return attempt - 1;
+    }
+}
@@ -2,30 +2,130 @@ package com.elderbyte.kafka.consumer.processing.retry;
 
 import com.elderbyte.kafka.consumer.processing.ProcessingErrorHandler;
 import com.elderbyte.kafka.producer.KafkaMessage;
-import com.elderbyte.kafka.producer.KafkaProducerTx;
+import com.elderbyte.kafka.producer.KafkaProducer;
 import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.internals.RecordHeader;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
-import java.util.ArrayList;
-import java.util.Collection;
-import java.util.List;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
 
-public class ScheduleRetryErrorHandler<K,V>  implements ProcessingErrorHandler<K,V> {
+/**
+ * Schedules failed records for a later retry, by publishing them to the retry topic of their next attempt.
+ * Records which have used up all retry tiers are published to the dead letter topic.
+ *
+ * The raw key and value bytes are forwarded as they are, so the retry listener decodes them with the same
+ * deserializers as the main listener, whatever the serialisation format. This handler only returns true
+ * once all records have been acknowledged by the broker, hence the failed records can be safely skipped afterwards.
+ */
+public class ScheduleRetryErrorHandler implements ProcessingErrorHandler<byte[], byte[]> {
 
-    private final KafkaProducerTx<String, Object> producer;
+    /***************************************************************************
+     *                                                                         *
+     * Fields                                                                  *
+     *                                                                         *
+     **************************************************************************/
+
+    private static final Logger log = LoggerFactory.getLogger(ScheduleRetryErrorHandler.class);
+
+    private final KafkaProducer<byte[], byte[]> producer;
+    private final RetryPolicy policy;
+
+    /***************************************************************************
+     *                                                                         *
+     * Constructor                                                             *
+     *                                                                         *
+     **************************************************************************/
+
+    /**
+     * Creates a new ScheduleRetryErrorHandler
+     *
+     * @param producer The byte array producer used to publish to the retry and dead letter topics.
+     * @param policy The retry tiers.
+     */
+    public ScheduleRetryErrorHandler(KafkaProducer<byte[], byte[]> producer, RetryPolicy policy){
+        if(producer == null) throw new IllegalArgumentException("producer must not be null");
+        if(policy == null) throw new IllegalArgumentException("policy must not be null");
 
-    public ScheduleRetryErrorHandler(KafkaProducerTx<String, Object> producer){
         this.producer = producer;
+        this.policy = policy;
     }
 
+    /***************************************************************************
+     *                                                                         *
+     * Public API                                                              *
+     *                                                                         *
+     **************************************************************************/
+
     @Override
-    public boolean handleError(List<ConsumerRecord<K, V>> records) {
-        var wrapedRetryMessages = warpMessages(records);
-        producer.sendAllTransactionally("retry-topic", wrapedRetryMessages);
+    public boolean handleError(List<ConsumerRecord<byte[], byte[]>> records) {
+        var wrappedRetryMessages = wrapMessages(records, System.currentTimeMillis());
+
+        var pending = new ArrayList<CompletableFuture<?>>(wrappedRetryMessages.size());
+        wrappedRetryMessages.forEach((topic, messages) -> pending.add(producer.sendBulk(topic, messages, false, false)));
+
+        // Only return once the retries are safely stored, since the records are skipped afterwards
+        CompletableFuture.allOf(pending.toArray(new CompletableFuture<?>[0])).join();
         return true;
     }
 
-    private Collection<KafkaMessage<String, Object>> warpMessages(List<ConsumerRecord<K, V>> records){
-        return new ArrayList<>(); // TODO not yet implemented
+    /***************************************************************************
+     *                                                                         *
+     * Private methods                                                         *
+     *                                                                         *
+     **************************************************************************/
+
+    /**
+     * Wraps the given records into messages, grouped by their target topic.
+     */
+    Map<String, List<KafkaMessage<byte[], byte[]>>> wrapMessages(List<ConsumerRecord<byte[], byte[]>> records, long now){
+        var messagesByTopic = new LinkedHashMap<String, List<KafkaMessage<byte[], byte[]>>>();
+
+        for(var record : records){
+            var originalTopic = RetryHeaders.originalTopic(record);
+            var attempt = RetryHeaders.attempt(record) + 1;
+            var headers = forwardedHeaders(record);
+
+            headers.add(retryHeader(RetryHeaders.ORIGINAL_TOPIC, originalTopic));
+            headers.add(retryHeader(RetryHeaders.ORIGINAL_PARTITION, String.valueOf(RetryHeaders.originalPartition(record))));
+            headers.add(retryHeader(RetryHeaders.ORIGINAL_OFFSET, String.valueOf(RetryHeaders.originalOffset(record))));
+            headers.add(retryHeader(RetryHeaders.ATTEMPT, String.valueOf(attempt)));
+
+            String targetTopic;
+            if(attempt <= policy.getTiers()){
+                targetTopic = policy.retryTopic(originalTopic, attempt);
+                headers.add(retryHeader(RetryHeaders.DUE_AT, String.valueOf(now + policy.delayOf(attempt).toMillis())));
+            }else{
+                targetTopic = policy.deadLetterTopic(originalTopic);
+                log.warn("Record " + originalTopic + "-" + RetryHeaders.originalPartition(record) + "@" + RetryHeaders.originalOffset(record)
+                        + " has failed " + policy.getTiers() + " retries, moving it to the dead letter topic " + targetTopic);
+            }
+
+            messagesByTopic.computeIfAbsent(targetTopic, t -> new ArrayList<>())
+                    .add(KafkaMessage.forward(record.key(), record.value(), headers));
+        }
+        return messagesByTopic;
+    }
+
+    /**
+     * Keep the user headers of the record byte for byte and in order, including repeated keys,
+     * but drop the retry headers of a previous attempt.
+     */
+    private List<Header> forwardedHeaders(ConsumerRecord<byte[], byte[]> record){
+        var headers = new ArrayList<Header>();
+        for(var header : record.headers()){
+            if(!RetryHeaders.isRetryHeader(header.key())){
+                headers.add(header);
+            }
+        }
+        return headers;
+    }
+
+    private Header retryHeader(String key, String value){
+        return new RecordHeader(key, value.getBytes(StandardCharsets.UTF_8));
     }
 
 }
@@ -0,0 +1,318 @@
+package com.elderbyte.kafka.messages;
+
+import com.elderbyte.messaging.MessageKeyUtil;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Encodes message-key fields straight to UTF-8 bytes, and decodes them straight from the bytes,
+ * without building the intermediate strings and lists of {@link MessageKeyUtil}.
+ *
+ * The wire format stays the one of {@link MessageKeyUtil}: Its delimiter is probed once, and
+ * whenever a value contains the delimiter (or a backslash, if {@link MessageKeyUtil} escapes it),
+ * the codec declines and the caller falls back to {@link MessageKeyUtil}.
+ */
+final class CompositeKeyCodec {
+
+    /***************************************************************************
+     *                                                                         *
+     * Fields                                                                  *
+     *                                                                         *
+     **************************************************************************/
+
+    private static final char ESCAPE = '\\';
+    private static final int MAX_LONG_DIGITS = 18;
+    private static final int MAX_INT_DIGITS = 9;
+    private static final int INITIAL_BUFFER_SIZE = 64;
+
+    /**
+     * The delimiter of composite keys, or 0 if the format of MessageKeyUtil is not supported.
+     */
+    private static final char DELIMITER = probeDelimiter();
+
+    /**
+     * True if MessageKeyUtil transforms values with a backslash, so the codec declines them too.
+     */
+    private static final boolean ESCAPES_BACKSLASH = DELIMITER != 0 && !isJoinedAsIs("a" + ESCAPE + "a");
+
+    private static final ThreadLocal<byte[]> buffers = ThreadLocal.withInitial(() -> new byte[INITIAL_BUFFER_SIZE]);
+
+    private final List<MessageKeyField> keyFields;
+
+    /***************************************************************************
+     *                                                                         *
+     * Constructor                                                             *
+     *                                                                         *
+     **************************************************************************/
+
+    CompositeKeyCodec(List<MessageKeyField> keyFields){
+        if(keyFields == null) throw new IllegalArgumentException("keyFields must not be null");
+        this.keyFields = keyFields;
+    }
+
+    /***************************************************************************
+     *                                                                         *
+     * Public API                                                              *
+     *                                                                         *
+     **************************************************************************/
+
+    /**
+     * Encodes the key fields of the given message.
+     *
+     * @return Returns the encoded key, or null if the key must be encoded by {@link MessageKeyUtil}.
+     */
+    public byte[] encode(Object message){
+        if(isComposite() && DELIMITER == 0){
+            return null;
+        }
+
+        var buffer = buffers.get();
+        int pos = 0;
+
+        for(int i = 0; i < keyFields.size(); i++){
+            var accessor = keyFields.get(i).getAccessor();
+            var value = accessor.get(message);
+            if(value == null){
+                accessor.getRequiredAsString(message); // Fails with the usual error
+            }
+
+            if(i > 0){
+                buffer = ensureCapacity(buffer, pos + 1);
+                buffer[pos++] = (byte) DELIMITER;
+            }
+
+            if(value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte){
+                var number = ((Number)value).longValue();
+                if(number != Long.MIN_VALUE){
+                    buffer = ensureCapacity(buffer, pos + 20);
+                    pos = writeDecimal(buffer, pos, number);
+                    continue;
+                }
+            }
+
+            var str = value.toString();
+            buffer = ensureCapacity(buffer, pos + str.length() * 3);
+            pos = writeUtf8(buffer, pos, str, isComposite());
+            if(pos < 0){
+                return null; // Would need escaping
+            }
+        }
+
+        buffers.set(buffer);
+        return Arrays.copyOf(buffer, pos);
+    }
+
+    /**
+     * Decodes the given key and writes the key fields to the given message.
+     *
+     * @return Returns false if nothing was written, since the key must be decoded by {@link MessageKeyUtil}.
+     */
+    public boolean decodeTo(byte[] data, Object message){
+        if(data == null){
+            return false;
+        }
+
+        if(!isComposite()){
+            var field = keyFields.get(0);
+            if(field.isPopulateField()){
+                writeField(field, data, 0, data.length, message);
+            }
+            return true;
+        }
+
+        if(DELIMITER == 0 || countSegments(data) != keyFields.size()){
+            return false;
+        }
+
+        int start = 0;
+        int index = 0;
+        for(int i = 0; i <= data.length; i++){
+            if(i == data.length || data[i] == DELIMITER){
+                var field = keyFields.get(index++);
+                if(field.isPopulateField()){
+                    writeField(field, data, start, i, message);
+                }
+                start = i + 1;
+            }
+        }
+        return true;
+    }
+
+    /***************************************************************************
+     *                                                                         *
+     * Private methods                                                         *
+     *                                                                         *
+     **************************************************************************/
+
+    private boolean isComposite(){
+        return keyFields.size() > 1;
+    }
+
+    /**
+     * Counts the delimited segments, or returns -1 if the key contains escapes or empty segments.
+     * How empty segments are parsed is up to MessageKeyUtil, i.e. a split drops the trailing ones.
+     */
+    private static int countSegments(byte[] data){
+        int segments = 1;
+        int segmentStart = 0;
+        for (int i = 0; i < data.length; i++) {
+            byte b = data[i];
+            if (b == ESCAPE && ESCAPES_BACKSLASH) {
+                return -1;
+            } else if (b == DELIMITER) {
+                if (i == segmentStart) {
+                    return -1;
+                }
+                segments++;
+                segmentStart = i + 1;
+            }
+        }
+        return segmentStart == data.length ? -1 : segments;
+    }
+
+    private static void writeField(MessageKeyField field, byte[] data, int from, int to, Object message){
+        var accessor = field.getAccessor();
+        var type = accessor.getType();
+
+        if(type == long.class || type == Long.class){
+            if(isDecimal(data, from, to, MAX_LONG_DIGITS)){
+                accessor.set(message, parseDecimal(data, from, to));
+                return;
+            }
+        }else if(type == int.class || type == Integer.class){
+            if(isDecimal(data, from, to, MAX_INT_DIGITS)){
+                accessor.set(message, (int) parseDecimal(data, from, to));
+                return;
+            }
+        }
+        accessor.setString(message, new String(data, from, to - from, StandardCharsets.UTF_8));
+    }
+
+    private static boolean isDecimal(byte[] data, int from, int to, int maxDigits){
+        if(from < to && data[from] == '-'){
+            from++;
+        }
+        int digits = to - from;
+        if(digits < 1 || digits > maxDigits){
+            return false;
+        }
+        for(int i = from; i < to; i++){
+            if(data[i] < '0' || data[i] > '9'){
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static long parseDecimal(byte[] data, int from, int to){
+        boolean negative = data[from] == '-';
+        long value = 0;
+        for(int i = negative ? from + 1 : from; i < to; i++){
+            value = value * 10 + (data[i] - '0');
+        }
+        return negative ? -value : value;
+    }
+
+    private static int writeDecimal(byte[] buffer, int pos, long value){
+        if(value < 0){
+            buffer[pos++] = '-';
+            value = -value;
+        }
+        int end = pos;
+        long rest = value;
+        do {
+            end++;
+        } while ((rest /= 10) != 0);
+        for(int i = end - 1; i >= pos; i--){
+            buffer[i] = (byte) ('0' + (value % 10));
+            value /= 10;
+        }
+        return end;
+    }
+
+    /**
+     * Writes the string as UTF-8, or returns -1 if a composite key value would need escaping.
+     */
+    private static int writeUtf8(byte[] buffer, int pos, String str, boolean composite){
+        for(int i = 0; i < str.length(); i++){
+            char c = str.charAt(i);
+            if(c < 0x80){
+                if(composite && (c == DELIMITER || (c == ESCAPE && ESCAPES_BACKSLASH))){
+                    return -1;
+                }
+                buffer[pos++] = (byte) c;
+            }else if(c < 0x800){
+                buffer[pos++] = (byte) (0xC0 | (c >> 6));
+                buffer[pos++] = (byte) (0x80 | (c & 0x3F));
+            }else if(Character.isHighSurrogate(c) && i + 1 < str.length() && Character.isLowSurrogate(str.charAt(i + 1))){
+                int cp = Character.toCodePoint(c, str.charAt(++i));
+                buffer[pos++] = (byte) (0xF0 | (cp >> 18));
+                buffer[pos++] = (byte) (0x80 | ((cp >> 12) & 0x3F));
+                buffer[pos++] = (byte) (0x80 | ((cp >> 6) & 0x3F));
+                buffer[pos++] = (byte) (0x80 | (cp & 0x3F));
+            }else if(Character.isSurrogate(c)){
+                buffer[pos++] = '?'; // Malformed, as String.getBytes does
+            }else{
+                buffer[pos++] = (byte) (0xE0 | (c >> 12));
+                buffer[pos++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                buffer[pos++] = (byte) (0x80 | (c & 0x3F));
+            }
+        }
+        return pos;
+    }
+
+    private static byte[] ensureCapacity(byte[] buffer, int required){
+        if(buffer.length >= required){
+            return buffer;
+        }
+        return Arrays.copyOf(buffer, Math.max(required, buffer.length * 2));
+    }
+
+    /**
+     * Derives the delimiter used by MessageKeyUtil. Returns 0 if its format is not a plain
+     * single character join, in which case all composite keys go through MessageKeyUtil.
+     *
+     * The codec writes all characters but the delimiter as they are, hence only values
+     * without the delimiter must be joined as they are. Whether and how MessageKeyUtil
+     * handles the delimiter within a value doesn't matter, the codec falls back for them.
+     */
+    private static char probeDelimiter(){
+        try {
+            var joined = MessageKeyUtil.compositeKey("a", "b");
+            if(joined.length() != 3 || joined.charAt(0) != 'a' || joined.charAt(2) != 'b'){
+                return 0;
+            }
+            char delimiter = joined.charAt(1);
+            if(delimiter == 0 || delimiter >= 0x80 || delimiter == ESCAPE || Character.isLetterOrDigit(delimiter) || delimiter == '-'){
+                return 0;
+            }
+            if(!Arrays.asList("a", "b").equals(MessageKeyUtil.parseCompositeKey(joined))){
+                return 0;
+            }
+
+            // All other punctuation must be joined as it is
+            var punctuation = new StringBuilder();
+            for(char c = 0x21; c < 0x7F; c++){
+                if(!Character.isLetterOrDigit(c) && c != delimiter && c != ESCAPE){
+                    punctuation.append(c);
+                }
+            }
+            if(!MessageKeyUtil.compositeKey(punctuation.toString(), "b").equals(punctuation.toString() + delimiter + "b")){
+                return 0;
+            }
+            return delimiter;
+        }catch (Exception e){
+            return 0;
+        }
+    }
+
+    private static boolean isJoinedAsIs(String value){
+        try {
+            return MessageKeyUtil.compositeKey(value, "b").equals(value + DELIMITER + "b");
+        }catch (Exception e){
+            return false;
+        }
+    }
+}
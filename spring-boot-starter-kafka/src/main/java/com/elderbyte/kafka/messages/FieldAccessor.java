@@ -0,0 +1,215 @@
+package com.elderbyte.kafka.messages;
+
+import com.elderbyte.commons.utils.NumberUtil;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * Reads and writes a message field. Reflectively discovered fields are accessed through method handles,
+ * which are resolved once when the blueprint is built. Generated blueprints access their fields through plain lambdas.
+ *
+ * Unlike {@link Field#get(Object)}, both skip the access checks on every call and can be inlined by the JIT.
+ */
+abstract class FieldAccessor {
+
+    /***************************************************************************
+     *                                                                         *
+     * Static Builder                                                          *
+     *                                                                         *
+     **************************************************************************/
+
+    private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+    private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+    static FieldAccessor of(Field field){
+        try {
+            field.trySetAccessible();
+            var lookup = MethodHandles.lookup();
+            var getter = lookup.unreflectGetter(field).asType(GETTER_TYPE);
+            var setter = Modifier.isFinal(field.getModifiers()) ? null : lookup.unreflectSetter(field).asType(SETTER_TYPE);
+            return new HandleFieldAccessor(field, getter, setter);
+        } catch (IllegalAccessException e) {
+            throw new InvalidMessageException("Failed to access field: " + field.getName(), e);
+        }
+    }
+
+    /**
+     * Creates an accessor from the given functions, as used by generated blueprints.
+     *
+     * @param setter The setter, or null if the field is final.
+     */
+    @SuppressWarnings("unchecked")
+    static <M> FieldAccessor of(String name, Class<?> type, Function<M, Object> getter, BiConsumer<M, Object> setter){
+        if(name == null) throw new IllegalArgumentException("name must not be null");
+        if(type == null) throw new IllegalArgumentException("type must not be null");
+        if(getter == null) throw new IllegalArgumentException("getter must not be null");
+        return new FunctionFieldAccessor(name, type, (Function<Object, Object>) getter, (BiConsumer<Object, Object>) setter);
+    }
+
+    /***************************************************************************
+     *                                                                         *
+     * Fields                                                                  *
+     *                                                                         *
+     **************************************************************************/
+
+    private final String name;
+    private final Class<?> type;
+
+    /***************************************************************************
+     *                                                                         *
+     * Constructor                                                             *
+     *                                                                         *
+     **************************************************************************/
+
+    private FieldAccessor(String name, Class<?> type){
+        this.name = name;
+        this.type = type;
+    }
+
+    /***************************************************************************
+     *                                                                         *
+     * Properties                                                              *
+     *                                                                         *
+     **************************************************************************/
+
+    /**
+     * The reflected field, or null if the field is accessed by a generated blueprint.
+     */
+    public abstract Field getField();
+
+    public String getName() {
+        return name;
+    }
+
+    public Class<?> getType() {
+        return type;
+    }
+
+    /***************************************************************************
+     *                                                                         *
+     * Public API                                                              *
+     *                                                                         *
+     **************************************************************************/
+
+    public abstract Object get(Object message);
+
+    public abstract void set(Object message, Object value);
+
+    public String getAsString(Object message){
+        var value = get(message);
+        return value != null ? value.toString() : null;
+    }
+
+    public String getRequiredAsString(Object message){
+        var value = getAsString(message);
+        if(value == null){
+            throw new InvalidMessageException("The field " + name + " of the message must not be null!");
+        }
+        return value;
+    }
+
+    /**
+     * Writes the given string to a string or numeric field.
+     */
+    @SuppressWarnings("unchecked")
+    public void setString(Object message, String value){
+        if(type == String.class){
+            set(message, value);
+        }else if(NumberUtil.isNumeric(type)) {
+            set(message, NumberUtil.parseNumber(value, (Class<Number>) type));
+        }else{
+            throw new InvalidMessageException("Field " +
+                    " " + name + " was of unsupported type " + type + " ! ");
+        }
+    }
+
+    /***************************************************************************
+     *                                                                         *
+     * Inner classes                                                           *
+     *                                                                         *
+     **************************************************************************/
+
+    private static final class HandleFieldAccessor extends FieldAccessor {
+
+        private final Field field;
+        private final MethodHandle getter;
+        private final MethodHandle setter;
+
+        HandleFieldAccessor(Field field, MethodHandle getter, MethodHandle setter){
+            super(field.getName(), field.getType());
+            this.field = field;
+            this.getter = getter;
+            this.setter = setter;
+        }
+
+        @Override
+        public Field getField() {
+            return field;
+        }
+
+        @Override
+        public Object get(Object message){
+            try {
+                return (Object) getter.invokeExact(message);
+            } catch (Throwable e) {
+                throw new InvalidMessageException("Failed to access value of field: " + getName(), e);
+            }
+        }
+
+        @Override
+        public void set(Object message, Object value){
+            if(setter == null){
+                throw new InvalidMessageException("Failed to write value of final field: " + getName());
+            }
+            try {
+                setter.invokeExact(message, value);
+            } catch (Throwable e) {
+                throw new InvalidMessageException("Failed to write value of field: " + getName(), e);
+            }
+        }
+    }
+
+    private static final class FunctionFieldAccessor extends FieldAccessor {
+
+        private final Function<Object, Object> getter;
+        private final BiConsumer<Object, Object> setter;
+
+        FunctionFieldAccessor(String name, Class<?> type, Function<Object, Object> getter, BiConsumer<Object, Object> setter){
+            super(name, type);
+            this.getter = getter;
+            this.setter = setter;
+        }
+
+        @Override
+        public Field getField() {
+            return null;
+        }
+
+        @Override
+        public Object get(Object message){
+            try {
+                return getter.apply(message);
+            } catch (RuntimeException e) {
+                throw new InvalidMessageException("Failed to access value of field: " + getName(), e);
+            }
+        }
+
+        @Override
+        public void set(Object message, Object value){
+            if(setter == null){
+                throw new InvalidMessageException("Failed to write value of final field: " + getName());
+            }
+            try {
+                setter.accept(message, value);
+            } catch (RuntimeException e) {
+                throw new InvalidMessageException("Failed to write value of field: " + getName(), e);
+            }
+        }
+    }
+}
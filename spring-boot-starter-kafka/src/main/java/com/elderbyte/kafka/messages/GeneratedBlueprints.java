@@ -0,0 +1,89 @@
+package com.elderbyte.kafka.messages;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.*;
+
+/**
+ * Looks up the blueprints generated at compile time, see {@link MessageBlueprintProvider}.
+ */
+final class GeneratedBlueprints {
+
+    /***************************************************************************
+     *                                                                         *
+     * Fields                                                                  *
+     *                                                                         *
+     **************************************************************************/
+
+    private static final Logger log = LoggerFactory.getLogger(GeneratedBlueprints.class);
+
+    /***************************************************************************
+     *                                                                         *
+     * Constructor                                                             *
+     *                                                                         *
+     **************************************************************************/
+
+    private GeneratedBlueprints() { }
+
+    /***************************************************************************
+     *                                                                         *
+     * Public API                                                              *
+     *                                                                         *
+     **************************************************************************/
+
+    /**
+     * Returns the generated message blueprint of the given class, or null if none has been generated.
+     */
+    @SuppressWarnings("unchecked")
+    static <K, M> MessageBlueprint<K, M> messageBlueprintOf(Class<M> messageClazz){
+        var provider = Providers.BY_TYPE.get(messageClazz);
+        return provider != null ? (MessageBlueprint<K, M>) provider.messageBlueprint() : null;
+    }
+
+    /**
+     * Returns the generated message-key blueprint of the given class, or null if none has been generated.
+     */
+    @SuppressWarnings("unchecked")
+    static <K> MessageKeyBlueprint<K> keyBlueprintOf(Class<K> keyClazz){
+        var provider = Providers.BY_TYPE.get(keyClazz);
+        return provider != null ? (MessageKeyBlueprint<K>) provider.keyBlueprint() : null;
+    }
+
+    /***************************************************************************
+     *                                                                         *
+     * Private methods                                                         *
+     *                                                                         *
+     **************************************************************************/
+
+    private static Map<Class<?>, MessageBlueprintProvider> loadProviders(){
+        var providers = new HashMap<Class<?>, MessageBlueprintProvider>();
+        var it = ServiceLoader.load(MessageBlueprintProvider.class).iterator();
+        while (true){
+            try {
+                if(!it.hasNext()){
+                    break;
+                }
+                var provider = it.next();
+                providers.put(provider.getType(), provider);
+            }catch (ServiceConfigurationError e){
+                // i.e. a stale provider of a removed class, fall back to reflection
+                log.warn("Skipping generated message blueprint provider, falling back to reflection.", e);
+            }
+        }
+        return Collections.unmodifiableMap(providers);
+    }
+
+    /***************************************************************************
+     *                                                                         *
+     * Inner classes                                                           *
+     *                                                                         *
+     **************************************************************************/
+
+    /**
+     * Loads the providers once, on first use.
+     */
+    private static final class Providers {
+        static final Map<Class<?>, MessageBlueprintProvider> BY_TYPE = loadProviders();
+    }
+}
@@ -0,0 +1,116 @@
+package com.elderbyte.kafka.messages;
+
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.Headers;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * Writes record headers to the header fields of a message, in a single pass over the headers.
+ *
+ * The header fields are indexed by header key once. Per record, the headers are walked once,
+ * the last value of each bound key is remembered, and only those values are decoded.
+ */
+class HeaderBinder {
+
+    /***************************************************************************
+     *                                                                         *
+     * Fields                                                                  *
+     *                                                                         *
+     **************************************************************************/
+
+    private static final Logger log = LoggerFactory.getLogger(HeaderBinder.class);
+
+    /**
+     * Header-Key : Index into stringFields
+     */
+    private final Map<String, Integer> stringFieldIndex = new HashMap<>();
+    private final MetadataField[] stringFields;
+
+    /**
+     * Fields which receive all headers as map
+     */
+    private final MetadataField[] mapFields;
+
+    /***************************************************************************
+     *                                                                         *
+     * Constructor                                                             *
+     *                                                                         *
+     **************************************************************************/
+
+    HeaderBinder(Collection<MetadataField> headerFields){
+        var strings = new ArrayList<MetadataField>();
+        var maps = new ArrayList<MetadataField>();
+
+        for(var field : headerFields){
+            if(!field.isPopulate()){
+                continue;
+            }
+            var targetType = field.getAccessor().getType();
+            if(Map.class.isAssignableFrom(targetType)) {
+                maps.add(field);
+            }else if(String.class.isAssignableFrom(targetType)){
+                stringFieldIndex.put(field.getMetadataKey(), strings.size());
+                strings.add(field);
+            }else{
+                log.warn("Skipping header field " + field.getMetadataKey() + ", since can not write field with type " + targetType + "!");
+            }
+        }
+
+        this.stringFields = strings.toArray(new MetadataField[0]);
+        this.mapFields = maps.toArray(new MetadataField[0]);
+    }
+
+    /***************************************************************************
+     *                                                                         *
+     * Public API                                                              *
+     *                                                                         *
+     **************************************************************************/
+
+    public void bind(Object message, Headers headers){
+
+        if(stringFields.length == 0 && mapFields.length == 0){
+            return;
+        }
+
+        var lastValues = stringFields.length > 0 ? new byte[stringFields.length][] : null;
+        var headerMap = mapFields.length > 0 ? new HashMap<String, String>() : null;
+
+        for(Header header : headers){
+            if(headerMap != null){
+                headerMap.put(header.key(), decode(header.value()));
+            }
+            if(lastValues != null){
+                var index = stringFieldIndex.get(header.key());
+                if(index != null){
+                    lastValues[index] = header.value(); // The last header wins
+                }
+            }
+        }
+
+        if(lastValues != null){
+            for(int i = 0; i < lastValues.length; i++){
+                if(lastValues[i] != null){
+                    stringFields[i].getAccessor().setString(message, decode(lastValues[i]));
+                }
+            }
+        }
+
+        for(int i = 0; i < mapFields.length; i++){
+            mapFields[i].getAccessor().set(message, i == 0 ? headerMap : new HashMap<>(headerMap));
+        }
+    }
+
+    /***************************************************************************
+     *                                                                         *
+     * Private methods                                                         *
+     *                                                                         *
+     **************************************************************************/
+
+    private static String decode(byte[] value){
+        return value != null ? new String(value, StandardCharsets.UTF_8) : null;
+    }
+}
@@ -6,6 +6,7 @@ import com.elderbyte.kafka.records.RecordBatch;
 import org.apache.kafka.clients.consumer.ConsumerRecord;
 
 import java.util.*;
+import java.util.concurrent.ExecutorService;
 
 import static java.util.stream.Collectors.toList;
 
@@ -54,6 +55,19 @@ public class MessageBatch<K, M, MT> {
         this.tombstoneClazz = tombstoneClazz;
     }
 
+    /***************************************************************************
+     *                                                                         *
+     * Properties                                                              *
+     *                                                                         *
+     **************************************************************************/
+
+    /**
+     * Returns the tombstone messages of all deletions in this batch, built in one pass.
+     */
+    public List<MT> getTombstones(){
+        return tombstones(batch.getDeletions());
+    }
+
     /***************************************************************************
      *                                                                         *
      * Public API                                                              *
@@ -76,7 +90,28 @@ public class MessageBatch<K, M, MT> {
     ){
         batch.compactedUpdateOrDelete(
                 updated -> updatedProcessor.proccess(updated.stream().map(this::message).collect(toList())),
-                deleted -> deletedProcessor.proccess(deleted.stream().map(this::deletedMessage).collect(toList()))
+                deleted -> deletedProcessor.proccess(tombstones(deleted))
+        );
+    }
+
+
+    /**
+     * Like {@link #compactedUpdateOrDelete(Processor, Processor)}, but converts and processes the deletions
+     * and chunks of updates concurrently. If any of them fails, the whole batch fails.
+     *
+     * @see RecordBatch#compactedUpdateOrDelete(Processor, Processor, ExecutorService, int)
+     */
+    public void compactedUpdateOrDelete(
+            Processor<List<M>> updatedProcessor,
+            Processor<List<MT>> deletedProcessor,
+            ExecutorService executor,
+            int chunkSize
+    ){
+        batch.compactedUpdateOrDelete(
+                updated -> updatedProcessor.proccess(updated.stream().map(this::message).collect(toList())),
+                deleted -> deletedProcessor.proccess(tombstones(deleted)),
+                executor,
+                chunkSize
         );
     }
 
@@ -95,7 +130,7 @@ public class MessageBatch<K, M, MT> {
                                      Processor<List<MT>> deletedProcessor){
         batch.linearUpdateOrDelete(
                 updated -> updatedProcessor.proccess(updated.stream().map(this::message).collect(toList())),
-                deleted -> deletedProcessor.proccess(deleted.stream().map(this::deletedMessage).collect(toList()))
+                deleted -> deletedProcessor.proccess(tombstones(deleted))
         );
     }
 
@@ -113,8 +148,8 @@ public class MessageBatch<K, M, MT> {
      *                                                                         *
      **************************************************************************/
 
-    private MT deletedMessage(ConsumerRecord<K, M> record){
-        return MessageAnnotationProcessor.buildMessageTombstone(record, tombstoneClazz);
+    private List<MT> tombstones(List<ConsumerRecord<K, M>> deleted){
+        return MessageAnnotationProcessor.buildMessageTombstones(deleted, tombstoneClazz);
     }
 
     private M message(ConsumerRecord<K, M> record){
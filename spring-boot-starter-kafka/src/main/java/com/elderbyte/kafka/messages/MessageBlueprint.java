@@ -1,16 +1,17 @@
 package com.elderbyte.kafka.messages;
 
 import com.elderbyte.commons.exceptions.ArgumentNullException;
+import com.elderbyte.kafka.producer.MessageHeaders;
 import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.apache.kafka.common.header.Headers;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.lang.reflect.Field;
-import java.nio.charset.StandardCharsets;
 import java.util.*;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
-import static com.elderbyte.kafka.messages.ReflectionSupport.setFieldString;
 import static java.util.stream.Collectors.toMap;
 
 public class MessageBlueprint<K, M> {
@@ -25,6 +26,14 @@ public class MessageBlueprint<K, M> {
         return MessageBlueprintFactory.lookupOrCreate(messageClazz);
     }
 
+    /**
+     * Builds a blueprint without reflection, as used by generated blueprints.
+     */
+    public static <M> Builder<M> builder(Class<M> messageClazz){
+        if(messageClazz == null) throw new ArgumentNullException("messageClazz");
+        return new Builder<>(messageClazz);
+    }
+
     /***************************************************************************
      *                                                                         *
      * Fields                                                                  *
@@ -33,14 +42,27 @@ public class MessageBlueprint<K, M> {
 
     private final Logger logger = LoggerFactory.getLogger(getClass());
 
+    private final Class<M> messageClazz;
     private final boolean tombstone;
     private final MessageKeyField keyField;
 
+    /**
+     * Creates empty messages, resolved on first use since only tombstones need it
+     */
+    private volatile Supplier<M> messageFactory;
+
     /**
      * Header-Key : Field
      */
     private final Map<String, MetadataField> headerFields;
 
+    /**
+     * The header fields written to the headers, in the order of the header layout
+     */
+    private final MetadataField[] writtenHeaderFields;
+    private final MessageHeaders.Layout headerLayout;
+    private final HeaderBinder headerBinder;
+
 
     /***************************************************************************
      *                                                                         *
@@ -49,18 +71,33 @@ public class MessageBlueprint<K, M> {
      **************************************************************************/
 
     MessageBlueprint(
+            Class<M> messageClazz,
             boolean tomstone,
             MessageKeyField keyField,
-            Collection<MetadataField> headerFields
+            Collection<MetadataField> headerFields,
+            Supplier<M> messageFactory
     ) {
 
+        if(messageClazz == null) throw new ArgumentNullException("messageClazz");
         if(keyField == null) throw new ArgumentNullException("keyField");
         if(headerFields == null) throw new ArgumentNullException("metadataFields");
 
+        this.messageClazz = messageClazz;
+        this.messageFactory = messageFactory;
         this.tombstone = tomstone;
         this.keyField = keyField;
         this.headerFields = headerFields.stream()
                 .collect(toMap(MetadataField::getMetadataKey, mf -> mf));
+
+        this.writtenHeaderFields = this.headerFields.values().stream()
+                .filter(MetadataField::isWriteToMetadata)
+                .toArray(MetadataField[]::new);
+        this.headerLayout = MessageHeaders.layout(
+                Arrays.stream(writtenHeaderFields)
+                        .map(MetadataField::getMetadataKey)
+                        .toArray(String[]::new)
+        );
+        this.headerBinder = new HeaderBinder(this.headerFields.values());
     }
 
 
@@ -82,34 +119,43 @@ public class MessageBlueprint<K, M> {
      **************************************************************************/
 
 
+    /**
+     * Creates a new, empty message with the no args constructor of the message class.
+     * The constructor is looked up only once per blueprint.
+     */
+    public M newMessage() {
+        var factory = messageFactory;
+        if(factory == null){
+            factory = ReflectionSupport.instantiator(messageClazz);
+            messageFactory = factory; // Racing threads resolve equal factories
+        }
+        return factory.get();
+    }
+
     public K getKey(M message) {
-        var value = ReflectionSupport.getField(keyField.getField(), message);
+        var value = keyField.getAccessor().get(message);
         return (K)value;
     }
 
+    /**
+     * Returns the immutable headers of the given message. Header fields with a null value are omitted.
+     */
     public Map<String, String> getHeaders(M message) {
-        var headers = new HashMap<String, String>();
-        headerFields.values().forEach(
-                f -> {
-                    if(f.isWriteToMetadata()){
-                        var val = ReflectionSupport.getFieldAsString(f.getField(), message);
-                        if(val != null){
-                            headers.put(
-                                    f.getMetadataKey(),
-                                    val
-                            );
-                        }
-                    }
-                }
-        );
-        return headers;
+        if(writtenHeaderFields.length == 0){
+            return MessageHeaders.empty();
+        }
+        var values = new String[writtenHeaderFields.length];
+        for(int i = 0; i < writtenHeaderFields.length; i++){
+            values[i] = writtenHeaderFields[i].getAccessor().getAsString(message);
+        }
+        return headerLayout.headers(values);
     }
 
     public <RK, RV> M updateFromRecord(M message, ConsumerRecord<RK, RV> record) {
 
         if(record.key() != null && keyField.isPopulateField()){
             var key = record.key();
-            ReflectionSupport.setField(keyField.getField(), message, key);
+            keyField.getAccessor().set(message, key);
         }
 
         if(record.headers() != null){
@@ -126,50 +172,66 @@ public class MessageBlueprint<K, M> {
      **************************************************************************/
 
     private void updateHeadersFromRecord(M message, Headers headers){
-
         try {
-            headerFields.forEach((k, field) -> {
-                if(field.isPopulate()){
-
-                    var targetType = field.getField().getType();
-
-                    if(Map.class.isAssignableFrom(targetType)) {
-                        readAllHeadersToMap(headers, message, field.getField());
-                    }else if(String.class.isAssignableFrom(targetType)){
-                        // Assume standard field
-                        var header = headers.lastHeader(k);
-                        if(header != null){
-                            setStringFieldBytes(field.getField(), message, header.value());
-                        }
-                    }else{
-                        logger.warn("Skipping header field, since can not write field with type " + targetType + "!");
-                    }
-                }
-            });
+            headerBinder.bind(message, headers);
         }catch (Exception e){
             logger.error("Failed to update headers in message from record!", e);
         }
     }
 
-    private void readAllHeadersToMap(Headers headers, Object message, Field mapField){
+    /***************************************************************************
+     *                                                                         *
+     * Inner classes                                                           *
+     *                                                                         *
+     **************************************************************************/
+
+    public static final class Builder<M> {
 
-        var headerMap = new HashMap<String, String>();
+        private final Class<M> messageClazz;
+        private boolean tombstone = false;
+        private MessageKeyField keyField;
+        private final List<MetadataField> headerFields = new ArrayList<>();
+        private Supplier<M> messageFactory;
 
-        if(headers != null){
-            headers.forEach(h -> {
-                headerMap.put(h.key(), new String(h.value(), StandardCharsets.UTF_8));
-            });
+        private Builder(Class<M> messageClazz){
+            this.messageClazz = messageClazz;
         }
 
-        try {
-            mapField.set(message, headerMap);
-        } catch (IllegalAccessException e) {
-            throw new InvalidMessageException("Failed to write value of header map field: "+mapField.getName(), e);
+        public Builder<M> tombstone(boolean tombstone){
+            this.tombstone = tombstone;
+            return this;
         }
-    }
 
-    private <V> void setStringFieldBytes(Field field, V message, byte[] headerValue){
-        setFieldString(field, message, new String(headerValue, StandardCharsets.UTF_8));
-    }
+        /**
+         * Sets the factory of empty messages. If not set, the no args constructor is used reflectively.
+         */
+        public Builder<M> factory(Supplier<M> messageFactory){
+            this.messageFactory = messageFactory;
+            return this;
+        }
+
+        /**
+         * Sets the @MessageKey field.
+         *
+         * @param setter The setter, or null if the field is final.
+         */
+        public Builder<M> key(String name, Class<?> type, boolean read, Function<M, Object> getter, BiConsumer<M, Object> setter){
+            this.keyField = new MessageKeyField(FieldAccessor.of(name, type, getter, setter), read);
+            return this;
+        }
 
+        /**
+         * Adds a header field.
+         *
+         * @param setter The setter, or null if the field is final.
+         */
+        public Builder<M> header(String name, String headerKey, Class<?> type, boolean write, boolean read, Function<M, Object> getter, BiConsumer<M, Object> setter){
+            this.headerFields.add(new MetadataField(FieldAccessor.of(name, type, getter, setter), headerKey, write, read));
+            return this;
+        }
+
+        public <K> MessageBlueprint<K, M> build(){
+            return new MessageBlueprint<>(messageClazz, tombstone, keyField, headerFields, messageFactory);
+        }
+    }
 }
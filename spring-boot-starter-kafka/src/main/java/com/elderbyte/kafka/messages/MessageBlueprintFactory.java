@@ -53,6 +53,11 @@ public class MessageBlueprintFactory {
 
     private static <K, M> MessageBlueprint<K,M> fromMessageClass(Class<M> messageClazz) throws InvalidMessageException {
 
+        MessageBlueprint<K,M> generated = GeneratedBlueprints.messageBlueprintOf(messageClazz);
+        if(generated != null){
+            return generated;
+        }
+
         var isTombstone = messageClazz.getAnnotation(Tombstone.class) != null;
 
         var metadataFields = new ArrayList<MetadataField>();
@@ -81,7 +86,7 @@ public class MessageBlueprintFactory {
             throw new InvalidMessageException("@MessageKey can only be used once on a message class but was used on: " + String.join(",", keyFields.keySet()));
         }
         MessageKeyField keyField = keyFields.values().iterator().next();
-        return new MessageBlueprint<>(isTombstone, keyField, metadataFields);
+        return new MessageBlueprint<>(messageClazz, isTombstone, keyField, metadataFields, null);
     }
 
 
@@ -0,0 +1,30 @@
+package com.elderbyte.kafka.messages;
+
+/**
+ * Provides the blueprints of a single message or message-key class, which have been generated at compile time.
+ *
+ * Providers are discovered through the {@link java.util.ServiceLoader}, and are preferred over
+ * reflectively scanning the annotations of the class. They are usually generated by the
+ * spring-boot-starter-kafka-processor annotation processor.
+ */
+public interface MessageBlueprintProvider {
+
+    /**
+     * The message or message-key class described by the blueprints.
+     */
+    Class<?> getType();
+
+    /**
+     * Builds the message blueprint, or returns null if the class is only used as a message-key.
+     */
+    default MessageBlueprint<?, ?> messageBlueprint(){
+        return null;
+    }
+
+    /**
+     * Builds the message-key blueprint, or returns null if the class can't be used as a message-key.
+     */
+    default MessageKeyBlueprint<?> keyBlueprint(){
+        return null;
+    }
+}
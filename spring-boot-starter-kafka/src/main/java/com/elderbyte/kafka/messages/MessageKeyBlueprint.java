@@ -6,8 +6,12 @@ import com.elderbyte.messaging.annotations.MessageCompositeKey;
 import com.elderbyte.messaging.annotations.MessageKey;
 
 import java.lang.reflect.Constructor;
+import java.nio.charset.StandardCharsets;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 import static java.util.stream.Collectors.toList;
 
@@ -45,6 +49,11 @@ public class MessageKeyBlueprint<K> {
 
     private static <K> MessageKeyBlueprint<K> build(Class<K> keyClazz){
 
+        var generated = GeneratedBlueprints.keyBlueprintOf(keyClazz);
+        if(generated != null){
+            return generated;
+        }
+
         var compositeKey = keyClazz.getAnnotation(MessageCompositeKey.class);
         var keyFields = new HashMap<String, MessageKeyField>();
 
@@ -95,7 +104,36 @@ public class MessageKeyBlueprint<K> {
             keyFieldSequence = Collections.singletonList(keyFields.values().iterator().next());
         }
 
-        return new MessageKeyBlueprint<>(keyClazz, keyFieldSequence);
+        return new MessageKeyBlueprint<>(keyClazz, keyFieldSequence, constructorOf(keyClazz));
+    }
+
+    private static <K> Supplier<K> constructorOf(Class<K> keyClazz){
+        Constructor<K> keyConstructor;
+        try {
+            keyConstructor = keyClazz.getDeclaredConstructor();
+            keyConstructor.setAccessible(true);
+        } catch (Exception e) {
+            throw new InvalidMessageException("Failed to locate no args constructor for message-key object "+keyClazz.getName(), e);
+        }
+        return () -> {
+            try {
+                return keyConstructor.newInstance();
+            } catch (Exception e) {
+                throw new InvalidMessageException("Failed to instantiate message-key object "+keyClazz.getName(), e);
+            }
+        };
+    }
+
+    /**
+     * Builds a blueprint without reflection, as used by generated blueprints.
+     *
+     * @param keyClazz The message-key class.
+     * @param keyFactory Creates empty message-key objects.
+     */
+    public static <K> Builder<K> builder(Class<K> keyClazz, Supplier<K> keyFactory){
+        if(keyClazz == null) throw new ArgumentNullException("keyClazz");
+        if(keyFactory == null) throw new ArgumentNullException("keyFactory");
+        return new Builder<>(keyClazz, keyFactory);
     }
 
     /***************************************************************************
@@ -106,7 +144,8 @@ public class MessageKeyBlueprint<K> {
 
     private final Class<K> keyClazz;
     private final List<MessageKeyField> keyFields;
-    private final Constructor<K> keyConstructor;
+    private final Supplier<K> keyFactory;
+    private final CompositeKeyCodec codec;
 
     /***************************************************************************
      *                                                                         *
@@ -116,19 +155,17 @@ public class MessageKeyBlueprint<K> {
 
     private MessageKeyBlueprint(
             Class<K> keyClazz,
-            List<MessageKeyField> keyFields
+            List<MessageKeyField> keyFields,
+            Supplier<K> keyFactory
     ){
         if(keyClazz == null) throw new ArgumentNullException("keyClazz");
         if(keyFields == null) throw new ArgumentNullException("keyFields");
+        if(keyFields.isEmpty()) throw new InvalidMessageException("The message-key " + keyClazz.getName() + " must have at least one key field!");
+        if(keyFactory == null) throw new ArgumentNullException("keyFactory");
         this.keyClazz = keyClazz;
         this.keyFields = keyFields;
-
-        try {
-            this.keyConstructor = keyClazz.getDeclaredConstructor();
-            this.keyConstructor.setAccessible(true);
-        } catch (Exception e) {
-            throw new InvalidMessageException("Failed to locate no args constructor for message-key object "+keyClazz.getName(), e);
-        }
+        this.codec = new CompositeKeyCodec(keyFields);
+        this.keyFactory = keyFactory;
     }
 
     /***************************************************************************
@@ -145,7 +182,7 @@ public class MessageKeyBlueprint<K> {
             var field = keyFields.get(0);
             if(field.isPopulateField()){
                 if(serializedKey != null){
-                    ReflectionSupport.setFieldString(field.getField(), message, serializedKey);
+                    field.getAccessor().setString(message, serializedKey);
                 }
             }
         }else{
@@ -154,7 +191,7 @@ public class MessageKeyBlueprint<K> {
                 var k = keyFields.get(i);
                 if(k.isPopulateField()){
                     var v = values.get(i);
-                    ReflectionSupport.setFieldString(k.getField(), message, v);
+                    k.getAccessor().setString(message, v);
                 }
             }
         }
@@ -165,27 +202,42 @@ public class MessageKeyBlueprint<K> {
         if(keyFields.size() > 1){
             value = MessageKeyUtil.compositeKey(
                     keyFields.stream()
-                            .map(kf -> ReflectionSupport.getRequiredFieldAsString(kf.getField(), message))
+                            .map(kf -> kf.getAccessor().getRequiredAsString(message))
                             .collect(toList())
             );
         }else{
             var keyField = keyFields.get(0);
-            value = ReflectionSupport.getRequiredFieldAsString(keyField.getField(), message);
+            value = keyField.getAccessor().getRequiredAsString(message);
         }
         return value;
     }
 
+    /**
+     * Serialize the key of the given message to UTF-8 bytes.
+     * Produces the same bytes as {@link #serializeKey(Object)}, but writes the fields directly to a reusable buffer.
+     */
+    public byte[] serializeKeyBytes(K message) {
+        var encoded = codec.encode(message);
+        return encoded != null ? encoded : serializeKey(message).getBytes(StandardCharsets.UTF_8);
+    }
+
     public K deserializeKey(String serializedStr) {
-        K newKey;
-        try {
-            newKey = keyConstructor.newInstance();
-        } catch (Exception e) {
-            throw new InvalidMessageException("Failed to instantiate message-key object "+keyClazz.getName()+" when deserializing key " + serializedStr, e);
-        }
+        var newKey = newKey(serializedStr);
         deserializeKeyTo(serializedStr, newKey);
         return newKey;
     }
 
+    /**
+     * Deserialize the given UTF-8 key bytes, parsing the fields directly from the bytes where possible.
+     */
+    public K deserializeKey(byte[] serialized) {
+        var newKey = newKey(serialized);
+        if(!codec.decodeTo(serialized, newKey)){
+            deserializeKeyTo(new String(serialized, StandardCharsets.UTF_8), newKey);
+        }
+        return newKey;
+    }
+
 
     /***************************************************************************
      *                                                                         *
@@ -193,4 +245,43 @@ public class MessageKeyBlueprint<K> {
      *                                                                         *
      **************************************************************************/
 
+    private K newKey(Object serialized){
+        try {
+            return keyFactory.get();
+        } catch (Exception e) {
+            throw new InvalidMessageException("Failed to instantiate message-key object "+keyClazz.getName()+" when deserializing key " + serialized, e);
+        }
+    }
+
+    /***************************************************************************
+     *                                                                         *
+     * Inner classes                                                           *
+     *                                                                         *
+     **************************************************************************/
+
+    public static final class Builder<K> {
+
+        private final Class<K> keyClazz;
+        private final Supplier<K> keyFactory;
+        private final List<MessageKeyField> keyFields = new ArrayList<>();
+
+        private Builder(Class<K> keyClazz, Supplier<K> keyFactory){
+            this.keyClazz = keyClazz;
+            this.keyFactory = keyFactory;
+        }
+
+        /**
+         * Adds a key field. Composite key fields must be added in the order of the composite key.
+         *
+         * @param setter The setter, or null if the field is final.
+         */
+        public Builder<K> key(String name, Class<?> type, boolean read, Function<K, Object> getter, BiConsumer<K, Object> setter){
+            keyFields.add(new MessageKeyField(FieldAccessor.of(name, type, getter, setter), read));
+            return this;
+        }
+
+        public MessageKeyBlueprint<K> build(){
+            return new MessageKeyBlueprint<>(keyClazz, new ArrayList<>(keyFields), keyFactory);
+        }
+    }
 }
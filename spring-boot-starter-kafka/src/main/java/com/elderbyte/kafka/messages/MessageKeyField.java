@@ -10,7 +10,7 @@ class MessageKeyField {
      *                                                                         *
      **************************************************************************/
 
-    private final Field field;
+    private final FieldAccessor accessor;
     private final boolean populateField;
 
     /***************************************************************************
@@ -20,7 +20,12 @@ class MessageKeyField {
      **************************************************************************/
 
     public MessageKeyField(Field field, boolean populateField) {
-        this.field = field;
+        this(FieldAccessor.of(field), populateField);
+    }
+
+    public MessageKeyField(FieldAccessor accessor, boolean populateField) {
+        if(accessor == null) throw new IllegalArgumentException("accessor must not be null");
+        this.accessor = accessor;
         this.populateField = populateField;
     }
 
@@ -31,7 +36,11 @@ class MessageKeyField {
      **************************************************************************/
 
     public Field getField() {
-        return field;
+        return accessor.getField();
+    }
+
+    public FieldAccessor getAccessor() {
+        return accessor;
     }
 
     public boolean isPopulateField() {
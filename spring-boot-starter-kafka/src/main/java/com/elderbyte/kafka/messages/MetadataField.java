@@ -35,24 +35,32 @@ class MetadataField {
         return new MetadataField(field, metadataKey, writeToMetadata, populate);
     }
 
-    private final Field field;
+    private final FieldAccessor accessor;
     private final String metadataKey;
     private final boolean writeToMetadata;
     private final boolean populate;
 
     public MetadataField(Field field, String metadataKey, boolean writeToMetadata, boolean populate) {
+        this(accessorOf(field), metadataKey, writeToMetadata, populate);
+    }
 
-        if(field == null) throw new ArgumentNullException("field");
+    public MetadataField(FieldAccessor accessor, String metadataKey, boolean writeToMetadata, boolean populate) {
+
+        if(accessor == null) throw new ArgumentNullException("accessor");
         if(!StringUtils.hasText(metadataKey)) throw new IllegalArgumentException("metadataKey must have text but was: '"+metadataKey+"'");
 
-        this.field = field;
+        this.accessor = accessor;
         this.metadataKey = metadataKey;
         this.writeToMetadata = writeToMetadata;
         this.populate = populate;
     }
 
     public Field getField() {
-        return field;
+        return accessor.getField();
+    }
+
+    public FieldAccessor getAccessor() {
+        return accessor;
     }
 
     public String getMetadataKey() {
@@ -66,4 +74,9 @@ class MetadataField {
     public boolean isPopulate() {
         return populate;
     }
+
+    private static FieldAccessor accessorOf(Field field){
+        if(field == null) throw new ArgumentNullException("field");
+        return FieldAccessor.of(field);
+    }
 }
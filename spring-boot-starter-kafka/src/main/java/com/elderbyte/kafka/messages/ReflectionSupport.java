@@ -2,7 +2,9 @@ package com.elderbyte.kafka.messages;
 
 import com.elderbyte.commons.utils.NumberUtil;
 
+import java.lang.reflect.Constructor;
 import java.lang.reflect.Field;
+import java.util.function.Supplier;
 
 public class ReflectionSupport {
 
@@ -13,13 +15,28 @@ public class ReflectionSupport {
      **************************************************************************/
 
     public static  <T> T createInstance(Class<T> clazz){
+        return instantiator(clazz).get();
+    }
+
+    /**
+     * Returns a factory which creates new instances of the given class with its no args constructor.
+     * The constructor is looked up and made accessible once, so the factory should be cached.
+     */
+    public static <T> Supplier<T> instantiator(Class<T> clazz){
+        Constructor<T> constructor;
         try {
-            var constructor = clazz.getDeclaredConstructor();
+            constructor = clazz.getDeclaredConstructor();
             constructor.setAccessible(true);
-            return constructor.newInstance();
         } catch (Exception e) {
             throw new InvalidMessageException("Failed to access constructor / create new instance of "+clazz.getName(), e);
         }
+        return () -> {
+            try {
+                return constructor.newInstance();
+            } catch (Exception e) {
+                throw new InvalidMessageException("Failed to access constructor / create new instance of "+clazz.getName(), e);
+            }
+        };
     }
 
 
@@ -15,4 +15,15 @@ public interface MetricsReporter {
     <K, V> void reportProcessingError(MetricsContext context, Collection<ConsumerRecord<K,V>> records, Exception e);
 
     <K, V> void reportProcessingError(MetricsContext context, Collection<ConsumerRecord<K,V>> records, Exception e, int errorLoopIteration);
+
+    /**
+     * Reports how long consumption has been paused because the sink was unhealthy.
+     * Invoked once the sink has recovered.
+     */
+    default void reportPausedTime(MetricsContext context, long pausedNano) { }
+
+    /**
+     * Reports how many records of a batch have been dropped by the raw record filter, before decoding.
+     */
+    default void reportFilteredRecords(MetricsContext context, int filteredCount) { }
 }
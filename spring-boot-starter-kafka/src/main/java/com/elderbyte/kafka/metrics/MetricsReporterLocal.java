@@ -39,6 +39,18 @@ public class MetricsReporterLocal implements MetricsReporter {
         log.warn(formatContextHeader(context) + ": Failed to process records: " + consumerRecords.toString() + ". Error Loop Iteration: " + errorLoopIteration, e);
     }
 
+    @Override
+    public void reportPausedTime(MetricsContext context, long pausedNano) {
+        var pausedMs = pausedNano / (1000 * 1000);
+        log.info(formatContextHeader(context) + ": Sink has recovered, consumption was paused for " + pausedMs + "ms.");
+    }
+
+    @Override
+    public void reportFilteredRecords(MetricsContext context, int filteredCount) {
+        if(log.isDebugEnabled()){
+            log.debug(formatContextHeader(context) + ": " + filteredCount + " records filtered before decoding.");
+        }
+    }
 
     /**
      * Format the context header
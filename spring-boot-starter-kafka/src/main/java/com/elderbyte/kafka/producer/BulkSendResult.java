@@ -0,0 +1,79 @@
+package com.elderbyte.kafka.producer;
+
+import org.apache.kafka.clients.producer.RecordMetadata;
+
+/**
+ * The result of a bulk send, which completes once the broker has acknowledged all records.
+ *
+ * Instead of a future per record, the per-record metadata is only kept if requested,
+ * in a plain array indexed by the position of the message in the sent collection.
+ */
+public final class BulkSendResult {
+
+    /***************************************************************************
+     *                                                                         *
+     * Fields                                                                  *
+     *                                                                         *
+     **************************************************************************/
+
+    private final int size;
+    private final RecordMetadata[] metadata;
+
+    /***************************************************************************
+     *                                                                         *
+     * Constructor                                                             *
+     *                                                                         *
+     **************************************************************************/
+
+    /**
+     * Creates a new BulkSendResult
+     *
+     * @param size The number of sent records.
+     * @param metadata The metadata of each record, or null if not kept.
+     */
+    public BulkSendResult(int size, RecordMetadata[] metadata){
+        if(metadata != null && metadata.length != size){
+            throw new IllegalArgumentException("Expected metadata of " + size + " records, but was " + metadata.length);
+        }
+        this.size = size;
+        this.metadata = metadata;
+    }
+
+    /***************************************************************************
+     *                                                                         *
+     * Properties                                                              *
+     *                                                                         *
+     **************************************************************************/
+
+    /**
+     * The number of sent records.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns true if the per-record metadata has been kept.
+     */
+    public boolean hasMetadata() {
+        return metadata != null;
+    }
+
+    /**
+     * Returns the metadata of the record at the given position.
+     * @param index The position of the message in the sent collection.
+     */
+    public RecordMetadata getMetadata(int index) {
+        if(metadata == null) throw new IllegalStateException("The per-record metadata has not been kept for this bulk send!");
+        if(index < 0 || index >= size) throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        return metadata[index];
+    }
+
+    @Override
+    public String toString() {
+        return "BulkSendResult{" +
+                "size=" + size +
+                ", metadata=" + hasMetadata() +
+                '}';
+    }
+}
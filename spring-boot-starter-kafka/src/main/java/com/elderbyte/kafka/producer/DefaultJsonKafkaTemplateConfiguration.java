@@ -4,6 +4,7 @@ import com.elderbyte.kafka.config.KafkaClientProperties;
 import com.elderbyte.kafka.serialisation.json.ElderKafkaJsonSerializer;
 import com.elderbyte.kafka.serialisation.key.ElderCompositeKeySerializerGeneric;
 import org.apache.kafka.clients.CommonClientConfigs;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
 import org.apache.kafka.common.serialization.StringSerializer;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
@@ -72,6 +73,17 @@ public class DefaultJsonKafkaTemplateConfiguration {
         return new KafkaTemplate<>(factory);
     }
 
+    /**
+     * Publishes already serialized keys and values as they are, i.e. to forward consumed records.
+     */
+    @Bean("kafkaRawTemplate")
+    public KafkaTemplate<byte[], byte[]> kafkaRawTemplate() {
+        var factory = new DefaultKafkaProducerFactory<byte[], byte[]>(producerConfigs());
+        factory.setKeySerializer(new ByteArraySerializer());
+        factory.setValueSerializer(new ByteArraySerializer());
+        return new KafkaTemplate<>(factory);
+    }
+
     /***************************************************************************
      *                                                                         *
      * Private methods                                                         *
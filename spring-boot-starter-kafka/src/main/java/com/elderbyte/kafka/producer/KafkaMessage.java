@@ -3,18 +3,15 @@ package com.elderbyte.kafka.producer;
 import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.apache.kafka.clients.producer.ProducerRecord;
 import org.apache.kafka.common.header.Header;
-import org.apache.kafka.common.header.internals.RecordHeader;
 import org.apache.kafka.common.header.internals.RecordHeaders;
 import org.apache.kafka.common.record.TimestampType;
 import org.springframework.lang.Nullable;
 
-import java.nio.charset.StandardCharsets;
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 
-import static java.util.stream.Collectors.toList;
-
 public class KafkaMessage<K,V> {
 
     /***************************************************************************
@@ -85,6 +82,22 @@ public class KafkaMessage<K,V> {
         return new KafkaMessage<>(key, value, partition, timestamp, headers);
     }
 
+    /**
+     * Builds a message which forwards an existing record as is.
+     * Unlike the other builders, both key and value might be null.
+     * The record headers are forwarded byte for byte, including repeated keys. See {@link #getRecordHeaders()}.
+     * @param key The message key which might be null.
+     * @param value The message value which might be null. (tombstone)
+     * @param headers The record headers.
+     */
+    public static <K,V> KafkaMessage<K,V> forward(@Nullable K key, @Nullable V value, Iterable<Header> headers){
+        if(headers == null) throw new IllegalArgumentException("headers must not be null");
+
+        var recordHeaders = new ArrayList<Header>();
+        headers.forEach(recordHeaders::add);
+        return new KafkaMessage<>(key, value, null, null, null, Collections.unmodifiableList(recordHeaders));
+    }
+
 
     /***************************************************************************
      *                                                                         *
@@ -96,7 +109,8 @@ public class KafkaMessage<K,V> {
     private final V value;
     private final Integer partition;
     private final Long timestamp;
-    private final Map<String, String> headers = new HashMap<>();
+    private final MessageHeaders headers;
+    private final List<Header> recordHeaders;
 
     /***************************************************************************
      *                                                                         *
@@ -105,15 +119,16 @@ public class KafkaMessage<K,V> {
      **************************************************************************/
 
     private KafkaMessage(K key, V value, Integer partition, Long timestamp, @Nullable Map<String, String> headers) {
+        this(key, value, partition, timestamp, headers, null);
+    }
+
+    private KafkaMessage(K key, V value, Integer partition, Long timestamp, @Nullable Map<String, String> headers, @Nullable List<Header> recordHeaders) {
         this.key = key;
         this.value = value;
         this.partition = partition;
         this.timestamp = timestamp;
-
-        if(headers != null){
-            this.headers.putAll(headers);
-        }
-
+        this.headers = MessageHeaders.copyOf(headers);
+        this.recordHeaders = recordHeaders;
     }
 
     /***************************************************************************
@@ -138,10 +153,21 @@ public class KafkaMessage<K,V> {
         return timestamp;
     }
 
+    /**
+     * The headers of this message, which are immutable.
+     * Empty for a forwarded message, whose headers are kept as record headers.
+     */
     public Map<String, String> getHeaders() {
         return headers;
     }
 
+    /**
+     * The read-only record headers of this message, as they are sent.
+     */
+    public List<Header> getRecordHeaders() {
+        return recordHeaders != null ? recordHeaders : headers.toHeaderList();
+    }
+
     /***************************************************************************
      *                                                                         *
      * Public API                                                              *
@@ -169,7 +195,7 @@ public class KafkaMessage<K,V> {
                 this.getTimestamp(),
                 this.getKey(),
                 this.getValue(),
-                recordHeaders()
+                getRecordHeaders()
         );
     }
 
@@ -200,20 +226,8 @@ public class KafkaMessage<K,V> {
                 serializedValueSize,
                 this.getKey(),
                 this.getValue(),
-                new RecordHeaders(recordHeaders().toArray(new Header[0]))
+                recordHeaders != null ? new RecordHeaders(recordHeaders) : headers.toRecordHeaders()
         );
     }
 
-
-    /***************************************************************************
-     *                                                                         *
-     * Private methods                                                         *
-     *                                                                         *
-     **************************************************************************/
-
-    private List<Header> recordHeaders(){
-        return headers.entrySet().stream()
-                .map(es -> new RecordHeader(es.getKey(), es.getValue().getBytes(StandardCharsets.UTF_8)))
-                .collect(toList());
-    }
 }
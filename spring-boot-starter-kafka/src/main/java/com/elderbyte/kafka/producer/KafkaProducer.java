@@ -55,6 +55,19 @@ public interface KafkaProducer<K,V> {
      */
     List<CompletableFuture<SendResult<K, V>>> sendAll(String topic, Collection<KafkaMessage<K, V>> messages);
 
+    /**
+     * Send all messages to the given topic, tracked by a single future instead of a future per message.
+     *
+     * The future completes once all records are acknowledged. If any record fails, it completes exceptionally
+     * with the first failure, further failures are added as suppressed exceptions.
+     *
+     * @param topic The topic name
+     * @param messages The messages to send
+     * @param keepMetadata If true, the metadata of each record is available from the result.
+     * @param flush If true, the producer is flushed after all records have been handed to it.
+     */
+    CompletableFuture<BulkSendResult> sendBulk(String topic, Collection<KafkaMessage<K, V>> messages, boolean keepMetadata, boolean flush);
+
 
     /**
      * See {@link Producer#partitionsFor(String)}.
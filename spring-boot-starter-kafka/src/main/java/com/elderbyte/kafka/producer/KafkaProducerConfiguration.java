@@ -76,6 +76,12 @@ public class KafkaProducerConfiguration {
             return new KafkaProducerTxImpl<>(elderKafkaOperationsTx);
         }
 
+        @Bean
+        @DependsOn("elderKafkaNewTopicCreator")
+        public KafkaProducer<byte[], byte[]> kafkaRawProducer(@Qualifier("kafkaRawTemplate") KafkaTemplate<byte[], byte[]> kafkaOperations){
+            return new KafkaProducerImpl<>(kafkaOperations);
+        }
+
     }
 
 
@@ -133,6 +139,11 @@ public class KafkaProducerConfiguration {
             return new KafkaProducerTxMock<>();
         }
 
+        @Bean
+        public KafkaProducer<byte[], byte[]> kafkaRawProducer(){
+            return new KafkaProducerMock<>();
+        }
+
     }
 
 }
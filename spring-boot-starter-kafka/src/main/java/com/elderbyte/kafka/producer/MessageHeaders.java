@@ -0,0 +1,246 @@
+package com.elderbyte.kafka.producer;
+
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.internals.RecordHeader;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * Compact, immutable string headers of a message.
+ *
+ * The headers are kept in two plain arrays instead of a hash map, since messages usually have few headers.
+ * The UTF-8 encoded record headers are built once, and shared by all records created from the same headers.
+ */
+public final class MessageHeaders extends AbstractMap<String, String> {
+
+    /***************************************************************************
+     *                                                                         *
+     * Static Builder                                                          *
+     *                                                                         *
+     **************************************************************************/
+
+    private static final String[] NONE = new String[0];
+    private static final MessageHeaders EMPTY = new MessageHeaders(NONE, NONE);
+
+    public static MessageHeaders empty(){
+        return EMPTY;
+    }
+
+    /**
+     * Returns immutable headers with the entries of the given map.
+     * @param headers The headers, might be null.
+     */
+    public static MessageHeaders copyOf(Map<String, String> headers){
+        if(headers == null || headers.isEmpty()){
+            return EMPTY;
+        }
+        if(headers instanceof MessageHeaders){
+            return (MessageHeaders) headers;
+        }
+
+        var keys = new String[headers.size()];
+        var values = new String[headers.size()];
+        int i = 0;
+        for(var entry : headers.entrySet()){
+            keys[i] = entry.getKey();
+            values[i] = entry.getValue();
+            i++;
+        }
+        return new MessageHeaders(keys, values);
+    }
+
+    /**
+     * Creates a layout for headers which always use the given keys,
+     * so the keys are shared by all headers created from it.
+     */
+    public static Layout layout(String... keys){
+        if(keys == null) throw new IllegalArgumentException("keys must not be null");
+        return new Layout(keys.clone());
+    }
+
+    /***************************************************************************
+     *                                                                         *
+     * Fields                                                                  *
+     *                                                                         *
+     **************************************************************************/
+
+    private final String[] keys;
+    private final String[] values;
+
+    /**
+     * The encoded, read-only headers, built on first use. Racing threads build equal headers.
+     */
+    private volatile List<Header> encoded;
+
+    /***************************************************************************
+     *                                                                         *
+     * Constructor                                                             *
+     *                                                                         *
+     **************************************************************************/
+
+    private MessageHeaders(String[] keys, String[] values){
+        this.keys = keys;
+        this.values = values;
+    }
+
+    /***************************************************************************
+     *                                                                         *
+     * Public API                                                              *
+     *                                                                         *
+     **************************************************************************/
+
+    @Override
+    public int size() {
+        return keys.length;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return indexOf(key) >= 0;
+    }
+
+    @Override
+    public String get(Object key) {
+        int index = indexOf(key);
+        return index >= 0 ? values[index] : null;
+    }
+
+    @Override
+    public Set<Entry<String, String>> entrySet() {
+        return new AbstractSet<>() {
+            @Override
+            public Iterator<Entry<String, String>> iterator() {
+                return new Iterator<>() {
+                    private int index = 0;
+
+                    @Override
+                    public boolean hasNext() {
+                        return index < keys.length;
+                    }
+
+                    @Override
+                    public Entry<String, String> next() {
+                        if(!hasNext()) throw new NoSuchElementException();
+                        var entry = new SimpleImmutableEntry<>(keys[index], values[index]);
+                        index++;
+                        return entry;
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return keys.length;
+            }
+        };
+    }
+
+    /**
+     * Returns new record headers with the UTF-8 encoded headers.
+     * The values are encoded only once, the returned record headers themselves are not shared.
+     */
+    public RecordHeaders toRecordHeaders(){
+        return new RecordHeaders(encoded());
+    }
+
+    /**
+     * Returns the shared, read-only list of UTF-8 encoded headers.
+     * Record constructors copy the given headers, so this avoids an intermediate copy per record.
+     */
+    public List<Header> toHeaderList(){
+        return encoded();
+    }
+
+    /***************************************************************************
+     *                                                                         *
+     * Private methods                                                         *
+     *                                                                         *
+     **************************************************************************/
+
+    private int indexOf(Object key){
+        for(int i = 0; i < keys.length; i++){
+            if(keys[i] == key){
+                return i; // Shared key of a layout
+            }
+        }
+        if(key != null){
+            for(int i = 0; i < keys.length; i++){
+                if(key.equals(keys[i])){
+                    return i;
+                }
+            }
+        }
+        return -1;
+    }
+
+    private List<Header> encoded(){
+        var headers = encoded;
+        if(headers == null){
+            var array = new Header[keys.length];
+            for(int i = 0; i < keys.length; i++){
+                var value = values[i];
+                array[i] = new RecordHeader(keys[i], value != null ? value.getBytes(StandardCharsets.UTF_8) : null);
+            }
+            headers = Collections.unmodifiableList(Arrays.asList(array));
+            encoded = headers;
+        }
+        return headers;
+    }
+
+    /***************************************************************************
+     *                                                                         *
+     * Inner classes                                                           *
+     *                                                                         *
+     **************************************************************************/
+
+    /**
+     * A fixed sequence of header keys, i.e. the header fields of a message class.
+     */
+    public static final class Layout {
+
+        private final String[] keys;
+
+        private Layout(String[] keys){
+            this.keys = keys;
+        }
+
+        public int size(){
+            return keys.length;
+        }
+
+        /**
+         * Creates headers with the given values, matched to the keys of this layout by position.
+         * Null values are omitted. The given array is owned by the headers and must not be modified afterwards.
+         */
+        public MessageHeaders headers(String[] values){
+            if(values == null || values.length != keys.length){
+                throw new IllegalArgumentException("Expected " + keys.length + " header values!");
+            }
+
+            int present = 0;
+            for(var value : values){
+                if(value != null) present++;
+            }
+
+            if(present == keys.length){
+                return new MessageHeaders(keys, values);
+            }else if(present == 0){
+                return EMPTY;
+            }
+
+            var presentKeys = new String[present];
+            var presentValues = new String[present];
+            int j = 0;
+            for(int i = 0; i < keys.length; i++){
+                if(values[i] != null){
+                    presentKeys[j] = keys[i];
+                    presentValues[j] = values[i];
+                    j++;
+                }
+            }
+            return new MessageHeaders(presentKeys, presentValues);
+        }
+    }
+}
@@ -1,7 +1,9 @@
 package com.elderbyte.kafka.producer.impl;
 
+import com.elderbyte.kafka.producer.BulkSendResult;
 import com.elderbyte.kafka.producer.KafkaMessage;
 import com.elderbyte.kafka.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.RecordMetadata;
 import org.apache.kafka.common.PartitionInfo;
 import org.springframework.kafka.core.KafkaOperations;
 import org.springframework.kafka.support.SendResult;
@@ -9,6 +11,7 @@ import org.springframework.kafka.support.SendResult;
 import java.util.Collection;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static java.util.stream.Collectors.toList;
 
@@ -71,6 +74,35 @@ public class KafkaProducerImpl<K,V> implements KafkaProducer<K,V> {
                 .collect(toList());
     }
 
+    /**
+     * Hands the records directly to the producer with one callback each,
+     * bypassing the per-record futures and send results of the template.
+     */
+    @Override
+    public CompletableFuture<BulkSendResult> sendBulk(String topic, Collection<KafkaMessage<K, V>> kafkaMessages, boolean keepMetadata, boolean flush) {
+        var bulk = new BulkSend(kafkaMessages.size(), keepMetadata);
+        if(kafkaMessages.isEmpty()){
+            return bulk.future;
+        }
+
+        kafkaOperations.execute(producer -> {
+            int index = 0;
+            for(var message : kafkaMessages){
+                final int position = index++;
+                try {
+                    producer.send(message.toRecord(topic), (metadata, e) -> bulk.completed(position, metadata, e));
+                }catch (Exception e){
+                    bulk.completed(position, null, e);
+                }
+            }
+            if(flush){
+                producer.flush();
+            }
+            return null;
+        });
+        return bulk.future;
+    }
+
     /***************************************************************************
      *                                                                         *
      * Internal methods                                                        *
@@ -81,4 +113,63 @@ public class KafkaProducerImpl<K,V> implements KafkaProducer<K,V> {
         return kafkaOperations;
     }
 
+    /***************************************************************************
+     *                                                                         *
+     * Inner classes                                                           *
+     *                                                                         *
+     **************************************************************************/
+
+    /**
+     * Tracks the pending records of a bulk send.
+     */
+    private static final class BulkSend {
+
+        /**
+         * Limits the suppressed failures, a failing bulk of a million records would otherwise keep all of them
+         */
+        private static final int MAX_SUPPRESSED = 10;
+
+        final CompletableFuture<BulkSendResult> future = new CompletableFuture<>();
+
+        private final int size;
+        private final RecordMetadata[] metadata;
+        private final AtomicInteger pending;
+        private Exception failure;
+        private int failures = 0;
+
+        BulkSend(int size, boolean keepMetadata){
+            this.size = size;
+            this.metadata = keepMetadata ? new RecordMetadata[size] : null;
+            this.pending = new AtomicInteger(size);
+            if(size == 0){
+                future.complete(new BulkSendResult(0, metadata));
+            }
+        }
+
+        void completed(int index, RecordMetadata recordMetadata, Exception e){
+            if(e != null){
+                synchronized (this){
+                    failures++;
+                    if(failure == null){
+                        failure = e;
+                    }else if(failures <= MAX_SUPPRESSED){
+                        failure.addSuppressed(e);
+                    }
+                }
+            }else if(metadata != null){
+                metadata[index] = recordMetadata;
+            }
+
+            if(pending.decrementAndGet() == 0){
+                // The decrement publishes the metadata writes of all other callbacks
+                synchronized (this){
+                    if(failure != null){
+                        future.completeExceptionally(failure);
+                    }else{
+                        future.complete(new BulkSendResult(size, metadata));
+                    }
+                }
+            }
+        }
+    }
 }
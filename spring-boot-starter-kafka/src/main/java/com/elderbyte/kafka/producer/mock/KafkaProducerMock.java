@@ -1,5 +1,6 @@
 package com.elderbyte.kafka.producer.mock;
 
+import com.elderbyte.kafka.producer.BulkSendResult;
 import com.elderbyte.kafka.producer.KafkaMessage;
 import com.elderbyte.kafka.producer.KafkaProducer;
 import org.apache.kafka.clients.producer.ProducerRecord;
@@ -11,6 +12,7 @@ import org.slf4j.LoggerFactory;
 import org.springframework.kafka.support.SendResult;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
@@ -56,6 +58,17 @@ public class KafkaProducerMock<K,V> implements KafkaProducer<K,V> {
         return new ArrayList<>();
     }
 
+    @Override
+    public CompletableFuture<BulkSendResult> sendBulk(String topic, Collection<KafkaMessage<K, V>> kafkaMessages, boolean keepMetadata, boolean flush) {
+        logger.debug("Mocking Kafka Send! topic: {}, messages: {}", topic, kafkaMessages.size());
+        RecordMetadata[] metadata = null;
+        if(keepMetadata){
+            metadata = new RecordMetadata[kafkaMessages.size()];
+            Arrays.fill(metadata, mockMetadata(topic));
+        }
+        return CompletableFuture.completedFuture(new BulkSendResult(kafkaMessages.size(), metadata));
+    }
+
     @Override
     public List<PartitionInfo> partitionsFor(String topic) {
         return new ArrayList<>();
@@ -0,0 +1,215 @@
+package com.elderbyte.kafka.records;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * The latest record of each key of a batch, split into updates and deletions.
+ *
+ * Compacts in one backward pass over the batch, using a pre-sized open-addressing index of record positions.
+ * Each key is hashed once, and equals is only called if the hashes match. byte[] keys are compared by content.
+ * The resulting lists are read-only views on the batch, in the original record order.
+ */
+final class CompactedRecords<K, V> {
+
+    /***************************************************************************
+     *                                                                         *
+     * Static Builder                                                          *
+     *                                                                         *
+     **************************************************************************/
+
+    static <K, V> CompactedRecords<K, V> compact(List<ConsumerRecord<K, V>> records){
+
+        int size = records.size();
+        var index = new KeyIndex(size);
+
+        // Latest records per key, filled from the back to keep the original order
+        var updates = new int[size];
+        var deletions = new int[size];
+        int updatesFrom = size;
+        int deletionsFrom = size;
+
+        for(int i = size - 1; i >= 0; i--){
+            var record = records.get(i);
+            if(index.addIfAbsent(record.key())){
+                if(record.value() == null){
+                    deletions[--deletionsFrom] = i;
+                }else{
+                    updates[--updatesFrom] = i;
+                }
+            }
+        }
+
+        return new CompactedRecords<>(
+                records,
+                new IndexedView<>(records, updates, updatesFrom),
+                new IndexedView<>(records, deletions, deletionsFrom)
+        );
+    }
+
+    /***************************************************************************
+     *                                                                         *
+     * Fields                                                                  *
+     *                                                                         *
+     **************************************************************************/
+
+    private final List<ConsumerRecord<K, V>> records;
+    private final IndexedView<K, V> updates;
+    private final IndexedView<K, V> deletions;
+
+    /***************************************************************************
+     *                                                                         *
+     * Constructor                                                             *
+     *                                                                         *
+     **************************************************************************/
+
+    private CompactedRecords(List<ConsumerRecord<K, V>> records, IndexedView<K, V> updates, IndexedView<K, V> deletions){
+        this.records = records;
+        this.updates = updates;
+        this.deletions = deletions;
+    }
+
+    /***************************************************************************
+     *                                                                         *
+     * Properties                                                              *
+     *                                                                         *
+     **************************************************************************/
+
+    public List<ConsumerRecord<K, V>> getUpdates() {
+        return updates;
+    }
+
+    public List<ConsumerRecord<K, V>> getDeletions() {
+        return deletions;
+    }
+
+    /**
+     * All latest records, in the original order.
+     */
+    public List<ConsumerRecord<K, V>> getAll() {
+        if(deletions.isEmpty()){
+            return updates;
+        }else if(updates.isEmpty()){
+            return deletions;
+        }
+        return new IndexedView<>(records, merge(updates.positions(), deletions.positions()), 0);
+    }
+
+    /***************************************************************************
+     *                                                                         *
+     * Private methods                                                         *
+     *                                                                         *
+     **************************************************************************/
+
+    private static int[] merge(int[] a, int[] b){
+        var merged = new int[a.length + b.length];
+        int i = 0, j = 0, k = 0;
+        while (i < a.length && j < b.length){
+            merged[k++] = a[i] < b[j] ? a[i++] : b[j++];
+        }
+        while (i < a.length) merged[k++] = a[i++];
+        while (j < b.length) merged[k++] = b[j++];
+        return merged;
+    }
+
+    /***************************************************************************
+     *                                                                         *
+     * Inner classes                                                           *
+     *                                                                         *
+     **************************************************************************/
+
+    /**
+     * A set of keys with linear probing, which stores the keys and their hashes in plain arrays.
+     */
+    static final class KeyIndex {
+
+        private final Object[] keys;
+        private final int[] hashes;
+        private final int mask;
+        private final int shift;
+        private boolean containsNull = false;
+
+        KeyIndex(int expectedSize){
+            // Load factor of at most 0.5
+            int capacity = Integer.highestOneBit(Math.max(2, expectedSize) * 2 - 1) << 1;
+            this.keys = new Object[capacity];
+            this.hashes = new int[capacity];
+            this.mask = capacity - 1;
+            this.shift = Integer.numberOfLeadingZeros(capacity) + 1;
+        }
+
+        /**
+         * Adds the given key, and returns true if it was not yet present.
+         */
+        boolean addIfAbsent(Object key){
+            if(key == null){
+                if(containsNull){
+                    return false;
+                }
+                containsNull = true;
+                return true;
+            }
+
+            int hash = hashOf(key);
+            int slot = (hash * 0x9E3779B9) >>> shift; // Fibonacci hashing, spreads poor hash codes
+            while (keys[slot] != null){
+                if(hashes[slot] == hash && keyEquals(keys[slot], key)){
+                    return false;
+                }
+                slot = (slot + 1) & mask;
+            }
+            hashes[slot] = hash;
+            keys[slot] = key;
+            return true;
+        }
+
+        private static int hashOf(Object key){
+            return key instanceof byte[] ? Arrays.hashCode((byte[]) key) : key.hashCode();
+        }
+
+        private static boolean keyEquals(Object a, Object b){
+            if(a == b){
+                return true;
+            }
+            if(a instanceof byte[] && b instanceof byte[]){
+                return Arrays.equals((byte[]) a, (byte[]) b);
+            }
+            return a.equals(b);
+        }
+    }
+
+    /**
+     * A read-only view of the records at the given positions.
+     */
+    private static final class IndexedView<K, V> extends AbstractList<ConsumerRecord<K, V>> implements RandomAccess {
+
+        private final List<ConsumerRecord<K, V>> records;
+        private final int[] positions;
+        private final int from;
+
+        IndexedView(List<ConsumerRecord<K, V>> records, int[] positions, int from){
+            this.records = records;
+            this.positions = positions;
+            this.from = from;
+        }
+
+        @Override
+        public ConsumerRecord<K, V> get(int index) {
+            if(index < 0 || index >= size()) throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size());
+            return records.get(positions[from + index]);
+        }
+
+        @Override
+        public int size() {
+            return positions.length - from;
+        }
+
+        int[] positions(){
+            return Arrays.copyOfRange(positions, from, positions.length);
+        }
+    }
+}
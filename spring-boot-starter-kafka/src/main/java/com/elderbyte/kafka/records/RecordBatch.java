@@ -1,11 +1,11 @@
 package com.elderbyte.kafka.records;
 
 import com.elderbyte.kafka.consumer.processing.Processor;
+import com.elderbyte.kafka.consumer.processing.parallel.ParallelTasks;
 import org.apache.kafka.clients.consumer.ConsumerRecord;
 
 import java.util.*;
-
-import static java.util.stream.Collectors.toList;
+import java.util.concurrent.ExecutorService;
 
 public class RecordBatch<K, V> {
 
@@ -27,6 +27,11 @@ public class RecordBatch<K, V> {
 
     private final List<ConsumerRecord<K, V>> records;
 
+    /**
+     * The deletions of the whole batch, collected on first use
+     */
+    private List<ConsumerRecord<K, V>> deletions;
+
     /***************************************************************************
      *                                                                         *
      * Constructor                                                             *
@@ -50,10 +55,20 @@ public class RecordBatch<K, V> {
         return records;
     }
 
+    /**
+     * Returns the (read-only) deletions of this batch. They are collected once, on first use.
+     */
     public List<ConsumerRecord<K, V>> getDeletions() {
-        return getRecords().stream()
-                .filter(r -> r.value() == null)
-                .collect(toList());
+        if(deletions == null){
+            var found = new ArrayList<ConsumerRecord<K, V>>();
+            for(var record : records){
+                if(record.value() == null){
+                    found.add(record);
+                }
+            }
+            deletions = Collections.unmodifiableList(found);
+        }
+        return deletions;
     }
 
     /***************************************************************************
@@ -71,24 +86,17 @@ public class RecordBatch<K, V> {
      * is processed at all.
      *
      * Optimal for processing compacted topics.
+     * The processors receive read-only views on this batch.
      */
     public void compactedUpdateOrDelete(
             Processor<List<ConsumerRecord<K, V>>> updatedProcessor,
             Processor<List<ConsumerRecord<K, V>>> deletedProcessor
     ){
         try {
-            var compacted = compact(records);
+            var compacted = CompactedRecords.compact(records);
 
-            var updated = new ArrayList<ConsumerRecord<K, V>>();
-            var deleted = new ArrayList<ConsumerRecord<K, V>>();
-
-            compacted.forEach(r -> {
-                if(r.value() == null){
-                    deleted.add(r);
-                }else{
-                    updated.add(r);
-                }
-            });
+            var updated = compacted.getUpdates();
+            var deleted = compacted.getDeletions();
 
             if(!deleted.isEmpty()){
                 deletedProcessor.proccess(deleted);
@@ -103,6 +111,47 @@ public class RecordBatch<K, V> {
         }
     }
 
+    /**
+     * Like {@link #compactedUpdateOrDelete(Processor, Processor)}, but processes the deletions and updates concurrently.
+     *
+     * Since only the latest record of each key is kept, deletions and updates never share a key.
+     * The deleted processor is called at most once, the updated processor once per chunk of at most chunkSize updates.
+     * Returns once all processors have completed. If any of them fails, the whole batch fails,
+     * with the other failures added as suppressed exceptions.
+     *
+     * @param executor The executor which runs the processors along the calling thread. May be shared, see {@link ParallelTasks}.
+     * @param chunkSize The max number of updates handed to a single updated processor call.
+     */
+    public void compactedUpdateOrDelete(
+            Processor<List<ConsumerRecord<K, V>>> updatedProcessor,
+            Processor<List<ConsumerRecord<K, V>>> deletedProcessor,
+            ExecutorService executor,
+            int chunkSize
+    ){
+        if(executor == null) throw new IllegalArgumentException("executor must not be null");
+        if(chunkSize < 1) throw new IllegalArgumentException("chunkSize must be at least 1, but was " + chunkSize);
+
+        var compacted = CompactedRecords.compact(records);
+
+        var updated = compacted.getUpdates();
+        var deleted = compacted.getDeletions();
+
+        var tasks = new ArrayList<ParallelTasks.Task>();
+        if(!deleted.isEmpty()){
+            tasks.add(() -> deletedProcessor.proccess(deleted));
+        }
+        for(int from = 0; from < updated.size(); from += chunkSize){
+            var chunk = updated.subList(from, Math.min(updated.size(), from + chunkSize));
+            tasks.add(() -> updatedProcessor.proccess(chunk));
+        }
+
+        try {
+            ParallelTasks.runAll(tasks, executor);
+        }catch (Exception e){
+            throw new RuntimeException("Failed to handle record batch!", e);
+        }
+    }
+
 
     /**
      * Guarantees absolute order when processing the events.
@@ -154,8 +203,11 @@ public class RecordBatch<K, V> {
     }
 
 
+    /**
+     * Returns the latest record of each key, in the original order, as read-only list.
+     */
     public List<ConsumerRecord<K, V>> compacted(){
-        return compact(this.records);
+        return CompactedRecords.compact(this.records).getAll();
     }
 
     @Override
@@ -167,24 +219,4 @@ public class RecordBatch<K, V> {
                 ", updates=" + (records.size() - deletions) +
                 '}';
     }
-
-    /***************************************************************************
-     *                                                                         *
-     * Private methods                                                         *
-     *                                                                         *
-     **************************************************************************/
-
-    private List<ConsumerRecord<K, V>> compact(List<ConsumerRecord<K, V>> records){
-        var visitedKeys = new HashSet<K>();
-        var compacted = new ArrayList<ConsumerRecord<K, V>>();
-        for(int i=records.size()-1; i > -1; i--){
-            var r = records.get(i);
-            if(!visitedKeys.contains(r.key())){
-                compacted.add(r);
-                visitedKeys.add(r.key());
-            }
-        }
-        Collections.reverse(compacted);
-        return compacted;
-    }
 }
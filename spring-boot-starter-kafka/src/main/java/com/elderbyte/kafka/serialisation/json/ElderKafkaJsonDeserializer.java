@@ -2,15 +2,18 @@ package com.elderbyte.kafka.serialisation.json;
 
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import org.apache.kafka.common.errors.SerializationException;
+import com.fasterxml.jackson.databind.ObjectReader;
 import org.apache.kafka.common.serialization.Deserializer;
-import org.apache.kafka.common.serialization.StringDeserializer;
 
+import java.io.IOException;
 import java.util.Map;
 
 
 /**
  * Generic JSON deserializer.
+ *
+ * The reader of the target type is resolved once, so deserializing a record doesn't look up the type anymore.
+ * On failure, a {@link JsonDeserializationException} with a bounded excerpt of the payload is thrown.
  */
 public class ElderKafkaJsonDeserializer<V> implements Deserializer<V> {
 
@@ -21,11 +24,7 @@ public class ElderKafkaJsonDeserializer<V> implements Deserializer<V> {
    *                                                                         *
    **************************************************************************/
 
-  private final StringDeserializer stringDeserializer = new StringDeserializer();
-  private final ObjectMapper objectMapper;
-
-  private final Class<V> clazz;
-  private final TypeReference<V> typeReference;
+  private final ObjectReader reader;
 
   /***************************************************************************
    *                                                                         *
@@ -40,20 +39,15 @@ public class ElderKafkaJsonDeserializer<V> implements Deserializer<V> {
 
 
   public ElderKafkaJsonDeserializer(Class<V> clazz, ObjectMapper mapper) {
-    this(clazz, null, mapper);
+    this(mapper.readerFor(clazz));
   }
 
   public ElderKafkaJsonDeserializer(TypeReference<V> typeReference, ObjectMapper mapper) {
-    this(null, typeReference, mapper);
+    this(mapper.readerFor(typeReference));
   }
 
-  private ElderKafkaJsonDeserializer(
-          Class<V> clazz,
-          TypeReference<V> typeReference,
-          ObjectMapper mapper) {
-    this.objectMapper = mapper;
-    this.typeReference = typeReference;
-    this.clazz = clazz;
+  private ElderKafkaJsonDeserializer(ObjectReader reader) {
+    this.reader = reader;
   }
   /***************************************************************************
    *                                                                         *
@@ -74,13 +68,9 @@ public class ElderKafkaJsonDeserializer<V> implements Deserializer<V> {
     }
 
     try {
-      if(typeReference != null){
-        return objectMapper.readValue(bytes, typeReference);
-      }else{
-        return objectMapper.readValue(bytes, clazz);
-      }
-    } catch (Exception e) {
-      throw new SerializationException("Failed to deserialize bytes on topic "+topic+" to json: " + stringDeserializer.deserialize(topic, bytes), e);
+      return reader.readValue(bytes);
+    } catch (IOException | RuntimeException e) {
+      throw new JsonDeserializationException(topic, bytes, e);
     }
   }
 
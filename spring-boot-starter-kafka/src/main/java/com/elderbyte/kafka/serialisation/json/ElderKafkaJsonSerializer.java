@@ -1,13 +1,19 @@
 package com.elderbyte.kafka.serialisation.json;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import org.apache.kafka.common.errors.SerializationException;
 import org.apache.kafka.common.serialization.Serializer;
 
+import java.io.ByteArrayOutputStream;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Serialize objects to UTF-8 JSON. This works with any object which is serializable with Jackson.
+ *
+ * A writer is resolved once per runtime class. Each thread writes into its own reusable output buffer,
+ * which is sized from the running average of the message sizes, so only the exactly sized result is allocated per message.
  */
 public class ElderKafkaJsonSerializer<V> implements Serializer<V> {
 
@@ -17,7 +23,13 @@ public class ElderKafkaJsonSerializer<V> implements Serializer<V> {
    *                                                                         *
    **************************************************************************/
 
+  private static final int MIN_BUFFER_SIZE = 256;
+
   private final ObjectMapper objectMapper;
+  private final Map<Class<?>, ObjectWriter> writers = new ConcurrentHashMap<>();
+  private final ThreadLocal<OutputBuffer> buffers = ThreadLocal.withInitial(() -> new OutputBuffer(bufferSizeHint()));
+
+  private volatile double averageSize = MIN_BUFFER_SIZE;
 
   /***************************************************************************
    *                                                                         *
@@ -51,10 +63,18 @@ public class ElderKafkaJsonSerializer<V> implements Serializer<V> {
       return null;
     }
 
+    var buffer = buffers.get();
     try {
-      return objectMapper.writeValueAsBytes(data);
+      var writer = writers.computeIfAbsent(data.getClass(), objectMapper::writerFor);
+      buffer.reset();
+      writer.writeValue(buffer, data);
+      var bytes = buffer.toByteArray();
+      recordSize(bytes.length);
+      return bytes;
     } catch (Exception e) {
       throw new SerializationException("Error serializing JSON message", e);
+    } finally {
+      buffer.trim(bufferSizeHint());
     }
   }
 
@@ -62,4 +82,36 @@ public class ElderKafkaJsonSerializer<V> implements Serializer<V> {
   public void close() {
   }
 
+  /***************************************************************************
+   *                                                                         *
+   * Private methods                                                         *
+   *                                                                         *
+   **************************************************************************/
+
+  private void recordSize(int size){
+    // Races only lose a sample, which is fine for a sizing hint
+    averageSize += (size - averageSize) * 0.1;
+  }
+
+  private int bufferSizeHint(){
+    return (int)Math.max(MIN_BUFFER_SIZE, Math.min(averageSize * 1.5, Integer.MAX_VALUE - 8));
+  }
+
+  /**
+   * A reusable output buffer, which is shrunk again after an unusually large message.
+   */
+  private static final class OutputBuffer extends ByteArrayOutputStream {
+
+    OutputBuffer(int size){
+      super(size);
+    }
+
+    void trim(int sizeHint){
+      if(buf.length > 4L * sizeHint){
+        buf = new byte[sizeHint];
+        count = 0;
+      }
+    }
+  }
+
 }
@@ -0,0 +1,97 @@
+package com.elderbyte.kafka.serialisation.json;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.dataformat.smile.SmileConstants;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.apache.kafka.common.serialization.Deserializer;
+
+import java.io.IOException;
+import java.util.Map;
+
+
+/**
+ * Generic Smile deserializer.
+ *
+ * Payloads without the Smile header are read as JSON. This allows to switch existing stores
+ * and changelogs to Smile, and to restore stores from source topics which hold JSON.
+ */
+public class ElderKafkaSmileDeserializer<V> implements Deserializer<V> {
+
+
+  /***************************************************************************
+   *                                                                         *
+   * Fields                                                                  *
+   *                                                                         *
+   **************************************************************************/
+
+  private final ObjectReader jsonReader;
+  private final ObjectReader smileReader;
+
+  /***************************************************************************
+   *                                                                         *
+   * Constructors                                                            *
+   *                                                                         *
+   **************************************************************************/
+
+
+  public ElderKafkaSmileDeserializer(Class<V> clazz) {
+    this(clazz, DefaultJsonMapper.buildDefaultMapper());
+  }
+
+  public ElderKafkaSmileDeserializer(Class<V> clazz, ObjectMapper mapper) {
+    this(mapper.readerFor(clazz));
+  }
+
+  public ElderKafkaSmileDeserializer(TypeReference<V> typeReference, ObjectMapper mapper) {
+    this(mapper.readerFor(typeReference));
+  }
+
+  private ElderKafkaSmileDeserializer(ObjectReader jsonReader) {
+    this.jsonReader = jsonReader;
+    this.smileReader = jsonReader.with(new SmileFactory());
+  }
+
+  /***************************************************************************
+   *                                                                         *
+   * Public API                                                              *
+   *                                                                         *
+   **************************************************************************/
+
+  @Override
+  public void configure(Map<String, ?> props, boolean isKey) {
+    // NOP
+  }
+
+
+  @Override
+  public V deserialize(String topic, byte[] bytes) {
+    if (bytes == null || bytes.length == 0) {
+      return null;
+    }
+
+    try {
+      return isSmile(bytes) ? smileReader.readValue(bytes) : jsonReader.readValue(bytes);
+    } catch (IOException | RuntimeException e) {
+      throw new JsonDeserializationException(topic, bytes, e);
+    }
+  }
+
+  @Override
+  public void close() { }
+
+  /***************************************************************************
+   *                                                                         *
+   * Private methods                                                         *
+   *                                                                         *
+   **************************************************************************/
+
+  private static boolean isSmile(byte[] bytes){
+    return bytes.length >= 3
+            && bytes[0] == SmileConstants.HEADER_BYTE_1
+            && bytes[1] == SmileConstants.HEADER_BYTE_2
+            && bytes[2] == SmileConstants.HEADER_BYTE_3;
+  }
+
+}
@@ -0,0 +1,74 @@
+package com.elderbyte.kafka.serialisation.json;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.serialization.Serializer;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Serialize objects to Smile, the binary form of JSON. This works with any object which is serializable with Jackson,
+ * using the configuration and modules of the given mapper.
+ *
+ * Smile skips the text encoding of numbers and back-references repeated property names,
+ * so it is considerably more compact than JSON for stores and changelogs.
+ */
+public class ElderKafkaSmileSerializer<V> implements Serializer<V> {
+
+  /***************************************************************************
+   *                                                                         *
+   * Fields                                                                  *
+   *                                                                         *
+   **************************************************************************/
+
+  private final ObjectMapper objectMapper;
+  private final SmileFactory smileFactory = new SmileFactory();
+  private final Map<Class<?>, ObjectWriter> writers = new ConcurrentHashMap<>();
+
+  /***************************************************************************
+   *                                                                         *
+   * Constructors                                                            *
+   *                                                                         *
+   **************************************************************************/
+
+  public ElderKafkaSmileSerializer() {
+    this(DefaultJsonMapper.buildDefaultMapper());
+  }
+
+  public ElderKafkaSmileSerializer(ObjectMapper mapper) {
+    this.objectMapper = mapper;
+  }
+
+  /***************************************************************************
+   *                                                                         *
+   * Public API                                                              *
+   *                                                                         *
+   **************************************************************************/
+
+  @Override
+  public void configure(Map<String, ?> config, boolean isKey) {
+    // NOP
+  }
+
+  @Override
+  public byte[] serialize(String topic, V data) {
+    if (data == null) {
+      return null;
+    }
+
+    try {
+      var writer = writers.computeIfAbsent(data.getClass(), clazz -> objectMapper.writerFor(clazz).with(smileFactory));
+      return writer.writeValueAsBytes(data);
+    } catch (Exception e) {
+      throw new SerializationException("Error serializing Smile message", e);
+    }
+  }
+
+  @Override
+  public void close() {
+  }
+
+}
@@ -0,0 +1,83 @@
+package com.elderbyte.kafka.serialisation.json;
+
+import org.apache.kafka.common.errors.SerializationException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Exception thrown when a JSON payload could not be deserialized.
+ *
+ * Only a bounded excerpt of the payload is kept, and the message is rendered when it is first requested.
+ * This keeps poison messages of several megabytes cheap, even if the exception is never logged.
+ */
+public class JsonDeserializationException extends SerializationException {
+
+    /***************************************************************************
+     *                                                                         *
+     * Fields                                                                  *
+     *                                                                         *
+     **************************************************************************/
+
+    /**
+     * The max number of payload bytes which are kept for the message.
+     */
+    public static final int MAX_EXCERPT_BYTES = 256;
+
+    private static final long serialVersionUID = 1L;
+
+    private final String topic;
+    private final int payloadLength;
+    private final byte[] excerpt;
+
+    /**
+     * Rendered lazily from the fields above, hence rendered again after deserialization.
+     */
+    private transient String message;
+
+    /***************************************************************************
+     *                                                                         *
+     * Constructor                                                             *
+     *                                                                         *
+     **************************************************************************/
+
+    /**
+     * Creates a new JsonDeserializationException
+     *
+     * @param topic The topic of the payload.
+     * @param payload The payload which could not be deserialized.
+     * @param cause The cause
+     */
+    public JsonDeserializationException(String topic, byte[] payload, Throwable cause){
+        super(cause);
+        this.topic = topic;
+        this.payloadLength = payload.length;
+        this.excerpt = Arrays.copyOf(payload, Math.min(payload.length, MAX_EXCERPT_BYTES));
+    }
+
+    /***************************************************************************
+     *                                                                         *
+     * Properties                                                              *
+     *                                                                         *
+     **************************************************************************/
+
+    @Override
+    public String getMessage() {
+        if(message == null){
+            var rendered = new String(excerpt, StandardCharsets.UTF_8);
+            if(payloadLength > excerpt.length){
+                rendered += "... (" + payloadLength + " bytes in total)";
+            }
+            message = "Failed to deserialize bytes on topic " + topic + " to json: " + rendered;
+        }
+        return message;
+    }
+
+    public String getTopic() {
+        return topic;
+    }
+
+    public int getPayloadLength() {
+        return payloadLength;
+    }
+}
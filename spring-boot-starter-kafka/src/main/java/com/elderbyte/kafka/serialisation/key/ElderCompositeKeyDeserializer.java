@@ -3,7 +3,6 @@ package com.elderbyte.kafka.serialisation.key;
 import com.elderbyte.kafka.messages.MessageKeyBlueprint;
 import org.apache.kafka.common.serialization.Deserializer;
 
-import java.nio.charset.StandardCharsets;
 import java.util.Map;
 
 public class ElderCompositeKeyDeserializer<K> implements Deserializer<K> {
@@ -44,8 +43,7 @@ public class ElderCompositeKeyDeserializer<K> implements Deserializer<K> {
 
     @Override
     public K deserialize(String topic, byte[] data) {
-        var serializedStr = new String(data, StandardCharsets.UTF_8);
-        return messageKeyBlueprint.deserializeKey(serializedStr);
+        return messageKeyBlueprint.deserializeKey(data);
     }
 
     @Override
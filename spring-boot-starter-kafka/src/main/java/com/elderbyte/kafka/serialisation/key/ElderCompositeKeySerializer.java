@@ -3,7 +3,6 @@ package com.elderbyte.kafka.serialisation.key;
 import com.elderbyte.kafka.messages.MessageKeyBlueprint;
 import org.apache.kafka.common.serialization.Serializer;
 
-import java.nio.charset.StandardCharsets;
 import java.util.Map;
 
 public class ElderCompositeKeySerializer<K> implements Serializer<K> {
@@ -50,8 +49,7 @@ public class ElderCompositeKeySerializer<K> implements Serializer<K> {
 
     @Override
     public byte[] serialize(String topic, K data) {
-        var serialized = messageKeyBlueprint.serializeKey(data);
-        return serialized.getBytes(StandardCharsets.UTF_8);
+        return messageKeyBlueprint.serializeKeyBytes(data);
     }
 
     @Override
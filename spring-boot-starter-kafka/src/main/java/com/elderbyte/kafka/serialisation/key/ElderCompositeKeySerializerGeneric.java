@@ -5,7 +5,6 @@ import com.elderbyte.kafka.messages.MessageKeyBlueprint;
 import org.apache.kafka.common.serialization.Serializer;
 import org.apache.kafka.common.serialization.StringSerializer;
 
-import java.nio.charset.StandardCharsets;
 
 public class ElderCompositeKeySerializerGeneric implements Serializer<Object> {
 
@@ -49,8 +48,7 @@ public class ElderCompositeKeySerializerGeneric implements Serializer<Object> {
             return stringSerializer.serialize(topic, data.toString());
         }else{
             var blueprint = MessageKeyBlueprint.from((Class<Object>)dataClazz);
-            var serialized = blueprint.serializeKey(data);
-            return serialized.getBytes(StandardCharsets.UTF_8);
+            return blueprint.serializeKeyBytes(data);
         }
     }
 
@@ -48,7 +48,15 @@ public interface KafkaStreamsContextBuilder {
 
     <K> Serde<K> keySerde(Class<K> keyClazz);
 
+    /**
+     * Gets the value serde in the configured streams value format (kafka.client.streams.value-format).
+     * With a binary format, regular topics are still consumed and produced as JSON.
+     */
     <V> Serde<V> valueSerde(Class<V> valueClazz);
+
+    /**
+     * Gets the value serde in the configured streams value format, see {@link #valueSerde(Class)}.
+     */
     <V> Serde<V> valueSerde(TypeReference<V> valueClazz);
 
     <V> KStreamSerde<String,V> serde(TypeReference<V> valueClazz);
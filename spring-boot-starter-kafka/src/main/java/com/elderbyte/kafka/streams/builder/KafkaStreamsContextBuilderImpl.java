@@ -8,6 +8,8 @@ import com.elderbyte.kafka.streams.serdes.ElderJsonSerde;
 import com.elderbyte.kafka.streams.managed.KafkaStreamsContext;
 import com.elderbyte.kafka.streams.managed.KafkaStreamsContextImpl;
 import com.elderbyte.kafka.streams.serdes.ElderKeySerde;
+import com.elderbyte.kafka.streams.serdes.ElderSmileSerde;
+import com.elderbyte.kafka.streams.serdes.StreamsValueFormat;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.apache.kafka.common.serialization.Serde;
@@ -36,6 +38,7 @@ public class KafkaStreamsContextBuilderImpl implements KafkaStreamsContextBuilde
     private final KafkaStreamsConfiguration streamsConfig;
     private final StreamsBuilder streamsBuilder;
     private final ObjectMapper mapper;
+    private final StreamsValueFormat valueFormat;
 
     private boolean cleanUpOnStart = false;
     private boolean cleanUpOnStop = false;
@@ -53,9 +56,23 @@ public class KafkaStreamsContextBuilderImpl implements KafkaStreamsContextBuilde
     public KafkaStreamsContextBuilderImpl(
             ObjectMapper mapper,
             KafkaStreamsConfiguration streamsConfig
+    ) {
+        this(mapper, streamsConfig, StreamsValueFormat.JSON);
+    }
+
+    /**
+     * Creates a new KafkaStreamsBuilderImpl
+     * @param valueFormat The value format of state stores, changelogs and repartition topics.
+     */
+    public KafkaStreamsContextBuilderImpl(
+            ObjectMapper mapper,
+            KafkaStreamsConfiguration streamsConfig,
+            StreamsValueFormat valueFormat
     ) {
         if(streamsConfig == null) throw new ArgumentNullException("streamsConfig");
+        if(valueFormat == null) throw new ArgumentNullException("valueFormat");
         this.mapper = mapper;
+        this.valueFormat = valueFormat;
         this.streamsConfig = streamsConfig;
         this.streamsBuilder = new StreamsBuilder();
     }
@@ -97,7 +114,7 @@ public class KafkaStreamsContextBuilderImpl implements KafkaStreamsContextBuilde
         return from(
                 new KStreamSerde<>(
                         ElderKeySerde.from(keyClazz),
-                        ElderJsonSerde.from(mapper, valueClazz))
+                        valueSerde(valueClazz))
         );
     }
 
@@ -106,7 +123,7 @@ public class KafkaStreamsContextBuilderImpl implements KafkaStreamsContextBuilde
         return from(
                 new KStreamSerde<>(
                         ElderKeySerde.from(keyClazz),
-                        ElderJsonSerde.from(mapper, valueClazz))
+                        valueSerde(valueClazz))
         );
     }
     @Override
@@ -127,11 +144,17 @@ public class KafkaStreamsContextBuilderImpl implements KafkaStreamsContextBuilde
 
     @Override
     public <V> Serde<V> valueSerde(Class<V> valueClazz) {
+        if(valueFormat == StreamsValueFormat.SMILE){
+            return ElderSmileSerde.from(mapper, valueClazz);
+        }
         return ElderJsonSerde.from(mapper, valueClazz);
     }
 
     @Override
     public <V> Serde<V> valueSerde(TypeReference<V> valueClazz) {
+        if(valueFormat == StreamsValueFormat.SMILE){
+            return ElderSmileSerde.from(mapper, valueClazz);
+        }
         return ElderJsonSerde.from(mapper, valueClazz);
     }
 
@@ -139,7 +162,7 @@ public class KafkaStreamsContextBuilderImpl implements KafkaStreamsContextBuilde
     public <V> KStreamSerde<String,V> serde(TypeReference<V> valueClazz){
         return serde(
                 Serdes.String(),
-                ElderJsonSerde.from(mapper, valueClazz)
+                valueSerde(valueClazz)
         );
     }
 
@@ -147,7 +170,7 @@ public class KafkaStreamsContextBuilderImpl implements KafkaStreamsContextBuilde
     public <V> KStreamSerde<String,V> serde(Class<V> valueClazz){
         return serde(
                 Serdes.String(),
-                ElderJsonSerde.from(mapper, valueClazz)
+                valueSerde(valueClazz)
         );
     }
 
@@ -163,7 +186,7 @@ public class KafkaStreamsContextBuilderImpl implements KafkaStreamsContextBuilde
     public <K,V> KStreamSerde<K,V> serde(Class<K> keyClazz, TypeReference<V> valueClazz){
         return serde(
                 ElderKeySerde.from(keyClazz),
-                ElderJsonSerde.from(mapper, valueClazz)
+                valueSerde(valueClazz)
         );
     }
 
@@ -171,7 +194,7 @@ public class KafkaStreamsContextBuilderImpl implements KafkaStreamsContextBuilde
     public <K,V> KStreamSerde<K,V> serde(Class<K> keyClazz, Class<V> valueClazz){
         return serde(
                 ElderKeySerde.from(keyClazz),
-                ElderJsonSerde.from(mapper, valueClazz)
+                valueSerde(valueClazz)
         );
     }
 
@@ -1,10 +1,18 @@
 package com.elderbyte.kafka.streams.builder.dsl;
 
+import com.elderbyte.kafka.streams.serdes.ElderSmileSerde;
 import org.apache.kafka.common.serialization.Serde;
 import org.apache.kafka.common.utils.Bytes;
 import org.apache.kafka.streams.kstream.*;
 import org.apache.kafka.streams.state.KeyValueStore;
 
+/**
+ * The serdes of a stream.
+ *
+ * The value serde is used for state stores, changelogs and repartition topics,
+ * while the topic value serde is used to consume and produce regular topics.
+ * They only differ for binary store serdes (see {@link ElderSmileSerde}).
+ */
 public class KStreamSerde<K,V> {
 
     /***************************************************************************
@@ -15,6 +23,7 @@ public class KStreamSerde<K,V> {
 
     private final Serde<K> keySerde;
     private final Serde<V> valueSerde;
+    private final Serde<V> topicValueSerde;
 
     /***************************************************************************
      *                                                                         *
@@ -28,9 +37,21 @@ public class KStreamSerde<K,V> {
     public KStreamSerde(
             Serde<K> keySerde,
             Serde<V> valueSerde
+    ) {
+        this(keySerde, valueSerde, topicSerdeOf(valueSerde));
+    }
+
+    /**
+     * Creates a new ElSerde
+     */
+    public KStreamSerde(
+            Serde<K> keySerde,
+            Serde<V> valueSerde,
+            Serde<V> topicValueSerde
     ) {
         this.keySerde = keySerde;
         this.valueSerde = valueSerde;
+        this.topicValueSerde = topicValueSerde;
     }
 
     /***************************************************************************
@@ -47,6 +68,10 @@ public class KStreamSerde<K,V> {
         return valueSerde;
     };
 
+    public Serde<V> topicValue(){
+        return topicValueSerde;
+    };
+
     public Grouped<K, V> grouped(){
         return Grouped.with(keySerde, valueSerde);
     }
@@ -95,13 +120,13 @@ public class KStreamSerde<K,V> {
     }
 
     public Produced<K, V> produced() {
-        return Produced.with(keySerde, valueSerde);
+        return Produced.with(keySerde, topicValueSerde);
     }
 
     public Consumed<K, V> consumed() {
         return Consumed.with(
                 keySerde,
-                valueSerde
+                topicValueSerde
         );
     }
 
@@ -110,11 +135,11 @@ public class KStreamSerde<K,V> {
     }
 
     public <KR> KStreamSerde<KR, V> withKey(Serde<KR> keySerde) {
-        return new KStreamSerde<>(keySerde, valueSerde);
+        return new KStreamSerde<>(keySerde, valueSerde, topicValueSerde);
     }
 
     public <KAny, VR> KStreamSerde<K, VR> withValue(KStreamSerde<KAny, VR> serde) {
-        return withValue(serde.valueSerde);
+        return new KStreamSerde<>(keySerde, serde.valueSerde, serde.topicValueSerde);
     }
 
     public <VR> KStreamSerde<K, VR> withValue(Serde<VR> value) {
@@ -127,4 +152,11 @@ public class KStreamSerde<K,V> {
      *                                                                         *
      **************************************************************************/
 
+    private static <V> Serde<V> topicSerdeOf(Serde<V> valueSerde){
+        if(valueSerde instanceof ElderSmileSerde){
+            return ((ElderSmileSerde<V>) valueSerde).getTopicSerde();
+        }
+        return valueSerde;
+    }
+
 }
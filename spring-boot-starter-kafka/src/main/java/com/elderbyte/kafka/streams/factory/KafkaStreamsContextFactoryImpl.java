@@ -50,7 +50,8 @@ public class KafkaStreamsContextFactoryImpl implements KafkaStreamsContextBuilde
     public KafkaStreamsContextBuilder newStreamsBuilder(String appName) {
         return new KafkaStreamsContextBuilderImpl(
                 mapper,
-                kafkaStreamsConfiguration(appName)
+                kafkaStreamsConfiguration(appName),
+                properties.getStreams().getValueFormat()
         );
     }
 
@@ -0,0 +1,78 @@
+package com.elderbyte.kafka.streams.serdes;
+
+import com.elderbyte.kafka.serialisation.json.ElderKafkaSmileDeserializer;
+import com.elderbyte.kafka.serialisation.json.ElderKafkaSmileSerializer;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.kafka.common.serialization.Serde;
+import org.apache.kafka.common.serialization.Serdes;
+
+/**
+ * Binary serde for state stores, changelogs and repartition topics.
+ *
+ * Since other applications expect JSON on regular topics, this serde carries a JSON serde
+ * of the same type, which is used to consume and produce topics.
+ */
+public class ElderSmileSerde<T> extends Serdes.WrapperSerde<T> {
+
+    /***************************************************************************
+     *                                                                         *
+     * Static Builder                                                          *
+     *                                                                         *
+     **************************************************************************/
+
+    public static <D> ElderSmileSerde<D> from(ObjectMapper mapper, TypeReference<D> clazz){
+        return new ElderSmileSerde<>(
+                new ElderKafkaSmileSerializer<>(mapper),
+                new ElderKafkaSmileDeserializer<>(clazz, mapper),
+                ElderJsonSerde.from(mapper, clazz)
+        );
+    }
+
+    public static <D> ElderSmileSerde<D> from(ObjectMapper mapper, Class<D> clazz){
+        return new ElderSmileSerde<>(
+                new ElderKafkaSmileSerializer<>(mapper),
+                new ElderKafkaSmileDeserializer<>(clazz, mapper),
+                ElderJsonSerde.from(mapper, clazz)
+        );
+    }
+
+    /***************************************************************************
+     *                                                                         *
+     * Fields                                                                  *
+     *                                                                         *
+     **************************************************************************/
+
+    private final Serde<T> topicSerde;
+
+    /***************************************************************************
+     *                                                                         *
+     * Constructor                                                             *
+     *                                                                         *
+     **************************************************************************/
+
+    /**
+     * Creates a new ElderSmileSerde
+     */
+    private ElderSmileSerde(
+            ElderKafkaSmileSerializer<T> serializer,
+            ElderKafkaSmileDeserializer<T> deserializer,
+            Serde<T> topicSerde
+    ) {
+        super(serializer, deserializer);
+        this.topicSerde = topicSerde;
+    }
+
+    /***************************************************************************
+     *                                                                         *
+     * Properties                                                              *
+     *                                                                         *
+     **************************************************************************/
+
+    /**
+     * The JSON serde of the same type, used for regular topics.
+     */
+    public Serde<T> getTopicSerde() {
+        return topicSerde;
+    }
+}
@@ -0,0 +1,17 @@
+package com.elderbyte.kafka.streams.serdes;
+
+/**
+ * The format of values in state stores, changelogs and repartition topics.
+ */
+public enum StreamsValueFormat {
+
+    /**
+     * Plain JSON text.
+     */
+    JSON,
+
+    /**
+     * Smile, the binary form of JSON. Considerably smaller, and still reads values which have been written as JSON.
+     */
+    SMILE
+}
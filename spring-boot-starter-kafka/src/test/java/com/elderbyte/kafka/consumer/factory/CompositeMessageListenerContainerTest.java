@@ -0,0 +1,58 @@
+package com.elderbyte.kafka.consumer.factory;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class CompositeMessageListenerContainerTest {
+
+    @Test
+    public void isRunning_only_while_all_containers_are_running() {
+
+        var primary = new RunningContainer();
+        var retry = new RunningContainer();
+        var composite = new CompositeMessageListenerContainer(primary, retry);
+
+        composite.start();
+        assertTrue(composite.isRunning());
+
+        // The retry container has stopped on its own, i.e. due to a fatal error
+        retry.stop();
+        assertFalse(composite.isRunning());
+        assertTrue(composite.getPrimary().isRunning());
+        assertFalse(composite.getDependents().get(0).isRunning());
+
+        composite.start();
+        assertTrue(composite.isRunning());
+        assertEquals(1, primary.starts);
+        assertEquals(2, retry.starts);
+    }
+
+    /***************************************************************************
+     *                                                                         *
+     * Test support                                                            *
+     *                                                                         *
+     **************************************************************************/
+
+    private static class RunningContainer extends MockMessageListenerContainer {
+
+        private boolean running;
+        private int starts;
+
+        @Override
+        public void start() {
+            running = true;
+            starts++;
+        }
+
+        @Override
+        public void stop() {
+            running = false;
+        }
+
+        @Override
+        public boolean isRunning() {
+            return running;
+        }
+    }
+}
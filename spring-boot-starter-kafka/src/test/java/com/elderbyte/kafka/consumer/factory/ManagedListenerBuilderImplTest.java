@@ -0,0 +1,102 @@
+package com.elderbyte.kafka.consumer.factory;
+
+import com.elderbyte.kafka.config.KafkaClientProperties;
+import com.elderbyte.kafka.metrics.MetricsReporterLocal;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.MockConsumer;
+import org.apache.kafka.clients.consumer.OffsetResetStrategy;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.Test;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.kafka.event.ListenerContainerIdleEvent;
+import org.springframework.kafka.listener.AbstractMessageListenerContainer;
+import org.springframework.kafka.listener.BatchAcknowledgingConsumerAwareMessageListener;
+import org.springframework.kafka.listener.MessageListenerContainer;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+public class ManagedListenerBuilderImplTest {
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void idle_event_resumes_paused_partitions_of_a_container_bean() {
+
+        var globalConfig = new KafkaClientProperties();
+        globalConfig.setServers("localhost:9092");
+        var builder = new ManagedListenerBuilderImpl(globalConfig, new MetricsReporterLocal());
+
+        var configuration = configure(factory -> factory.start("top")
+                .stringKey().stringValue()
+                .blockingRetries(3)
+                .retryBackoff(Duration.ZERO, Duration.ZERO)
+                .buildBatch(records -> { throw new IllegalStateException("Sink down!"); })
+        );
+        var container = (AbstractMessageListenerContainer<byte[], byte[]>) builder.buildListenerContainer(configuration);
+        container.setAutoStartup(false);
+
+        // The context replaces the event publisher of the container bean
+        var forwarded = new ArrayList<ListenerContainerIdleEvent>();
+        var context = new GenericApplicationContext();
+        context.registerBean("listenerContainer", MessageListenerContainer.class, () -> container);
+        context.addApplicationListener((ApplicationListener<ListenerContainerIdleEvent>) forwarded::add);
+        context.refresh();
+
+        try {
+            var partition = new TopicPartition("top", 0);
+            var consumer = new MockConsumer<byte[], byte[]>(OffsetResetStrategy.EARLIEST);
+            consumer.assign(List.of(partition));
+            consumer.updateBeginningOffsets(Map.of(partition, 0L));
+
+            var listener = (BatchAcknowledgingConsumerAwareMessageListener<byte[], byte[]>) container.getContainerProperties().getMessageListener();
+            listener.onMessage(
+                    List.of(new ConsumerRecord<>("top", 0, 0L, "k".getBytes(StandardCharsets.UTF_8), "v".getBytes(StandardCharsets.UTF_8))),
+                    () -> fail("Failed records must not be acknowledged"),
+                    consumer
+            );
+            assertEquals(Set.of(partition), consumer.paused());
+
+            // As published by the consumer thread of the container
+            var idle = new ListenerContainerIdleEvent(container, container, 1000, "listenerContainer", List.of(partition), consumer, false);
+            container.getApplicationEventPublisher().publishEvent(idle);
+
+            assertTrue(consumer.paused().isEmpty());
+            assertEquals(List.of(idle), forwarded);
+        }finally {
+            context.close();
+        }
+    }
+
+    /***************************************************************************
+     *                                                                         *
+     * Test support                                                            *
+     *                                                                         *
+     **************************************************************************/
+
+    private interface ListenerConfig {
+        void configure(KafkaListenerFactoryImpl factory);
+    }
+
+    private static KafkaListenerConfiguration<?, ?> configure(ListenerConfig listenerConfig){
+        var captured = new ArrayList<KafkaListenerConfiguration<?, ?>>();
+
+        var managedListenerBuilder = new ManagedListenerBuilder() {
+            @Override
+            public <K, V> MessageListenerContainer buildListenerContainer(KafkaListenerConfiguration<K, V> configuration) {
+                captured.add(configuration);
+                return new MockMessageListenerContainer();
+            }
+        };
+
+        listenerConfig.configure(new KafkaListenerFactoryImpl(new ObjectMapper(), managedListenerBuilder));
+        return captured.get(0);
+    }
+}
@@ -1,5 +1,6 @@
 package com.elderbyte.kafka.consumer.factory;
 
+import com.elderbyte.kafka.messages.MessageBatch;
 import com.elderbyte.kafka.producer.KafkaMessage;
 import com.elderbyte.messaging.annotations.MessageHeader;
 import com.elderbyte.messaging.annotations.MessageKey;
@@ -7,6 +8,7 @@ import com.elderbyte.messaging.annotations.Tombstone;
 import org.junit.Test;
 
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import static org.junit.Assert.*;
@@ -89,4 +91,35 @@ public class MessageAnnotationProcessorTest {
         assertEquals("due", buildMessage.headers.get("meta"));
         assertEquals("bar", buildMessage.headers.get("foo"));
     }
+
+    @Test
+    public void buildMessageTombstones() {
+        var records = List.of(
+                KafkaMessage.tombstone("a", Map.of("meta", "one")).toConsumerRecord("top", 1),
+                KafkaMessage.tombstone("b", Map.of("meta", "two")).toConsumerRecord("top", 1)
+        );
+
+        var deleted = MessageAnnotationProcessor.buildMessageTombstones(records, SampleMessageDeleted.class);
+
+        assertEquals(2, deleted.size());
+        assertNotSame(deleted.get(0), deleted.get(1));
+        assertEquals("a", deleted.get(0).id);
+        assertEquals("one", deleted.get(0).meta);
+        assertEquals("b", deleted.get(1).id);
+        assertEquals("two", deleted.get(1).meta);
+    }
+
+    @Test
+    public void messageBatch_getTombstones() {
+        var records = List.of(
+                KafkaMessage.build("a", new SampleMessage(), Map.of()).toConsumerRecord("top", 1),
+                KafkaMessage.<String, SampleMessage>tombstone("b", Map.of("meta", "gone")).toConsumerRecord("top", 1)
+        );
+
+        var tombstones = MessageBatch.from(records, SampleMessageDeleted.class).getTombstones();
+
+        assertEquals(1, tombstones.size());
+        assertEquals("b", tombstones.get(0).id);
+        assertEquals("gone", tombstones.get(0).meta);
+    }
 }
@@ -0,0 +1,46 @@
+package com.elderbyte.kafka.consumer.processing;
+
+import org.junit.Test;
+
+import java.time.Duration;
+
+import static org.junit.Assert.*;
+
+public class AdaptiveBatchSizerTest {
+
+    private static final long MS = 1_000_000;
+
+    @Test
+    public void record_shrinks_immediately_when_the_sink_slows_down() {
+        var sizer = new AdaptiveBatchSizer(Duration.ofMillis(100), 1, 1000);
+
+        sizer.record(100, 1000 * MS); // 10ms per record
+
+        assertEquals(10, sizer.nextSize());
+    }
+
+    @Test
+    public void record_grows_gradually_when_the_sink_speeds_up() {
+        var sizer = new AdaptiveBatchSizer(Duration.ofMillis(100), 1, 1000);
+        sizer.record(100, 1000 * MS);
+
+        sizer.record(10, 0);
+        assertEquals(14, sizer.nextSize()); // smoothed to 7ms per record
+
+        sizer.record(14, 0);
+        assertEquals(20, sizer.nextSize()); // smoothed to 4.9ms per record
+    }
+
+    @Test
+    public void record_respects_the_bounds() {
+        var sizer = new AdaptiveBatchSizer(Duration.ofMillis(100), 5, 50);
+
+        sizer.record(100, 100_000 * MS);
+        assertEquals(5, sizer.nextSize());
+
+        for(int i = 0; i < 30; i++){
+            sizer.record(sizer.nextSize(), MS);
+        }
+        assertEquals(50, sizer.nextSize());
+    }
+}
@@ -0,0 +1,478 @@
+package com.elderbyte.kafka.consumer.processing;
+
+import com.elderbyte.kafka.consumer.factory.KafkaListenerBuilder;
+import com.elderbyte.kafka.consumer.factory.KafkaListenerConfiguration;
+import com.elderbyte.kafka.consumer.factory.KafkaListenerFactoryImpl;
+import com.elderbyte.kafka.consumer.factory.ManagedListenerBuilder;
+import com.elderbyte.kafka.consumer.factory.MockMessageListenerContainer;
+import com.elderbyte.kafka.consumer.processing.retry.RetryPolicy;
+import com.elderbyte.kafka.consumer.processing.retry.ScheduleRetryErrorHandler;
+import com.elderbyte.kafka.metrics.MetricsContext;
+import com.elderbyte.kafka.metrics.MetricsReporterLocal;
+import com.elderbyte.kafka.producer.BulkSendResult;
+import com.elderbyte.kafka.producer.KafkaMessage;
+import com.elderbyte.kafka.producer.mock.KafkaProducerMock;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.MockConsumer;
+import org.apache.kafka.clients.consumer.OffsetResetStrategy;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.Test;
+import org.springframework.kafka.listener.MessageListenerContainer;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static java.util.stream.Collectors.toList;
+import static org.junit.Assert.*;
+
+public class ManagedProcessorImplTest {
+
+    @Test
+    public void processMessages_bisectOnError_isolates_poison_records() {
+
+        var processed = new ArrayList<String>();
+        var failed = new ArrayList<String>();
+        var acks = new AtomicInteger();
+
+        var config = configure(
+                builder -> builder.stringKey().stringValue()
+                        .bisectOnError()
+                        .errorHandler(records -> failed.addAll(values(records))),
+                records -> {
+                    if(values(records).contains("poison")) throw new IllegalStateException("Poison!");
+                    processed.addAll(values(records));
+                }
+        );
+
+        var processor = new ManagedProcessorImpl<>(config, new MetricsReporterLocal());
+
+        var raw = new ArrayList<ConsumerRecord<byte[], byte[]>>();
+        for(int i = 0; i < 10; i++){
+            raw.add(record(i, i == 3 || i == 7 ? "poison" : String.valueOf(i)));
+        }
+
+        processor.processMessages(raw, acks::incrementAndGet, null);
+
+        assertEquals(List.of("0", "1", "2", "4", "5", "6", "8", "9"), processed);
+        assertEquals(List.of("poison", "poison"), failed);
+        assertEquals(1, acks.get());
+    }
+
+    @Test
+    public void processMessages_retries_by_rewinding_instead_of_blocking() {
+
+        var attempts = new AtomicInteger();
+        var processed = new ArrayList<String>();
+        var acks = new AtomicInteger();
+
+        var config = configure(
+                builder -> builder.stringKey().stringValue()
+                        .blockingRetries(3)
+                        .retryBackoff(Duration.ZERO, Duration.ZERO),
+                records -> {
+                    if(attempts.incrementAndGet() < 3) throw new IllegalStateException("Sink down!");
+                    processed.addAll(values(records));
+                }
+        );
+
+        var processor = new ManagedProcessorImpl<>(config, new MetricsReporterLocal());
+        var partition = new TopicPartition("top", 0);
+        var consumer = new MockConsumer<byte[], byte[]>(OffsetResetStrategy.EARLIEST);
+        consumer.assign(List.of(partition));
+        consumer.updateBeginningOffsets(Map.of(partition, 0L));
+
+        for(int i = 1; i <= 2; i++){
+            processor.processMessages(poll(consumer, "a", "b"), acks::incrementAndGet, consumer);
+
+            // Rewound and paused, the consumer thread is not blocked
+            assertEquals(i, attempts.get());
+            assertEquals(Set.of(partition), consumer.paused());
+            assertEquals(0, consumer.position(partition));
+            assertEquals(0, acks.get());
+
+            processor.onIdle(consumer);
+            assertTrue(consumer.paused().isEmpty());
+        }
+
+        processor.processMessages(poll(consumer, "a", "b"), acks::incrementAndGet, consumer);
+
+        assertEquals(List.of("a", "b"), processed);
+        assertEquals(1, acks.get());
+    }
+
+    @Test
+    public void processMessages_does_not_skip_records_if_the_retry_topic_is_unavailable() {
+
+        var brokerDown = new AtomicBoolean(true);
+        var published = new ArrayList<String>();
+        var acks = new AtomicInteger();
+
+        var policy = RetryPolicy.tiered(Duration.ofSeconds(10));
+        var config = configure(
+                builder -> builder.stringKey().stringValue()
+                        .retryTopics(policy)
+                        .retryBackoff(Duration.ZERO, Duration.ZERO),
+                records -> { throw new IllegalStateException("Poison!"); }
+        );
+
+        var producer = new KafkaProducerMock<byte[], byte[]>(){
+            @Override
+            public CompletableFuture<BulkSendResult> sendBulk(String topic, Collection<KafkaMessage<byte[], byte[]>> messages, boolean keepMetadata, boolean flush) {
+                if(brokerDown.get()){
+                    return CompletableFuture.failedFuture(new IllegalStateException("Broker down!"));
+                }
+                messages.forEach(m -> published.add(new String(m.getValue(), StandardCharsets.UTF_8)));
+                return CompletableFuture.completedFuture(new BulkSendResult(messages.size(), null));
+            }
+        };
+
+        var processor = new ManagedProcessorImpl<>(config, new MetricsReporterLocal(), null, new ScheduleRetryErrorHandler(producer, policy));
+        var partition = new TopicPartition("top", 0);
+        var consumer = new MockConsumer<byte[], byte[]>(OffsetResetStrategy.EARLIEST);
+        consumer.assign(List.of(partition));
+        consumer.updateBeginningOffsets(Map.of(partition, 0L));
+
+        processor.processMessages(poll(consumer, "a", "b"), acks::incrementAndGet, consumer);
+
+        // Not skipped, but rewound and paused like a failed attempt
+        assertEquals(0, acks.get());
+        assertEquals(Set.of(partition), consumer.paused());
+        assertEquals(0, consumer.position(partition));
+        assertTrue(published.isEmpty());
+
+        brokerDown.set(false);
+        processor.onIdle(consumer);
+        processor.processMessages(poll(consumer, "a", "b"), acks::incrementAndGet, consumer);
+
+        // The string values are forwarded as they have been polled, not re-encoded as json
+        assertEquals(List.of("a", "b"), published);
+        assertEquals(1, acks.get());
+    }
+
+    @Test
+    public void processMessages_pauses_while_sink_is_unhealthy() {
+
+        var healthy = new AtomicBoolean(false);
+        var processed = new ArrayList<String>();
+        var acks = new AtomicInteger();
+        var pausedReports = new AtomicInteger();
+
+        var config = configure(
+                builder -> builder.stringKey().stringValue()
+                        .sinkHealth(healthy::get, Duration.ZERO),
+                records -> processed.addAll(values(records))
+        );
+
+        var reporter = new MetricsReporterLocal(){
+            @Override
+            public void reportPausedTime(MetricsContext context, long pausedNano) {
+                pausedReports.incrementAndGet();
+            }
+        };
+
+        var processor = new ManagedProcessorImpl<>(config, reporter);
+        var partition = new TopicPartition("top", 0);
+        var consumer = new MockConsumer<byte[], byte[]>(OffsetResetStrategy.EARLIEST);
+        consumer.assign(List.of(partition));
+        consumer.updateBeginningOffsets(Map.of(partition, 0L));
+
+        processor.processMessages(poll(consumer, "a", "b"), acks::incrementAndGet, consumer);
+
+        // The batch is not wasted on the unhealthy sink, but delivered again later
+        assertTrue(processed.isEmpty());
+        assertEquals(0, acks.get());
+        assertEquals(Set.of(partition), consumer.paused());
+        assertEquals(0, consumer.position(partition));
+
+        processor.onIdle(consumer);
+        assertEquals(Set.of(partition), consumer.paused());
+
+        healthy.set(true);
+        processor.onIdle(consumer);
+        assertTrue(consumer.paused().isEmpty());
+        assertEquals(1, pausedReports.get());
+
+        processor.processMessages(poll(consumer, "a", "b"), acks::incrementAndGet, consumer);
+
+        assertEquals(List.of("a", "b"), processed);
+        assertEquals(1, acks.get());
+    }
+
+    @Test
+    public void processMessages_adaptive_batch_size_feeds_slices_and_acks_once() {
+
+        var slices = new ArrayList<List<String>>();
+        var acks = new AtomicInteger();
+
+        var config = configure(
+                builder -> builder.stringKey().stringValue()
+                        .adaptiveBatchSize(Duration.ofMinutes(1), 2, 2),
+                records -> slices.add(values(records))
+        );
+
+        var processor = new ManagedProcessorImpl<>(config, new MetricsReporterLocal());
+        var partition = new TopicPartition("top", 0);
+        var consumer = new MockConsumer<byte[], byte[]>(OffsetResetStrategy.EARLIEST);
+        consumer.assign(List.of(partition));
+        consumer.updateBeginningOffsets(Map.of(partition, 0L));
+
+        processor.processMessages(poll(consumer, "a", "b", "c", "d", "e"), acks::incrementAndGet, consumer);
+
+        assertEquals(List.of(List.of("a", "b"), List.of("c", "d"), List.of("e")), slices);
+        assertEquals(1, acks.get());
+    }
+
+    @Test
+    public void processMessages_adaptive_batch_size_polls_remaining_slices_again_once_the_budget_is_used_up() {
+
+        var slices = new ArrayList<List<String>>();
+        var slowSink = new AtomicBoolean(true);
+        var acks = new AtomicInteger();
+
+        var config = configure(
+                builder -> builder.stringKey().stringValue()
+                        .adaptiveBatchSize(Duration.ofMinutes(1), 2, 2, Duration.ofMillis(100)),
+                records -> {
+                    if(slowSink.get()){
+                        try { Thread.sleep(60); } catch (InterruptedException e) { throw new IllegalStateException(e); }
+                    }
+                    slices.add(values(records));
+                }
+        );
+
+        var processor = new ManagedProcessorImpl<>(config, new MetricsReporterLocal());
+        var partition = new TopicPartition("top", 0);
+        var consumer = new MockConsumer<byte[], byte[]>(OffsetResetStrategy.EARLIEST);
+        consumer.assign(List.of(partition));
+        consumer.updateBeginningOffsets(Map.of(partition, 0L));
+
+        processor.processMessages(poll(consumer, "a", "b", "c", "d", "e", "f"), acks::incrementAndGet, consumer);
+
+        // Only the slices within the budget are processed and committed, the rest is polled again
+        assertEquals(List.of(List.of("a", "b"), List.of("c", "d")), slices);
+        assertEquals(0, acks.get());
+        assertEquals(4, consumer.committed(partition).offset());
+        assertEquals(4, consumer.position(partition));
+        assertTrue(consumer.paused().isEmpty());
+
+        slowSink.set(false);
+        processor.processMessages(poll(consumer, 4, "e", "f"), acks::incrementAndGet, consumer);
+
+        assertEquals(List.of(List.of("a", "b"), List.of("c", "d"), List.of("e", "f")), slices);
+        assertEquals(1, acks.get());
+    }
+
+    @Test
+    public void processMessages_microBatch_accumulates_across_polls_and_flushes_on_revoke() {
+
+        var batches = new ArrayList<List<String>>();
+        var acks = new AtomicInteger();
+
+        var config = configure(
+                builder -> builder.stringKey().stringValue()
+                        .microBatch(3, Long.MAX_VALUE, Duration.ofMinutes(1)),
+                records -> batches.add(values(records))
+        );
+
+        var processor = new ManagedProcessorImpl<>(config, new MetricsReporterLocal());
+        var partition = new TopicPartition("top", 0);
+        var consumer = new MockConsumer<byte[], byte[]>(OffsetResetStrategy.EARLIEST);
+        consumer.assign(List.of(partition));
+        consumer.updateBeginningOffsets(Map.of(partition, 0L));
+
+        processor.processMessages(poll(consumer, 0, "a"), acks::incrementAndGet, consumer);
+        assertTrue(batches.isEmpty());
+
+        processor.processMessages(poll(consumer, 1, "b", "c"), acks::incrementAndGet, consumer);
+        assertEquals(List.of(List.of("a", "b", "c")), batches);
+        assertEquals(3, consumer.committed(partition).offset());
+
+        processor.processMessages(poll(consumer, 3, "d"), acks::incrementAndGet, consumer);
+        processor.onPartitionsRevoked(consumer, List.of(partition));
+
+        assertEquals(List.of("d"), batches.get(1));
+        assertEquals(4, consumer.committed(partition).offset());
+        assertEquals("The poll acks are not used, the covering offsets are committed instead", 0, acks.get());
+    }
+
+    @Test
+    public void processMessages_microBatch_does_not_accumulate_stale_records() {
+
+        var attempts = new AtomicInteger();
+        var batches = new ArrayList<List<String>>();
+
+        var config = configure(
+                builder -> builder.stringKey().stringValue()
+                        .microBatch(3, Long.MAX_VALUE, Duration.ofMinutes(1))
+                        .blockingRetries(3)
+                        .retryBackoff(Duration.ZERO, Duration.ZERO),
+                records -> {
+                    if(attempts.incrementAndGet() == 1) throw new IllegalStateException("Sink down!");
+                    batches.add(values(records));
+                }
+        );
+
+        var processor = new ManagedProcessorImpl<>(config, new MetricsReporterLocal());
+        var partition = new TopicPartition("top", 0);
+        var consumer = new MockConsumer<byte[], byte[]>(OffsetResetStrategy.EARLIEST);
+        consumer.assign(List.of(partition));
+        consumer.updateBeginningOffsets(Map.of(partition, 0L));
+
+        processor.processMessages(poll(consumer, 0, "a", "b", "c"), () -> {}, consumer);
+        assertEquals(0, consumer.position(partition));
+
+        // Fetched before the rewind, this record is polled again
+        processor.processMessages(List.of(record(3, "d")), () -> {}, consumer);
+
+        processor.onIdle(consumer);
+        processor.processMessages(poll(consumer, 0, "a", "b", "c", "d"), () -> {}, consumer);
+
+        assertEquals(List.of(List.of("a", "b", "c", "d")), batches);
+        assertEquals(4, consumer.committed(partition).offset());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void microBatch_requires_manual_ack() {
+        configure(
+                builder -> builder.stringKey().stringValue()
+                        .microBatch(2, Long.MAX_VALUE, Duration.ofMinutes(1))
+                        .autoCommit(true),
+                records -> { }
+        );
+    }
+
+    @Test
+    public void processMessages_compactionWindow_keeps_latest_record_per_key_across_polls() {
+
+        var batches = new ArrayList<List<String>>();
+
+        var config = configure(
+                builder -> builder.stringKey().stringValue()
+                        .compactionWindow(3, Duration.ofMinutes(1)),
+                records -> batches.add(values(records))
+        );
+
+        var processor = new ManagedProcessorImpl<>(config, new MetricsReporterLocal());
+        var partition = new TopicPartition("top", 0);
+        var consumer = new MockConsumer<byte[], byte[]>(OffsetResetStrategy.EARLIEST);
+        consumer.assign(List.of(partition));
+        consumer.updateBeginningOffsets(Map.of(partition, 0L));
+
+        processor.processMessages(pollKeyed(consumer, 0, "a", "a1", "b", "b1"), () -> {}, consumer);
+        processor.processMessages(pollKeyed(consumer, 2, "a", "a2", "a", "a3"), () -> {}, consumer);
+        assertTrue("Superseded records do not count towards the window", batches.isEmpty());
+
+        processor.processMessages(pollKeyed(consumer, 4, "c", "c1"), () -> {}, consumer);
+
+        assertEquals(List.of(List.of("b1", "a3", "c1")), batches);
+        assertEquals(5, consumer.committed(partition).offset());
+    }
+
+    @Test
+    public void processMessages_filterRaw_drops_records_before_decoding_and_still_acks() {
+
+        var processed = new ArrayList<String>();
+        var acks = new AtomicInteger();
+        var filtered = new AtomicInteger();
+
+        var config = configure(
+                builder -> builder.stringKey().stringValue()
+                        .filterRaw(record -> record.value()[0] != 'x'),
+                records -> processed.addAll(values(records))
+        );
+
+        var reporter = new MetricsReporterLocal(){
+            @Override
+            public void reportFilteredRecords(MetricsContext context, int filteredCount) {
+                filtered.addAndGet(filteredCount);
+            }
+        };
+
+        var processor = new ManagedProcessorImpl<>(config, reporter);
+
+        processor.processMessages(List.of(record(0, "a"), record(1, "x1"), record(2, "b")), acks::incrementAndGet, null);
+        processor.processMessages(List.of(record(3, "x2")), acks::incrementAndGet, null);
+
+        assertEquals(List.of("a", "b"), processed);
+        assertEquals(2, filtered.get());
+        assertEquals(2, acks.get());
+    }
+
+    /***************************************************************************
+     *                                                                         *
+     * Test support                                                            *
+     *                                                                         *
+     **************************************************************************/
+
+    private interface BuilderConfig {
+        KafkaListenerBuilder<String, String> configure(KafkaListenerBuilder<byte[], byte[]> builder);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static KafkaListenerConfiguration<String, String> configure(
+            BuilderConfig builderConfig,
+            Processor<List<ConsumerRecord<String, String>>> processor){
+
+        var captured = new ArrayList<KafkaListenerConfiguration<?, ?>>();
+
+        var managedListenerBuilder = new ManagedListenerBuilder() {
+            @Override
+            public <K, V> MessageListenerContainer buildListenerContainer(KafkaListenerConfiguration<K, V> configuration) {
+                captured.add(configuration);
+                return new MockMessageListenerContainer();
+            }
+        };
+
+        var factory = new KafkaListenerFactoryImpl(new ObjectMapper(), managedListenerBuilder);
+        builderConfig.configure(factory.start("top")).buildBatch(processor);
+
+        return (KafkaListenerConfiguration<String, String>)captured.get(0);
+    }
+
+    private static List<String> values(List<ConsumerRecord<String, String>> records){
+        return records.stream().map(ConsumerRecord::value).collect(toList());
+    }
+
+    private static List<ConsumerRecord<byte[], byte[]>> poll(MockConsumer<byte[], byte[]> consumer, String... values){
+        return poll(consumer, 0, values);
+    }
+
+    private static List<ConsumerRecord<byte[], byte[]>> poll(MockConsumer<byte[], byte[]> consumer, long firstOffset, String... values){
+        for(int i = 0; i < values.length; i++){
+            consumer.addRecord(record(firstOffset + i, values[i]));
+        }
+        var polled = new ArrayList<ConsumerRecord<byte[], byte[]>>();
+        consumer.poll(Duration.ZERO).forEach(polled::add);
+        return polled;
+    }
+
+    private static List<ConsumerRecord<byte[], byte[]>> pollKeyed(MockConsumer<byte[], byte[]> consumer, long firstOffset, String... keyValues){
+        for(int i = 0; i < keyValues.length; i += 2){
+            consumer.addRecord(new ConsumerRecord<>(
+                    "top", 0, firstOffset + i / 2,
+                    keyValues[i].getBytes(StandardCharsets.UTF_8),
+                    keyValues[i + 1].getBytes(StandardCharsets.UTF_8)
+            ));
+        }
+        var polled = new ArrayList<ConsumerRecord<byte[], byte[]>>();
+        consumer.poll(Duration.ZERO).forEach(polled::add);
+        return polled;
+    }
+
+    private static ConsumerRecord<byte[], byte[]> record(long offset, String value){
+        return new ConsumerRecord<>(
+                "top", 0, offset,
+                ("k" + offset).getBytes(StandardCharsets.UTF_8),
+                value.getBytes(StandardCharsets.UTF_8)
+        );
+    }
+}
@@ -0,0 +1,58 @@
+package com.elderbyte.kafka.consumer.processing;
+
+import org.apache.kafka.clients.consumer.MockConsumer;
+import org.apache.kafka.clients.consumer.OffsetResetStrategy;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+public class PartitionPauseControlTest {
+
+    private final TopicPartition p0 = new TopicPartition("orders", 0);
+    private final TopicPartition p1 = new TopicPartition("orders", 1);
+
+    @Test
+    public void pause_seeks_back_and_resumes_once_due() {
+
+        var consumer = consumer();
+        var control = new PartitionPauseControl();
+
+        control.pause(consumer, p0, 5, 1000);
+
+        assertEquals(Set.of(p0), consumer.paused());
+        assertEquals(5, consumer.position(p0));
+        assertTrue(control.isPaused(p0));
+
+        assertTrue(control.resumeDue(consumer, 999).isEmpty());
+        assertEquals(Set.of(p0), consumer.paused());
+
+        assertEquals(List.of(p0), control.resumeDue(consumer, 1000));
+        assertTrue(consumer.paused().isEmpty());
+        assertFalse(control.hasPaused());
+    }
+
+    @Test
+    public void resumeDue_forgets_revoked_partitions() {
+
+        var consumer = consumer();
+        var control = new PartitionPauseControl();
+
+        control.pause(consumer, p1, 0, 1000);
+        consumer.assign(List.of(p0));
+
+        assertTrue(control.resumeDue(consumer, 0).isEmpty());
+        assertFalse(control.isPaused(p1));
+    }
+
+    private MockConsumer<byte[], byte[]> consumer(){
+        var consumer = new MockConsumer<byte[], byte[]>(OffsetResetStrategy.EARLIEST);
+        consumer.assign(List.of(p0, p1));
+        consumer.updateBeginningOffsets(Map.of(p0, 0L, p1, 0L));
+        return consumer;
+    }
+}
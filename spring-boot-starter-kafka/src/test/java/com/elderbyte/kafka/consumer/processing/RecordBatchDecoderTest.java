@@ -0,0 +1,103 @@
+package com.elderbyte.kafka.consumer.processing;
+
+import com.elderbyte.kafka.metrics.MetricsContext;
+import com.elderbyte.kafka.metrics.MetricsReporterLocal;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.serialization.Deserializer;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class RecordBatchDecoderTest {
+
+    @Test
+    public void decodeAllRecords_parallel_keeps_order_and_skips_malformed() {
+
+        var malformed = new ConcurrentLinkedQueue<Long>();
+        var reporter = new MetricsReporterLocal(){
+            @Override
+            public void reportMalformedRecord(MetricsContext context, ConsumerRecord<byte[], byte[]> record, Exception e) {
+                malformed.add(record.offset());
+            }
+        };
+
+        Deserializer<Integer> valueDeserializer = (topic, data) -> {
+            var str = new String(data, StandardCharsets.UTF_8);
+            if(str.equals("bad")) throw new IllegalArgumentException("Poison!");
+            return Integer.parseInt(str);
+        };
+
+        var decoder = new RecordBatchDecoder<>(
+                reporter,
+                MetricsContext.from("app", "instance"),
+                new StringDeserializer(),
+                valueDeserializer,
+                10,
+                new ForkJoinPool(4)
+        );
+
+        var raw = new ArrayList<ConsumerRecord<byte[], byte[]>>();
+        for(int i = 0; i < 1000; i++){
+            raw.add(record(i, i % 100 == 0 ? "bad" : String.valueOf(i)));
+        }
+
+        List<ConsumerRecord<String, Integer>> decoded = decoder.decodeAllRecords(raw);
+
+        assertEquals(990, decoded.size());
+        assertEquals(10, malformed.size());
+
+        int expected = 1;
+        for(var r : decoded){
+            if(expected % 100 == 0) expected++;
+            assertEquals(expected, (int)r.value());
+            assertEquals("k" + expected, r.key());
+            expected++;
+        }
+    }
+
+    @Test
+    public void decodeAllRecords_lazy_decodes_values_on_first_access_only() {
+
+        var decodedValues = new AtomicInteger();
+        Deserializer<Integer> valueDeserializer = (topic, data) -> {
+            decodedValues.incrementAndGet();
+            return Integer.parseInt(new String(data, StandardCharsets.UTF_8));
+        };
+
+        var decoder = new RecordBatchDecoder<>(
+                new MetricsReporterLocal(),
+                MetricsContext.from("app", "instance"),
+                new StringDeserializer(),
+                valueDeserializer,
+                0,
+                null,
+                true
+        );
+
+        List<ConsumerRecord<String, Integer>> decoded = decoder.decodeAllRecords(List.of(record(0, "0"), record(1, "1")));
+
+        assertEquals(2, decoded.size());
+        assertEquals("k1", decoded.get(1).key());
+        assertEquals(0, decodedValues.get());
+
+        assertEquals(Integer.valueOf(1), decoded.get(1).value());
+        assertEquals(Integer.valueOf(1), decoded.get(1).value());
+        assertEquals(1, decodedValues.get());
+    }
+
+    private ConsumerRecord<byte[], byte[]> record(long offset, String value){
+        return new ConsumerRecord<>(
+                "top", 0, offset,
+                ("k" + offset).getBytes(StandardCharsets.UTF_8),
+                value.getBytes(StandardCharsets.UTF_8)
+        );
+    }
+}
@@ -0,0 +1,164 @@
+package com.elderbyte.kafka.consumer.processing.parallel;
+
+import com.elderbyte.kafka.consumer.configuration.ShardingStrategy;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class ParallelBatchProcessorTest {
+
+    @Test
+    public void proccess_keeps_order_per_key() throws Exception {
+
+        var processed = new ConcurrentHashMap<String, List<String>>();
+
+        var processor = ParallelBatchProcessor.<String, String>withWorkers(
+                shard -> shard.forEach(r -> processed.computeIfAbsent(String.valueOf(r.key()), k -> Collections.synchronizedList(new ArrayList<>())).add(r.value())),
+                4,
+                ShardingStrategy.KEY
+        );
+
+        processor.proccess(Arrays.asList(
+                record(0, "A", "1"),
+                record(1, "B", "1"),
+                record(0, "A", "2"),
+                record(2, "C", "1"),
+                record(1, "B", "2"),
+                record(0, "A", "3")
+        ));
+
+        assertEquals(Arrays.asList("1", "2", "3"), processed.get("A"));
+        assertEquals(Arrays.asList("1", "2"), processed.get("B"));
+        assertEquals(Arrays.asList("1"), processed.get("C"));
+    }
+
+    @Test
+    public void proccess_keeps_order_per_partition() throws Exception {
+
+        var processed = new ConcurrentHashMap<Integer, List<String>>();
+
+        var processor = ParallelBatchProcessor.<String, String>withWorkers(
+                shard -> shard.forEach(r -> processed.computeIfAbsent(r.partition(), k -> Collections.synchronizedList(new ArrayList<>())).add(r.value())),
+                2,
+                ShardingStrategy.PARTITION
+        );
+
+        processor.proccess(Arrays.asList(
+                record(0, "A", "1"),
+                record(1, "B", "2"),
+                record(0, "C", "3"),
+                record(2, "D", "4"),
+                record(1, "E", "5")
+        ));
+
+        assertEquals(Arrays.asList("1", "3"), processed.get(0));
+        assertEquals(Arrays.asList("2", "5"), processed.get(1));
+        assertEquals(Arrays.asList("4"), processed.get(2));
+    }
+
+    @Test
+    public void proccess_key_groups_thread_per_task() throws Exception {
+
+        var processed = new ConcurrentHashMap<String, List<String>>();
+
+        var processor = new ParallelBatchProcessor<String, String>(
+                shard -> shard.forEach(r -> processed.computeIfAbsent(String.valueOf(r.key()), k -> Collections.synchronizedList(new ArrayList<>())).add(r.value())),
+                VirtualThreadExecutors.newThreadPerTaskExecutor(),
+                Integer.MAX_VALUE,
+                ShardingStrategy.KEY
+        );
+
+        processor.proccess(Arrays.asList(
+                record(0, "A", "1"),
+                record(0, "B", "1"),
+                record(0, "A", "2"),
+                record(0, null, "x"),
+                record(0, "A", "3")
+        ));
+
+        assertEquals(Arrays.asList("1", "2", "3"), processed.get("A"));
+        assertEquals(Arrays.asList("1"), processed.get("B"));
+        assertEquals(3, processed.size());
+    }
+
+    @Test
+    public void shutdown_releases_the_workers_and_recreates_them_on_demand() throws Exception {
+
+        var threads = ConcurrentHashMap.<Thread>newKeySet();
+        var bothShards = new CyclicBarrier(2); // Forces a worker to process the other shard
+        var processor = ParallelBatchProcessor.<String, String>withWorkers(
+                shard -> {
+                    threads.add(Thread.currentThread());
+                    bothShards.await(5, TimeUnit.SECONDS);
+                },
+                2,
+                ShardingStrategy.PARTITION
+        );
+        var batch = Arrays.asList(record(0, "A", "1"), record(1, "B", "1"));
+
+        processor.proccess(batch);
+        var workers = new ArrayList<>(threads);
+        workers.remove(Thread.currentThread());
+        assertFalse(workers.isEmpty());
+
+        processor.shutdown();
+        for(var worker : workers){
+            worker.join(5_000);
+            assertFalse(worker.isAlive());
+        }
+
+        // Restarted, i.e. with the listener container
+        threads.clear();
+        processor.proccess(batch);
+        assertEquals(2, threads.size());
+    }
+
+    @Test
+    public void thread_per_task_fallback_is_bounded() {
+        var executor = VirtualThreadExecutors.newThreadPerTaskExecutor();
+        try {
+            if(VirtualThreadExecutors.isSupported()){
+                assertEquals(Integer.MAX_VALUE, VirtualThreadExecutors.maxConcurrency());
+            }else{
+                assertTrue(executor instanceof ThreadPoolExecutor);
+                assertEquals(VirtualThreadExecutors.maxConcurrency(), ((ThreadPoolExecutor) executor).getMaximumPoolSize());
+            }
+        }finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void proccess_fails_whole_batch() throws Exception {
+
+        var processor = ParallelBatchProcessor.<String, String>withWorkers(
+                shard -> {
+                    for(var r : shard){
+                        if("B".equals(r.key())) throw new IllegalStateException("Poison!");
+                    }
+                },
+                4,
+                ShardingStrategy.KEY
+        );
+
+        processor.proccess(Arrays.asList(
+                record(0, "A", "1"),
+                record(0, "B", "1"),
+                record(0, "C", "1")
+        ));
+    }
+
+    private ConsumerRecord<String, String> record(int partition, String key, String value){
+        return new ConsumerRecord<>("top", partition, 0, key, value);
+    }
+}
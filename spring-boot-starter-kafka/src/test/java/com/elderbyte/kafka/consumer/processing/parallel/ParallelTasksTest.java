@@ -0,0 +1,90 @@
+package com.elderbyte.kafka.consumer.processing.parallel;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class ParallelTasksTest {
+
+    @Test(timeout = 10_000)
+    public void runAll_completes_on_a_busy_executor() throws Exception {
+        var executor = Executors.newSingleThreadExecutor();
+        var release = new CountDownLatch(1);
+        try {
+            executor.execute(() -> awaitQuietly(release)); // Occupies the only worker
+
+            var done = new ConcurrentLinkedQueue<Integer>();
+            var tasks = new ArrayList<ParallelTasks.Task>();
+            for(int i = 0; i < 3; i++){
+                int n = i;
+                tasks.add(() -> done.add(n));
+            }
+
+            ParallelTasks.runAll(tasks, executor);
+
+            assertEquals(3, done.size());
+        }finally {
+            release.countDown();
+            executor.shutdown();
+        }
+    }
+
+    @Test(timeout = 10_000)
+    public void runAll_nested_on_a_shared_executor_does_not_deadlock() throws Exception {
+        var executor = Executors.newFixedThreadPool(2);
+        try {
+            var done = new ConcurrentLinkedQueue<String>();
+            var outer = new ArrayList<ParallelTasks.Task>();
+            for(int i = 0; i < 4; i++){
+                int n = i;
+                outer.add(() -> ParallelTasks.runAll(List.of(
+                        () -> done.add(n + "a"),
+                        () -> done.add(n + "b")
+                ), executor));
+            }
+
+            ParallelTasks.runAll(outer, executor);
+
+            assertEquals(8, done.size());
+        }finally {
+            executor.shutdown();
+            executor.awaitTermination(1, TimeUnit.SECONDS);
+        }
+    }
+
+    @Test
+    public void runAll_awaits_all_and_suppresses_further_failures() {
+        var executor = Executors.newFixedThreadPool(2);
+        var done = new ConcurrentLinkedQueue<String>();
+        try {
+            ParallelTasks.runAll(List.of(
+                    () -> { throw new IllegalStateException("first"); },
+                    () -> done.add("ok"),
+                    () -> { throw new IllegalArgumentException("second"); }
+            ), executor);
+            fail("Expected the batch to fail");
+        }catch (Exception e){
+            assertEquals("first", e.getMessage());
+            assertEquals(1, e.getSuppressed().length);
+            assertEquals("second", e.getSuppressed()[0].getMessage());
+            assertEquals(List.of("ok"), new ArrayList<>(done));
+        }finally {
+            executor.shutdown();
+        }
+    }
+
+    private static void awaitQuietly(CountDownLatch latch){
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package com.elderbyte.kafka.consumer.processing.retry;
+
+import com.elderbyte.kafka.producer.BulkSendResult;
+import com.elderbyte.kafka.producer.KafkaMessage;
+import com.elderbyte.kafka.producer.mock.KafkaProducerMock;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.header.internals.RecordHeader;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.*;
+
+public class ScheduleRetryErrorHandlerTest {
+
+    private final RetryPolicy policy = RetryPolicy.tiered(Duration.ofSeconds(10), Duration.ofMinutes(1));
+
+    @Test
+    public void handleError_failed_main_record_goes_to_first_tier() {
+
+        var producer = new CapturingProducer();
+        var handler = new ScheduleRetryErrorHandler(producer, policy);
+
+        var record = new ConsumerRecord<>("orders", 2, 42L, bytes("key"), bytes("\"value\""));
+        record.headers().add(new RecordHeader("tenant", "acme".getBytes(StandardCharsets.UTF_8)));
+
+        long before = System.currentTimeMillis();
+        handler.handleError(List.of(record));
+
+        var sent = producer.sent.get("orders-retry-1");
+        assertNotNull(sent);
+        assertEquals(1, sent.size());
+
+        var message = sent.get(0);
+        // The raw bytes are forwarded as they are, without being serialized again
+        assertArrayEquals(bytes("key"), message.getKey());
+        assertArrayEquals(bytes("\"value\""), message.getValue());
+        assertEquals("acme", header(message, "tenant"));
+        assertEquals("orders", header(message, RetryHeaders.ORIGINAL_TOPIC));
+        assertEquals("2", header(message, RetryHeaders.ORIGINAL_PARTITION));
+        assertEquals("42", header(message, RetryHeaders.ORIGINAL_OFFSET));
+        assertEquals("1", header(message, RetryHeaders.ATTEMPT));
+        assertTrue(Long.parseLong(header(message, RetryHeaders.DUE_AT)) >= before + 10_000);
+    }
+
+    @Test
+    public void handleError_forwards_headers_byte_for_byte() {
+
+        var producer = new CapturingProducer();
+        var handler = new ScheduleRetryErrorHandler(producer, policy);
+
+        var binary = new byte[]{ (byte)0xFF, 0x00, (byte)0xC3 };
+        var record = retryRecord("orders-retry-1", 1);
+        record.headers().add(new RecordHeader("schema-id", binary));
+        record.headers().add(header("trace", "a"));
+        record.headers().add(header("trace", "b"));
+
+        handler.handleError(List.of(record));
+
+        var message = producer.sent.get("orders-retry-2").get(0);
+        var userHeaders = message.getRecordHeaders().stream()
+                .filter(h -> !RetryHeaders.isRetryHeader(h.key()))
+                .collect(Collectors.toList());
+
+        assertEquals(3, userHeaders.size());
+        assertEquals("schema-id", userHeaders.get(0).key());
+        assertArrayEquals(binary, userHeaders.get(0).value());
+        assertArrayEquals(bytes("a"), userHeaders.get(1).value());
+        assertArrayEquals(bytes("b"), userHeaders.get(2).value());
+
+        // The retry headers of the previous attempt are replaced, not repeated
+        assertEquals(1, message.getRecordHeaders().stream().filter(h -> h.key().equals(RetryHeaders.ATTEMPT)).count());
+
+        var sentRecord = message.toRecord("orders-retry-2");
+        assertArrayEquals(binary, sentRecord.headers().lastHeader("schema-id").value());
+        var traces = new ArrayList<String>();
+        sentRecord.headers().headers("trace").forEach(h -> traces.add(new String(h.value(), StandardCharsets.UTF_8)));
+        assertEquals(List.of("a", "b"), traces);
+    }
+
+    @Test
+    public void handleError_retried_record_moves_to_next_tier_and_finally_to_dlt() {
+
+        var producer = new CapturingProducer();
+        var handler = new ScheduleRetryErrorHandler(producer, policy);
+
+        var firstRetry = retryRecord("orders-retry-1", 1);
+        var lastRetry = retryRecord("orders-retry-2", 2);
+
+        handler.handleError(List.of(firstRetry, lastRetry));
+
+        var secondTier = producer.sent.get("orders-retry-2").get(0);
+        assertEquals("2", header(secondTier, RetryHeaders.ATTEMPT));
+        assertEquals("42", header(secondTier, RetryHeaders.ORIGINAL_OFFSET));
+
+        var deadLetter = producer.sent.get("orders-dlt").get(0);
+        assertEquals("3", header(deadLetter, RetryHeaders.ATTEMPT));
+        assertEquals("orders", header(deadLetter, RetryHeaders.ORIGINAL_TOPIC));
+        assertNull(header(deadLetter, RetryHeaders.DUE_AT));
+    }
+
+    @Test
+    public void retryTopics_names_all_tiers() {
+        assertEquals(
+                List.of("orders-retry-1", "orders-retry-2", "users-retry-1", "users-retry-2"),
+                policy.retryTopics(List.of("orders", "users"))
+        );
+        assertEquals("orders-dlt", policy.deadLetterTopic("orders"));
+    }
+
+    /***************************************************************************
+     *                                                                         *
+     * Test support                                                            *
+     *                                                                         *
+     **************************************************************************/
+
+    private static ConsumerRecord<byte[], byte[]> retryRecord(String topic, int attempt){
+        var record = new ConsumerRecord<>(topic, 0, 7L, bytes("key"), bytes("value"));
+        record.headers().add(header(RetryHeaders.ORIGINAL_TOPIC, "orders"));
+        record.headers().add(header(RetryHeaders.ORIGINAL_PARTITION, "2"));
+        record.headers().add(header(RetryHeaders.ORIGINAL_OFFSET, "42"));
+        record.headers().add(header(RetryHeaders.ATTEMPT, String.valueOf(attempt)));
+        record.headers().add(header(RetryHeaders.DUE_AT, "0"));
+        return record;
+    }
+
+    private static String header(KafkaMessage<byte[], byte[]> message, String key){
+        String value = null;
+        for(var header : message.getRecordHeaders()){
+            if(header.key().equals(key)){
+                value = new String(header.value(), StandardCharsets.UTF_8);
+            }
+        }
+        return value;
+    }
+
+    private static RecordHeader header(String key, String value){
+        return new RecordHeader(key, bytes(value));
+    }
+
+    private static byte[] bytes(String value){
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static class CapturingProducer extends KafkaProducerMock<byte[], byte[]> {
+
+        private final Map<String, List<KafkaMessage<byte[], byte[]>>> sent = new HashMap<>();
+
+        @Override
+        public CompletableFuture<BulkSendResult> sendBulk(String topic, Collection<KafkaMessage<byte[], byte[]>> kafkaMessages, boolean keepMetadata, boolean flush) {
+            sent.computeIfAbsent(topic, t -> new ArrayList<>()).addAll(kafkaMessages);
+            return CompletableFuture.completedFuture(new BulkSendResult(kafkaMessages.size(), null));
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.elderbyte.kafka.messages;
+
+import com.elderbyte.messaging.MessageKeyUtil;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class CompositeKeyCodecTest {
+
+    public static class PairKey {
+        public String first;
+        public String second;
+    }
+
+    private static final String[] VALUES = {
+            "plain",
+            "with.dot",
+            "back\\slash",
+            "!\"#$%&'()*+,-./:;<=>?@[\\]^_`{|}~",
+            "a|b:c;d,e",
+            "Zürich €",
+            "😀",
+            ""
+    };
+
+    @Test
+    public void encode_matches_MessageKeyUtil_or_falls_back() throws Exception {
+        var codec = codec();
+
+        for(var first : VALUES){
+            for(var second : VALUES){
+                var encoded = codec.encode(pairKey(first, second));
+                if(isPlain(first, second)){
+                    assertNotNull("Expected the codec to encode " + first + " / " + second, encoded);
+                }
+                if(encoded != null){
+                    var expected = MessageKeyUtil.compositeKey(first, second);
+                    assertEquals(expected, new String(encoded, StandardCharsets.UTF_8));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void decode_matches_MessageKeyUtil_or_falls_back() throws Exception {
+        var codec = codec();
+
+        for(var first : VALUES){
+            for(var second : VALUES){
+                var joined = MessageKeyUtil.compositeKey(first, second);
+                var decoded = new PairKey();
+                var handled = codec.decodeTo(joined.getBytes(StandardCharsets.UTF_8), decoded);
+                if(isPlain(first, second) && !first.isEmpty() && !second.isEmpty()){
+                    assertTrue("Expected the codec to decode " + joined, handled);
+                }
+                if(handled){
+                    var expected = MessageKeyUtil.parseCompositeKey(joined);
+                    assertEquals(expected, List.of(decoded.first, decoded.second));
+                }
+            }
+        }
+    }
+
+    /***************************************************************************
+     *                                                                         *
+     * Test support                                                            *
+     *                                                                         *
+     **************************************************************************/
+
+    /**
+     * Values without the delimiter are joined as they are, hence the codec must handle them itself.
+     * A backslash only falls back if MessageKeyUtil escapes it. Keys with empty values are
+     * encoded, but decoded by MessageKeyUtil.
+     */
+    private static boolean isPlain(String... values){
+        var delimiter = MessageKeyUtil.compositeKey("a", "b").substring(1, 2);
+        var escapesBackslash = !MessageKeyUtil.compositeKey("\\", "b").equals("\\" + delimiter + "b");
+        for(var value : values){
+            if(value.contains(delimiter) || (escapesBackslash && value.contains("\\"))){
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static CompositeKeyCodec codec() throws Exception {
+        return new CompositeKeyCodec(List.of(
+                new MessageKeyField(PairKey.class.getField("first"), true),
+                new MessageKeyField(PairKey.class.getField("second"), true)
+        ));
+    }
+
+    private static PairKey pairKey(String first, String second){
+        var key = new PairKey();
+        key.first = first;
+        key.second = second;
+        return key;
+    }
+}
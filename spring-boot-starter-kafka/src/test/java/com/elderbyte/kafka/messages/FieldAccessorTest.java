@@ -0,0 +1,47 @@
+package com.elderbyte.kafka.messages;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class FieldAccessorTest {
+
+    public static class Sample {
+        public String name;
+        public long count;
+        public final String fixed = "fixed";
+    }
+
+    @Test
+    public void get_and_set_roundtrip() throws Exception {
+        var accessor = FieldAccessor.of(Sample.class.getField("name"));
+        var sample = new Sample();
+
+        accessor.set(sample, "hello");
+
+        assertEquals("hello", sample.name);
+        assertEquals("hello", accessor.get(sample));
+        assertEquals("hello", accessor.getRequiredAsString(sample));
+    }
+
+    @Test
+    public void setString_parses_numeric_fields() throws Exception {
+        var accessor = FieldAccessor.of(Sample.class.getField("count"));
+        var sample = new Sample();
+
+        accessor.setString(sample, "42");
+
+        assertEquals(42L, sample.count);
+        assertEquals("42", accessor.getAsString(sample));
+    }
+
+    @Test(expected = InvalidMessageException.class)
+    public void getRequiredAsString_fails_on_null() throws Exception {
+        FieldAccessor.of(Sample.class.getField("name")).getRequiredAsString(new Sample());
+    }
+
+    @Test(expected = InvalidMessageException.class)
+    public void set_fails_on_final_field() throws Exception {
+        FieldAccessor.of(Sample.class.getField("fixed")).set(new Sample(), "other");
+    }
+}
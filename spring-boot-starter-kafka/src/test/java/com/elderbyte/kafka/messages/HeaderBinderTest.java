@@ -0,0 +1,58 @@
+package com.elderbyte.kafka.messages;
+
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class HeaderBinderTest {
+
+    public static class Sample {
+        public String tenant;
+        public String user = "unchanged";
+        public Map<String, String> all;
+    }
+
+    private static HeaderBinder binder() throws Exception {
+        return new HeaderBinder(Arrays.asList(
+                new MetadataField(Sample.class.getField("tenant"), "tenant", true, true),
+                new MetadataField(Sample.class.getField("user"), "user", true, true),
+                new MetadataField(Sample.class.getField("all"), "all", false, true)
+        ));
+    }
+
+    private static byte[] utf8(String value){
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void bind_uses_the_last_header_of_a_key() throws Exception {
+        var headers = new RecordHeaders();
+        headers.add("tenant", utf8("first"));
+        headers.add("other", utf8("x"));
+        headers.add("tenant", utf8("last"));
+        var sample = new Sample();
+
+        binder().bind(sample, headers);
+
+        assertEquals("last", sample.tenant);
+        assertEquals("unchanged", sample.user);
+        assertEquals(Map.of("tenant", "last", "other", "x"), sample.all);
+    }
+
+    @Test
+    public void bind_skips_null_header_values() throws Exception {
+        var headers = new RecordHeaders();
+        headers.add("user", null);
+        var sample = new Sample();
+
+        binder().bind(sample, headers);
+
+        assertEquals("unchanged", sample.user);
+        assertTrue(sample.all.containsKey("user"));
+    }
+}
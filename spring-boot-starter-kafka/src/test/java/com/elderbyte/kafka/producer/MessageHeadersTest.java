@@ -0,0 +1,55 @@
+package com.elderbyte.kafka.producer;
+
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class MessageHeadersTest {
+
+    @Test
+    public void layout_omits_null_values() {
+        var layout = MessageHeaders.layout("tenant", "user", "region");
+
+        var headers = layout.headers(new String[]{"acme", null, "eu"});
+
+        assertEquals(2, headers.size());
+        assertEquals("acme", headers.get("tenant"));
+        assertNull(headers.get("user"));
+        assertEquals(Map.of("tenant", "acme", "region", "eu"), headers);
+    }
+
+    @Test
+    public void record_headers_are_encoded_once_but_not_shared() {
+        var headers = MessageHeaders.copyOf(Map.of("tenant", "äcme"));
+
+        var first = headers.toRecordHeaders();
+        var second = headers.toRecordHeaders();
+
+        assertNotSame(first, second);
+        assertSame(first.lastHeader("tenant"), second.lastHeader("tenant"));
+        assertArrayEquals("äcme".getBytes(StandardCharsets.UTF_8), first.lastHeader("tenant").value());
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void headers_are_immutable() {
+        var source = new HashMap<String, String>();
+        source.put("tenant", "acme");
+
+        MessageHeaders.copyOf(source).put("user", "joe");
+    }
+
+    @Test
+    public void kafka_message_headers_end_up_in_records() {
+        var message = KafkaMessage.build("key", "value", Map.of("tenant", "acme"));
+
+        var record = message.toRecord("topic");
+        var consumerRecord = message.toConsumerRecord("topic", 1);
+
+        assertArrayEquals("acme".getBytes(StandardCharsets.UTF_8), record.headers().lastHeader("tenant").value());
+        assertArrayEquals("acme".getBytes(StandardCharsets.UTF_8), consumerRecord.headers().lastHeader("tenant").value());
+    }
+}
@@ -0,0 +1,84 @@
+package com.elderbyte.kafka.producer.impl;
+
+import com.elderbyte.kafka.producer.KafkaMessage;
+import org.apache.kafka.clients.producer.MockProducer;
+import org.apache.kafka.clients.producer.Producer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.Test;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.core.ProducerFactory;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionException;
+
+import static org.junit.Assert.*;
+
+public class KafkaProducerImplTest {
+
+    @Test
+    public void sendBulk_flush_completes_all_records() {
+        var mockProducer = new MockProducer<>(false, new StringSerializer(), new StringSerializer());
+        var producer = new KafkaProducerImpl<>(template(mockProducer));
+
+        var future = producer.sendBulk("top", List.of(
+                KafkaMessage.build("a", "1", Map.of("h", "x")),
+                KafkaMessage.build("b", "2")
+        ), true, true);
+
+        assertTrue("The flush has completed all records", future.isDone());
+        assertEquals("x", new String(mockProducer.history().get(0).headers().lastHeader("h").value()));
+
+        var result = future.join();
+        assertEquals(2, result.size());
+        assertTrue(result.hasMetadata());
+        assertEquals("top", result.getMetadata(1).topic());
+    }
+
+    @Test
+    public void sendBulk_fails_as_one_unit() {
+        var mockProducer = new MockProducer<>(false, new StringSerializer(), new StringSerializer());
+        var producer = new KafkaProducerImpl<>(template(mockProducer));
+
+        var future = producer.sendBulk("top", List.of(
+                KafkaMessage.build("a", "1"),
+                KafkaMessage.build("b", "2"),
+                KafkaMessage.build("c", "3")
+        ), false, false);
+
+        mockProducer.completeNext();
+        mockProducer.errorNext(new IllegalStateException("broker down"));
+        assertFalse("Completes only once all records are acknowledged", future.isDone());
+        mockProducer.completeNext();
+
+        try {
+            future.join();
+            fail("Expected the bulk send to fail");
+        }catch (CompletionException e){
+            assertEquals("broker down", e.getCause().getMessage());
+        }
+    }
+
+    @Test
+    public void sendBulk_empty() {
+        var producer = new KafkaProducerImpl<String, String>(template(null));
+
+        var result = producer.sendBulk("top", List.of(), true, true).join();
+
+        assertEquals(0, result.size());
+    }
+
+    private static KafkaTemplate<String, String> template(MockProducer<String, String> mockProducer){
+        return new KafkaTemplate<>(new ProducerFactory<>() {
+            @Override
+            public Producer<String, String> createProducer() {
+                return mockProducer;
+            }
+
+            @Override
+            public Producer<String, String> createProducer(String txIdPrefix) {
+                return mockProducer;
+            }
+        });
+    }
+}
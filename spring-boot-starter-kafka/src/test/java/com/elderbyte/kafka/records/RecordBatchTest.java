@@ -3,9 +3,10 @@ package com.elderbyte.kafka.records;
 import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.junit.Test;
 
-import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.List;
+import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
 
 import static org.junit.Assert.*;
 
@@ -251,6 +252,109 @@ public class RecordBatchTest {
 
 
 
+    @Test
+    public void compacted_byte_array_keys_by_content() {
+        var batch = new RecordBatch<byte[], String>(Arrays.asList(
+                new ConsumerRecord<>("top", 0, 0, new byte[]{1, 2}, "1"),
+                new ConsumerRecord<>("top", 0, 1, new byte[]{3}, "1"),
+                new ConsumerRecord<>("top", 0, 2, new byte[]{1, 2}, "2")
+        ));
+
+        var compacted = batch.compacted();
+
+        assertEquals(2, compacted.size());
+        assertEquals(1, compacted.get(0).offset());
+        assertEquals(2, compacted.get(1).offset());
+    }
+
+    @Test
+    public void compacted_matches_latest_record_per_key_in_large_batch() {
+        var random = new Random(42);
+        var records = new ArrayList<ConsumerRecord<String, String>>();
+        for(int i = 0; i < 10_000; i++){
+            var key = random.nextInt(20) == 0 ? null : "k" + random.nextInt(1500);
+            records.add(new ConsumerRecord<>("top", 0, i, key, random.nextInt(4) == 0 ? null : "v" + i));
+        }
+
+        var latest = new LinkedHashMap<String, ConsumerRecord<String, String>>();
+        records.forEach(r -> {
+            latest.remove(r.key());
+            latest.put(r.key(), r);
+        });
+
+        var batch = new RecordBatch<>(records);
+        var updated = new ArrayList<ConsumerRecord<String, String>>();
+        var deleted = new ArrayList<ConsumerRecord<String, String>>();
+        batch.compactedUpdateOrDelete(updated::addAll, deleted::addAll);
+
+        assertEquals(new ArrayList<>(latest.values()), batch.compacted());
+        assertEquals(latest.values().stream().filter(r -> r.value() != null).collect(Collectors.toList()), updated);
+        assertEquals(latest.values().stream().filter(r -> r.value() == null).collect(Collectors.toList()), deleted);
+    }
+
+    @Test
+    public void compactedUpdateOrDelete_concurrent_chunks_updates() throws Exception {
+        var records = new ArrayList<ConsumerRecord<String, String>>();
+        for(int i = 0; i < 10; i++){
+            records.add(record("k" + i, "v" + i));
+        }
+        records.add(record("k3", null));
+
+        var executor = Executors.newFixedThreadPool(4);
+        try {
+            var updated = new ConcurrentLinkedQueue<List<String>>();
+            var deleted = new ConcurrentLinkedQueue<List<String>>();
+
+            new RecordBatch<>(records).compactedUpdateOrDelete(
+                    chunk -> updated.add(keys(chunk)),
+                    chunk -> deleted.add(keys(chunk)),
+                    executor, 4
+            );
+
+            assertEquals(List.of(List.of("k3")), new ArrayList<>(deleted));
+            var chunks = new ArrayList<>(updated);
+            chunks.sort(Comparator.comparing(c -> c.get(0)));
+            assertEquals(List.of(
+                    List.of("k0", "k1", "k2", "k4"),
+                    List.of("k5", "k6", "k7", "k8"),
+                    List.of("k9")
+            ), chunks);
+        }finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void compactedUpdateOrDelete_concurrent_fails_as_one_unit() {
+        var records = new ArrayList<ConsumerRecord<String, String>>();
+        for(int i = 0; i < 6; i++){
+            records.add(record("k" + i, i == 0 ? null : "v" + i));
+        }
+
+        var executor = Executors.newFixedThreadPool(4);
+        var completed = new ConcurrentLinkedQueue<String>();
+        try {
+            new RecordBatch<>(records).compactedUpdateOrDelete(
+                    chunk -> {
+                        Thread.sleep(50);
+                        completed.addAll(keys(chunk));
+                    },
+                    chunk -> { throw new IllegalStateException("delete failed"); },
+                    executor, 2
+            );
+            fail("Expected the batch to fail");
+        }catch (RuntimeException e){
+            assertEquals("delete failed", e.getCause().getMessage());
+            assertEquals("All other chunks have completed before the batch failed", 5, completed.size());
+        }finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static List<String> keys(List<ConsumerRecord<String, String>> records){
+        return records.stream().map(ConsumerRecord::key).collect(Collectors.toList());
+    }
+
     private ConsumerRecord<String, String> record(String key, String value){
         return new ConsumerRecord<>("top", 0, 0, key, value);
     }
@@ -0,0 +1,43 @@
+package com.elderbyte.kafka.serialisation.json;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class ElderKafkaJsonDeserializerTest {
+
+    @Test
+    public void deserialize_type_reference() {
+        var deserializer = new ElderKafkaJsonDeserializer<>(
+                new TypeReference<List<Map<String, Integer>>>() {},
+                DefaultJsonMapper.buildDefaultMapper()
+        );
+
+        var value = deserializer.deserialize("top", "[{\"a\":1}]".getBytes(StandardCharsets.UTF_8));
+
+        assertEquals(List.of(Map.of("a", 1)), value);
+    }
+
+    @Test
+    public void deserialize_poison_message_renders_bounded_excerpt() {
+        var deserializer = new ElderKafkaJsonDeserializer<>(Map.class);
+
+        var poison = new byte[1024 * 1024];
+        Arrays.fill(poison, (byte)'x');
+
+        try {
+            deserializer.deserialize("top", poison);
+            fail("Expected a JsonDeserializationException");
+        }catch (JsonDeserializationException e){
+            assertEquals(poison.length, e.getPayloadLength());
+            assertTrue(e.getMessage().contains("(1048576 bytes in total)"));
+            assertTrue(e.getMessage().length() < 1000);
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.elderbyte.kafka.serialisation.json;
+
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class ElderKafkaJsonSerializerTest {
+
+    @Test
+    public void serialize_returns_exactly_sized_json() {
+        var serializer = new ElderKafkaJsonSerializer<Object>();
+
+        var large = serializer.serialize("top", Map.of("payload", "x".repeat(100_000)));
+        var small = serializer.serialize("top", List.of(1, 2));
+
+        assertEquals(100_000 + "{\"payload\":\"\"}".length(), large.length);
+        assertEquals("[1,2]", new String(small, StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void serialize_null_is_null() {
+        assertNull(new ElderKafkaJsonSerializer<>().serialize("top", null));
+    }
+}
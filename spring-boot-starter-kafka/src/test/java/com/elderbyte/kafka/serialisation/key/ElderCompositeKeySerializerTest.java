@@ -0,0 +1,72 @@
+package com.elderbyte.kafka.serialisation.key;
+
+import com.elderbyte.kafka.messages.MessageKeyBlueprint;
+import com.elderbyte.messaging.annotations.MessageCompositeKey;
+import com.elderbyte.messaging.annotations.MessageKey;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.*;
+
+public class ElderCompositeKeySerializerTest {
+
+    @MessageCompositeKey({"company", "number", "name"})
+    public static class OrderKey {
+        @MessageKey
+        public String company;
+        @MessageKey
+        public long number;
+        @MessageKey
+        public String name;
+    }
+
+    public static class SimpleKey {
+        @MessageKey
+        public Integer id;
+    }
+
+    private static OrderKey orderKey(String company, long number, String name){
+        var key = new OrderKey();
+        key.company = company;
+        key.number = number;
+        key.name = name;
+        return key;
+    }
+
+    @Test
+    public void serialize_matches_string_key_format() {
+        var blueprint = MessageKeyBlueprint.from(OrderKey.class);
+        var serializer = new ElderCompositeKeySerializer<>(OrderKey.class);
+
+        for(var key : new OrderKey[]{
+                orderKey("elder", 42, "Zürich €"),
+                orderKey("", -7, "😀"),
+                orderKey("with.dot", Long.MIN_VALUE, "x")
+        }){
+            var expected = blueprint.serializeKey(key).getBytes(StandardCharsets.UTF_8);
+            assertArrayEquals(expected, serializer.serialize("topic", key));
+        }
+    }
+
+    @Test
+    public void deserialize_roundtrip() {
+        var serializer = new ElderCompositeKeySerializer<>(OrderKey.class);
+        var deserializer = new ElderCompositeKeyDeserializer<>(OrderKey.class);
+
+        var key = deserializer.deserialize("topic", serializer.serialize("topic", orderKey("elder", -1234567890123L, "Zürich")));
+
+        assertEquals("elder", key.company);
+        assertEquals(-1234567890123L, key.number);
+        assertEquals("Zürich", key.name);
+    }
+
+    @Test
+    public void deserialize_single_numeric_key() {
+        var deserializer = new ElderCompositeKeyDeserializer<>(SimpleKey.class);
+
+        var key = deserializer.deserialize("topic", "123".getBytes(StandardCharsets.UTF_8));
+
+        assertEquals(Integer.valueOf(123), key.id);
+    }
+}
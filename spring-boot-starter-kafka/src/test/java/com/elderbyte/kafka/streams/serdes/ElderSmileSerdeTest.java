@@ -0,0 +1,43 @@
+package com.elderbyte.kafka.streams.serdes;
+
+import com.elderbyte.kafka.streams.builder.dsl.KStreamSerde;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.kafka.common.serialization.Serdes;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class ElderSmileSerdeTest {
+
+    private final ElderSmileSerde<Map> serde = ElderSmileSerde.from(new ObjectMapper(), Map.class);
+
+    @Test
+    public void roundtrip_is_smaller_than_json() {
+        var value = Map.of("name", "elder", "count", 123456789);
+
+        var smile = serde.serializer().serialize("store", value);
+        var json = serde.getTopicSerde().serializer().serialize("topic", value);
+
+        assertTrue(smile.length < json.length);
+        assertEquals(value, serde.deserializer().deserialize("store", smile));
+    }
+
+    @Test
+    public void deserialize_reads_json_written_before_the_switch() {
+        var json = "{\"name\":\"elder\"}".getBytes(StandardCharsets.UTF_8);
+
+        assertEquals(Map.of("name", "elder"), serde.deserializer().deserialize("store", json));
+    }
+
+    @Test
+    public void kstream_serde_keeps_json_on_topics() {
+        var streamSerde = new KStreamSerde<>(Serdes.String(), serde);
+
+        assertSame(serde, streamSerde.value());
+        assertSame(serde.getTopicSerde(), streamSerde.topicValue());
+        assertSame(serde.getTopicSerde(), streamSerde.withKey(Serdes.Long()).topicValue());
+    }
+}